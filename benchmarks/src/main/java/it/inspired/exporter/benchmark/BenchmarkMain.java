@@ -0,0 +1,56 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, reporting the allocation rate and the 
+ * bytes allocated per operation, and saves the results in jmh-result.json.
+ * The JMH command line options are accepted, eg. 
+ * java -jar target/benchmarks.jar TextExporterBenchmark -p shape=WIDE
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class BenchmarkMain 
+{
+	public static void main( String[] args ) throws Exception
+	{
+		CommandLineOptions cmd = new CommandLineOptions( args );
+		if ( cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats() )
+		{
+			// Let JMH handle the informative options
+			org.openjdk.jmh.Main.main( args );
+			return;
+		}
+		
+		ChainedOptionsBuilder options = new OptionsBuilder().parent( cmd ).addProfiler( GCProfiler.class );
+		if ( !cmd.getResult().hasValue() )
+		{
+			options.result( "jmh-result.json" ).resultFormat( ResultFormatType.JSON );
+		}
+		new Runner( options.build() ).run();
+	}
+}
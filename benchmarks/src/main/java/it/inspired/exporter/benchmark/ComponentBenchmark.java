@@ -0,0 +1,153 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import it.inspired.exporter.AnnotationHelper;
+import it.inspired.exporter.TextBuilder;
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.benchmark.model.FlatBean;
+import it.inspired.exporter.benchmark.model.NestedBean;
+import it.inspired.exporter.plan.ExportPlan;
+import it.inspired.exporter.plan.ExportPlanCache;
+import it.inspired.exporter.plan.PropertyStep;
+import it.inspired.exporter.utils.BeanUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmarks of the components used for each exported value.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentBenchmark 
+{
+	private FlatBean 		bean;
+	private NestedBean 		nested;
+	private Method 			customerGetter;
+	private PropertyStep 	nameStep;
+	private TextBuilder 	text;
+	private TextBuilder 	row;
+	private StringBuilder 	rendered;
+	
+	@Setup(Level.Trial)
+	public void setup() throws Exception
+	{
+		bean 			= new FlatBean( 42 );
+		nested 			= new NestedBean( 42, null );
+		customerGetter 	= NestedBean.class.getMethod( "getCustomer" );
+		
+		ExportPlan plan = ExportPlanCache.getShared().getPlan( FlatBean.class );
+		for ( PropertyStep step : plan.getSteps() )
+		{
+			if ( step.getName().equals( "name" ) )
+			{
+				nameStep = step;
+			}
+		}
+		
+		// 1000 rows of 20 columns
+		text = new TextBuilder();
+		for ( int row = 0; row < 1000; row++ )
+		{
+			for ( int coll = 0; coll < 20; coll++ )
+			{
+				text.add( row, coll, "\"R" + row + "C" + coll + "\"" );
+			}
+		}
+		
+		row 		= new TextBuilder();
+		rendered 	= new StringBuilder();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Benchmark
+	public Object beanUtilsGetProperty()
+	{
+		return BeanUtils.getProperty( bean, "name" );
+	}
+	
+	@Benchmark
+	public Object planStepGetValue() throws Exception
+	{
+		return nameStep.getValue( bean );
+	}
+	
+	@Benchmark
+	public boolean annotationHelperHasExpoElement()
+	{
+		return AnnotationHelper.hasExpoElement( nested );
+	}
+	
+	@Benchmark
+	public List<ExpoProperty> annotationHelperGetExportProperty()
+	{
+		return AnnotationHelper.getExportProperty( customerGetter );
+	}
+	
+	@Benchmark
+	public String annotationHelperGetPrefixKey()
+	{
+		return AnnotationHelper.getPrefixKey( customerGetter, "name" );
+	}
+	
+	/**
+	 * Render and quote a row of 20 numbers, as done by the text exporter for each row.
+	 */
+	@Benchmark
+	public TextBuilder textBuilderAddValue()
+	{
+		row.clear();
+		for ( int coll = 0; coll < 20; coll++ )
+		{
+			rendered.setLength( 0 );
+			rendered.append( 1000L * coll );
+			row.addValue( 0, coll, rendered );
+		}
+		return row;
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public String textBuilderToString()
+	{
+		return text.toString();
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import it.inspired.exporter.ExcelExporter;
+import it.inspired.exporter.TextExporter;
+
+import java.io.OutputStream;
+
+/**
+ * Exporters and streams shared by the benchmarks.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class Fixtures 
+{
+	private Fixtures() {}
+	
+	/**
+	 * @return A text exporter converting the keys into themselves.
+	 */
+	public static TextExporter newTextExporter()
+	{
+		return new TextExporter() {
+			@Override
+			protected String getText( String key ) {
+				return key;
+			}
+		};
+	}
+	
+	/**
+	 * @return An excel exporter converting the keys into themselves.
+	 */
+	public static ExcelExporter newExcelExporter()
+	{
+		return new ExcelExporter() {
+			@Override
+			protected String getText( String key ) {
+				return key;
+			}
+		};
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Output stream discarding the data and counting the written bytes.
+	 */
+	public static class CountingOutputStream extends OutputStream
+	{
+		private long count = 0;
+		
+		@Override
+		public void write( int b ) {
+			count++;
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) {
+			count += len;
+		}
+		
+		public long getCount() {
+			return count;
+		}
+	}
+}
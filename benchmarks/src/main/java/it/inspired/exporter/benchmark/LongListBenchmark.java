@@ -0,0 +1,87 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import it.inspired.exporter.ExcelExporter;
+import it.inspired.exporter.TextExporter;
+import it.inspired.exporter.benchmark.Fixtures.CountingOutputStream;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Export of one million rows in streaming mode, the beans are created while they are 
+ * exported so that the measure includes neither the heap nor the GC cost of the whole list.
+ * The XLS format is not measured since it is limited to 65536 rows.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class LongListBenchmark 
+{
+	@Param({"FLAT", "NESTED"})
+	private Shape shape;
+	
+	@Param({"1000000"})
+	private int rows;
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Benchmark
+	public long csvStreaming() throws Exception
+	{
+		CountingOutputStream out = new CountingOutputStream();
+		TextExporter exporter = Fixtures.newTextExporter();
+		exporter.init();
+		exporter.setOutputStream( out );
+		exporter.export( shape.iterator( rows ) );
+		exporter.finalyze();
+		exporter.write( out );
+		return out.getCount();
+	}
+	
+	@Benchmark
+	public long xlsxStreaming() throws Exception
+	{
+		CountingOutputStream out = new CountingOutputStream();
+		ExcelExporter exporter = Fixtures.newExcelExporter();
+		exporter.setStreaming( true );
+		exporter.init();
+		exporter.export( shape.iterator( rows ) );
+		exporter.finalyze();
+		exporter.write( out );
+		return out.getCount();
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import it.inspired.exporter.benchmark.model.FlatBean;
+import it.inspired.exporter.benchmark.model.NestedBean;
+import it.inspired.exporter.benchmark.model.WideBean;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The shapes of the exported rows.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public enum Shape 
+{
+	// 10 columns read from a single bean
+	FLAT,
+	
+	// About 20 columns read from a graph of objects
+	NESTED,
+	
+	// 200 columns read from a single bean
+	WIDE;
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Create the list of the objects to export.
+	 * @param rows The number of objects.
+	 * @return The objects.
+	 */
+	public List<Object> createList( int rows )
+	{
+		List<Object> list = new ArrayList<Object>( rows );
+		Iterator<Object> iterator = iterator( rows );
+		while ( iterator.hasNext() )
+		{
+			list.add( iterator.next() );
+		}
+		return list;
+	}
+	
+	/**
+	 * Return an iterator creating the objects to export when requested, 
+	 * so that long lists do not have to be kept in memory.
+	 * @param rows The number of objects.
+	 * @return The iterator of the objects.
+	 */
+	public Iterator<Object> iterator( final int rows )
+	{
+		return new Iterator<Object>() {
+			private int 		index = 0;
+			private NestedBean 	previous;
+			
+			public boolean hasNext() {
+				return index < rows;
+			}
+			
+			public Object next() {
+				if ( index >= rows )
+				{
+					throw new NoSuchElementException();
+				}
+				long current = index++;
+				switch ( Shape.this )
+				{
+					case FLAT:
+						return new FlatBean( current );
+					case WIDE:
+						return new WideBean( current );
+					default:
+						// The chain of parents is kept short to bound the retained objects
+						previous = new NestedBean( current, ( current % 10 == 0 ? null : previous ) );
+						return previous;
+				}
+			}
+			
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
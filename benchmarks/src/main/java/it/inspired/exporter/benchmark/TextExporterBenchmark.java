@@ -0,0 +1,94 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark;
+
+import it.inspired.exporter.TextExporter;
+import it.inspired.exporter.benchmark.Fixtures.CountingOutputStream;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Export of a list of beans to CSV, building the whole text in memory or streaming the rows.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextExporterBenchmark 
+{
+	@Param({"FLAT", "NESTED", "WIDE"})
+	private Shape shape;
+	
+	@Param({"10000"})
+	private int rows;
+	
+	private List<Object> data;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		data = shape.createList( rows );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Benchmark
+	public long inMemory() throws Exception
+	{
+		CountingOutputStream out = new CountingOutputStream();
+		TextExporter exporter = Fixtures.newTextExporter();
+		exporter.init();
+		exporter.export( data );
+		exporter.finalyze();
+		exporter.write( out );
+		return out.getCount();
+	}
+	
+	@Benchmark
+	public long streaming() throws Exception
+	{
+		CountingOutputStream out = new CountingOutputStream();
+		TextExporter exporter = Fixtures.newTextExporter();
+		exporter.init();
+		exporter.setOutputStream( out );
+		exporter.export( data );
+		exporter.finalyze();
+		exporter.write( out );
+		return out.getCount();
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark.model;
+
+/**
+ * Plain object whose properties are exported through the {@link it.inspired.exporter.annotation.ExpoProperty} 
+ * annotating the getter of the owner.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class Customer 
+{
+	private String name;
+	private String city;
+	private String email;
+	
+	public Customer( long index )
+	{
+		this.name 	= "Customer " + index;
+		this.city 	= "City " + ( index % 50 );
+		this.email 	= "customer" + index + "@example.com";
+	}
+	
+	public String getName() {
+		return name;
+	}
+	public String getCity() {
+		return city;
+	}
+	public String getEmail() {
+		return email;
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark.model;
+
+import it.inspired.exporter.annotation.ExpoElement;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Bean whose properties are all exported as single cells.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@ExpoElement
+public class FlatBean 
+{
+	private Long 		id;
+	private String 		name;
+	private String 		code;
+	private String 		category;
+	private String 		note;
+	private BigDecimal 	amount;
+	private int 		quantity;
+	private double 		price;
+	private Date 		created;
+	private boolean 	active;
+	
+	public FlatBean( long index )
+	{
+		this.id 		= index;
+		this.name 		= "Name " + index;
+		this.code 		= "C" + ( index % 1000 );
+		this.category 	= "Category " + ( index % 7 );
+		this.note 		= ( index % 3 == 0 ? null : "Note \"" + index + "\"" );
+		this.amount 	= BigDecimal.valueOf( index * 125, 2 );
+		this.quantity 	= (int) ( index % 100 );
+		this.price 		= index * 0.5;
+		this.created 	= new Date( 1451606400000L + index * 60000L );
+		this.active 	= ( index % 2 == 0 );
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	public void setId(Long id) {
+		this.id = id;
+	}
+	public String getName() {
+		return name;
+	}
+	public String getCode() {
+		return code;
+	}
+	public String getCategory() {
+		return category;
+	}
+	public String getNote() {
+		return note;
+	}
+	public BigDecimal getAmount() {
+		return amount;
+	}
+	public int getQuantity() {
+		return quantity;
+	}
+	public double getPrice() {
+		return price;
+	}
+	public Date getCreated() {
+		return created;
+	}
+	public boolean isActive() {
+		return active;
+	}
+}
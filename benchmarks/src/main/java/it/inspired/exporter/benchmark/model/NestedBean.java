@@ -0,0 +1,78 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark.model;
+
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperties;
+import it.inspired.exporter.annotation.ExpoProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Bean exporting a graph of objects: the properties of the customer listed by 
+ * the {@link ExpoProperty} annotations, a nested bean exported as an entity on its own
+ * and a reference to a previous bean.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@ExpoElement
+public class NestedBean 
+{
+	private Long 		id;
+	private String 		description;
+	private BigDecimal 	total;
+	private Customer 	customer;
+	private FlatBean 	item;
+	private NestedBean 	parent;
+	
+	public NestedBean( long index, NestedBean parent )
+	{
+		this.id 			= index;
+		this.description 	= "Order " + index;
+		this.total 			= BigDecimal.valueOf( index * 990, 2 );
+		this.customer 		= new Customer( index % 1000 );
+		this.item 			= new FlatBean( index );
+		this.parent 		= parent;
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	public void setId(Long id) {
+		this.id = id;
+	}
+	public String getDescription() {
+		return description;
+	}
+	public BigDecimal getTotal() {
+		return total;
+	}
+	@ExpoProperties( property = { @ExpoProperty( value = "name", position = 1 ), @ExpoProperty( value = "city", position = 2 ), @ExpoProperty( value = "email", position = 3 ) } )
+	public Customer getCustomer() {
+		return customer;
+	}
+	public FlatBean getItem() {
+		return item;
+	}
+	@ExpoProperties( property = { @ExpoProperty( value = "description" ) } )
+	public NestedBean getParent() {
+		return parent;
+	}
+}
@@ -0,0 +1,643 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.benchmark.model;
+
+import it.inspired.exporter.annotation.ExpoElement;
+
+/**
+ * Bean with 200 exported properties, used to measure wide rows.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@ExpoElement
+public class WideBean 
+{
+	private final Object[] values = new Object[200];
+	
+	public WideBean( long index )
+	{
+		for ( int i = 0; i < values.length; i++ )
+		{
+			// Alternate text and numeric cells
+			values[i] = ( i % 2 == 0 ? (Object) ( "V" + index + "." + i ) : (Object) Long.valueOf( index * i ) );
+		}
+	}
+	
+	public String getC000() {
+		return (String) values[0];
+	}
+	public Long getC001() {
+		return (Long) values[1];
+	}
+	public String getC002() {
+		return (String) values[2];
+	}
+	public Long getC003() {
+		return (Long) values[3];
+	}
+	public String getC004() {
+		return (String) values[4];
+	}
+	public Long getC005() {
+		return (Long) values[5];
+	}
+	public String getC006() {
+		return (String) values[6];
+	}
+	public Long getC007() {
+		return (Long) values[7];
+	}
+	public String getC008() {
+		return (String) values[8];
+	}
+	public Long getC009() {
+		return (Long) values[9];
+	}
+	public String getC010() {
+		return (String) values[10];
+	}
+	public Long getC011() {
+		return (Long) values[11];
+	}
+	public String getC012() {
+		return (String) values[12];
+	}
+	public Long getC013() {
+		return (Long) values[13];
+	}
+	public String getC014() {
+		return (String) values[14];
+	}
+	public Long getC015() {
+		return (Long) values[15];
+	}
+	public String getC016() {
+		return (String) values[16];
+	}
+	public Long getC017() {
+		return (Long) values[17];
+	}
+	public String getC018() {
+		return (String) values[18];
+	}
+	public Long getC019() {
+		return (Long) values[19];
+	}
+	public String getC020() {
+		return (String) values[20];
+	}
+	public Long getC021() {
+		return (Long) values[21];
+	}
+	public String getC022() {
+		return (String) values[22];
+	}
+	public Long getC023() {
+		return (Long) values[23];
+	}
+	public String getC024() {
+		return (String) values[24];
+	}
+	public Long getC025() {
+		return (Long) values[25];
+	}
+	public String getC026() {
+		return (String) values[26];
+	}
+	public Long getC027() {
+		return (Long) values[27];
+	}
+	public String getC028() {
+		return (String) values[28];
+	}
+	public Long getC029() {
+		return (Long) values[29];
+	}
+	public String getC030() {
+		return (String) values[30];
+	}
+	public Long getC031() {
+		return (Long) values[31];
+	}
+	public String getC032() {
+		return (String) values[32];
+	}
+	public Long getC033() {
+		return (Long) values[33];
+	}
+	public String getC034() {
+		return (String) values[34];
+	}
+	public Long getC035() {
+		return (Long) values[35];
+	}
+	public String getC036() {
+		return (String) values[36];
+	}
+	public Long getC037() {
+		return (Long) values[37];
+	}
+	public String getC038() {
+		return (String) values[38];
+	}
+	public Long getC039() {
+		return (Long) values[39];
+	}
+	public String getC040() {
+		return (String) values[40];
+	}
+	public Long getC041() {
+		return (Long) values[41];
+	}
+	public String getC042() {
+		return (String) values[42];
+	}
+	public Long getC043() {
+		return (Long) values[43];
+	}
+	public String getC044() {
+		return (String) values[44];
+	}
+	public Long getC045() {
+		return (Long) values[45];
+	}
+	public String getC046() {
+		return (String) values[46];
+	}
+	public Long getC047() {
+		return (Long) values[47];
+	}
+	public String getC048() {
+		return (String) values[48];
+	}
+	public Long getC049() {
+		return (Long) values[49];
+	}
+	public String getC050() {
+		return (String) values[50];
+	}
+	public Long getC051() {
+		return (Long) values[51];
+	}
+	public String getC052() {
+		return (String) values[52];
+	}
+	public Long getC053() {
+		return (Long) values[53];
+	}
+	public String getC054() {
+		return (String) values[54];
+	}
+	public Long getC055() {
+		return (Long) values[55];
+	}
+	public String getC056() {
+		return (String) values[56];
+	}
+	public Long getC057() {
+		return (Long) values[57];
+	}
+	public String getC058() {
+		return (String) values[58];
+	}
+	public Long getC059() {
+		return (Long) values[59];
+	}
+	public String getC060() {
+		return (String) values[60];
+	}
+	public Long getC061() {
+		return (Long) values[61];
+	}
+	public String getC062() {
+		return (String) values[62];
+	}
+	public Long getC063() {
+		return (Long) values[63];
+	}
+	public String getC064() {
+		return (String) values[64];
+	}
+	public Long getC065() {
+		return (Long) values[65];
+	}
+	public String getC066() {
+		return (String) values[66];
+	}
+	public Long getC067() {
+		return (Long) values[67];
+	}
+	public String getC068() {
+		return (String) values[68];
+	}
+	public Long getC069() {
+		return (Long) values[69];
+	}
+	public String getC070() {
+		return (String) values[70];
+	}
+	public Long getC071() {
+		return (Long) values[71];
+	}
+	public String getC072() {
+		return (String) values[72];
+	}
+	public Long getC073() {
+		return (Long) values[73];
+	}
+	public String getC074() {
+		return (String) values[74];
+	}
+	public Long getC075() {
+		return (Long) values[75];
+	}
+	public String getC076() {
+		return (String) values[76];
+	}
+	public Long getC077() {
+		return (Long) values[77];
+	}
+	public String getC078() {
+		return (String) values[78];
+	}
+	public Long getC079() {
+		return (Long) values[79];
+	}
+	public String getC080() {
+		return (String) values[80];
+	}
+	public Long getC081() {
+		return (Long) values[81];
+	}
+	public String getC082() {
+		return (String) values[82];
+	}
+	public Long getC083() {
+		return (Long) values[83];
+	}
+	public String getC084() {
+		return (String) values[84];
+	}
+	public Long getC085() {
+		return (Long) values[85];
+	}
+	public String getC086() {
+		return (String) values[86];
+	}
+	public Long getC087() {
+		return (Long) values[87];
+	}
+	public String getC088() {
+		return (String) values[88];
+	}
+	public Long getC089() {
+		return (Long) values[89];
+	}
+	public String getC090() {
+		return (String) values[90];
+	}
+	public Long getC091() {
+		return (Long) values[91];
+	}
+	public String getC092() {
+		return (String) values[92];
+	}
+	public Long getC093() {
+		return (Long) values[93];
+	}
+	public String getC094() {
+		return (String) values[94];
+	}
+	public Long getC095() {
+		return (Long) values[95];
+	}
+	public String getC096() {
+		return (String) values[96];
+	}
+	public Long getC097() {
+		return (Long) values[97];
+	}
+	public String getC098() {
+		return (String) values[98];
+	}
+	public Long getC099() {
+		return (Long) values[99];
+	}
+	public String getC100() {
+		return (String) values[100];
+	}
+	public Long getC101() {
+		return (Long) values[101];
+	}
+	public String getC102() {
+		return (String) values[102];
+	}
+	public Long getC103() {
+		return (Long) values[103];
+	}
+	public String getC104() {
+		return (String) values[104];
+	}
+	public Long getC105() {
+		return (Long) values[105];
+	}
+	public String getC106() {
+		return (String) values[106];
+	}
+	public Long getC107() {
+		return (Long) values[107];
+	}
+	public String getC108() {
+		return (String) values[108];
+	}
+	public Long getC109() {
+		return (Long) values[109];
+	}
+	public String getC110() {
+		return (String) values[110];
+	}
+	public Long getC111() {
+		return (Long) values[111];
+	}
+	public String getC112() {
+		return (String) values[112];
+	}
+	public Long getC113() {
+		return (Long) values[113];
+	}
+	public String getC114() {
+		return (String) values[114];
+	}
+	public Long getC115() {
+		return (Long) values[115];
+	}
+	public String getC116() {
+		return (String) values[116];
+	}
+	public Long getC117() {
+		return (Long) values[117];
+	}
+	public String getC118() {
+		return (String) values[118];
+	}
+	public Long getC119() {
+		return (Long) values[119];
+	}
+	public String getC120() {
+		return (String) values[120];
+	}
+	public Long getC121() {
+		return (Long) values[121];
+	}
+	public String getC122() {
+		return (String) values[122];
+	}
+	public Long getC123() {
+		return (Long) values[123];
+	}
+	public String getC124() {
+		return (String) values[124];
+	}
+	public Long getC125() {
+		return (Long) values[125];
+	}
+	public String getC126() {
+		return (String) values[126];
+	}
+	public Long getC127() {
+		return (Long) values[127];
+	}
+	public String getC128() {
+		return (String) values[128];
+	}
+	public Long getC129() {
+		return (Long) values[129];
+	}
+	public String getC130() {
+		return (String) values[130];
+	}
+	public Long getC131() {
+		return (Long) values[131];
+	}
+	public String getC132() {
+		return (String) values[132];
+	}
+	public Long getC133() {
+		return (Long) values[133];
+	}
+	public String getC134() {
+		return (String) values[134];
+	}
+	public Long getC135() {
+		return (Long) values[135];
+	}
+	public String getC136() {
+		return (String) values[136];
+	}
+	public Long getC137() {
+		return (Long) values[137];
+	}
+	public String getC138() {
+		return (String) values[138];
+	}
+	public Long getC139() {
+		return (Long) values[139];
+	}
+	public String getC140() {
+		return (String) values[140];
+	}
+	public Long getC141() {
+		return (Long) values[141];
+	}
+	public String getC142() {
+		return (String) values[142];
+	}
+	public Long getC143() {
+		return (Long) values[143];
+	}
+	public String getC144() {
+		return (String) values[144];
+	}
+	public Long getC145() {
+		return (Long) values[145];
+	}
+	public String getC146() {
+		return (String) values[146];
+	}
+	public Long getC147() {
+		return (Long) values[147];
+	}
+	public String getC148() {
+		return (String) values[148];
+	}
+	public Long getC149() {
+		return (Long) values[149];
+	}
+	public String getC150() {
+		return (String) values[150];
+	}
+	public Long getC151() {
+		return (Long) values[151];
+	}
+	public String getC152() {
+		return (String) values[152];
+	}
+	public Long getC153() {
+		return (Long) values[153];
+	}
+	public String getC154() {
+		return (String) values[154];
+	}
+	public Long getC155() {
+		return (Long) values[155];
+	}
+	public String getC156() {
+		return (String) values[156];
+	}
+	public Long getC157() {
+		return (Long) values[157];
+	}
+	public String getC158() {
+		return (String) values[158];
+	}
+	public Long getC159() {
+		return (Long) values[159];
+	}
+	public String getC160() {
+		return (String) values[160];
+	}
+	public Long getC161() {
+		return (Long) values[161];
+	}
+	public String getC162() {
+		return (String) values[162];
+	}
+	public Long getC163() {
+		return (Long) values[163];
+	}
+	public String getC164() {
+		return (String) values[164];
+	}
+	public Long getC165() {
+		return (Long) values[165];
+	}
+	public String getC166() {
+		return (String) values[166];
+	}
+	public Long getC167() {
+		return (Long) values[167];
+	}
+	public String getC168() {
+		return (String) values[168];
+	}
+	public Long getC169() {
+		return (Long) values[169];
+	}
+	public String getC170() {
+		return (String) values[170];
+	}
+	public Long getC171() {
+		return (Long) values[171];
+	}
+	public String getC172() {
+		return (String) values[172];
+	}
+	public Long getC173() {
+		return (Long) values[173];
+	}
+	public String getC174() {
+		return (String) values[174];
+	}
+	public Long getC175() {
+		return (Long) values[175];
+	}
+	public String getC176() {
+		return (String) values[176];
+	}
+	public Long getC177() {
+		return (Long) values[177];
+	}
+	public String getC178() {
+		return (String) values[178];
+	}
+	public Long getC179() {
+		return (Long) values[179];
+	}
+	public String getC180() {
+		return (String) values[180];
+	}
+	public Long getC181() {
+		return (Long) values[181];
+	}
+	public String getC182() {
+		return (String) values[182];
+	}
+	public Long getC183() {
+		return (Long) values[183];
+	}
+	public String getC184() {
+		return (String) values[184];
+	}
+	public Long getC185() {
+		return (Long) values[185];
+	}
+	public String getC186() {
+		return (String) values[186];
+	}
+	public Long getC187() {
+		return (Long) values[187];
+	}
+	public String getC188() {
+		return (String) values[188];
+	}
+	public Long getC189() {
+		return (Long) values[189];
+	}
+	public String getC190() {
+		return (String) values[190];
+	}
+	public Long getC191() {
+		return (Long) values[191];
+	}
+	public String getC192() {
+		return (String) values[192];
+	}
+	public Long getC193() {
+		return (Long) values[193];
+	}
+	public String getC194() {
+		return (String) values[194];
+	}
+	public Long getC195() {
+		return (Long) values[195];
+	}
+	public String getC196() {
+		return (String) values[196];
+	}
+	public Long getC197() {
+		return (Long) values[197];
+	}
+	public String getC198() {
+		return (String) values[198];
+	}
+	public Long getC199() {
+		return (Long) values[199];
+	}
+}
@@ -49,12 +49,22 @@ public class AnnotationHelper
 	{
 		if ( obj != null )
 		{
-			Unexportable anno = obj.getClass().getAnnotation( Unexportable.class );
-			return ( anno != null );
+			return isUnexportable( obj.getClass() );
 		}
 		return false;
 	}
 	
+	/**
+	 * Check if the class has the {@link Unexportable} annotation.
+	 * @param clazz Class to check.
+	 * @return True if the class is annotated as {@link Unexportable}.
+	 */
+	public static boolean isUnexportable(Class<?> clazz) 
+	{
+		Unexportable anno = clazz.getAnnotation( Unexportable.class );
+		return ( anno != null );
+	}
+	
 	/**
 	 * Check if the method has the Unexportable annotation.
 	 * @param method Method to check.
@@ -88,7 +98,17 @@ public class AnnotationHelper
 	 */
 	public static boolean isExportIgnored( Object obj )
 	{
-		ExpoElement anno = obj.getClass().getAnnotation( ExpoElement.class );
+		return isExportIgnored( obj.getClass() );
+	}
+	
+	/**
+	 * Check if the class should be ignored and not exported.
+	 * @param clazz The class to check.
+	 * @return True if the class is marked to be ignored.
+	 */
+	public static boolean isExportIgnored( Class<?> clazz )
+	{
+		ExpoElement anno = clazz.getAnnotation( ExpoElement.class );
 		return ( anno != null ? anno.value().equals( ExportType.IGNORE ) : false );
 	}
 	
@@ -101,7 +121,17 @@ public class AnnotationHelper
 	 */
 	public static boolean isExportSuperclass( Object obj )
 	{
-		ExpoElement anno = obj.getClass().getAnnotation( ExpoElement.class );
+		return isExportSuperclass( obj.getClass() );
+	}
+	
+	/**
+	 * Check if the class should be ignored but not the methods of its superclass.
+	 * @param clazz The class to check.
+	 * @return True if the class is marked as superclass.
+	 */
+	public static boolean isExportSuperclass( Class<?> clazz )
+	{
+		ExpoElement anno = clazz.getAnnotation( ExpoElement.class );
 		return ( anno != null ? anno.value().equals( ExportType.SUPERCLASS ) : false );
 	}
 	
@@ -141,7 +171,19 @@ public class AnnotationHelper
 	 */
 	public static List<ExpoProperty> getExportProperty( Object obj )
 	{
-		ExpoElement e = obj.getClass().getAnnotation( ExpoElement.class );
+		return getExportProperty( obj.getClass() );
+	}
+	
+	/**
+	 * Return a list of {@link ExpoProperty} defined in the {@link ExpoElement}
+	 * that annotate the given class.
+	 * 
+	 * @param clazz The class to check.
+	 * @return The list of {@link ExpoProperty} if defined.
+	 */
+	public static List<ExpoProperty> getExportProperty( Class<?> clazz )
+	{
+		ExpoElement e = clazz.getAnnotation( ExpoElement.class );
 		if ( e != null )
 		{
 			return Arrays.asList( e.property() );
@@ -181,9 +223,21 @@ public class AnnotationHelper
 	 * @return The list of properties to export.
 	 */
 	public static List<String> getProperty( Object obj )
+	{
+		return getProperty( obj.getClass() );
+	}
+	
+	/**
+	 * Return the list of properties declared to be exported from the class
+	 * using the {@link ExpoProperty} annotation.
+	 * 
+	 * @param clazz The class to inspect.
+	 * @return The list of properties to export.
+	 */
+	public static List<String> getProperty( Class<?> clazz )
 	{
 		List<String> props = new ArrayList<String>();
-		List<ExpoProperty> eps = getExportProperty( obj );
+		List<ExpoProperty> eps = getExportProperty( clazz );
 		if ( eps != null )
 		{
 			for ( ExpoProperty ep : eps )
@@ -225,7 +279,12 @@ public class AnnotationHelper
 	
 	public static String getPrefixKey( Object obj, String property )
 	{
-		List<ExpoProperty> eps = getExportProperty( obj );
+		return getPrefixKey( obj.getClass(), property );
+	}
+	
+	public static String getPrefixKey( Class<?> clazz, String property )
+	{
+		List<ExpoProperty> eps = getExportProperty( clazz );
 		if ( eps != null )
 		{
 			for ( ExpoProperty ep : eps )
@@ -257,6 +316,45 @@ public class AnnotationHelper
 	
 	//--------------------------------------------------------------------------------------
 	
+	public static String getFormat( Class<?> clazz, String property )
+	{
+		List<ExpoProperty> eps = getExportProperty( clazz );
+		if ( eps != null )
+		{
+			for ( ExpoProperty ep : eps )
+			{
+				if ( StringUtils.isEmpty( ep.value() ) || ep.value().equals( property ) )
+				{
+					return getFormat( ep );
+				}
+			}
+		}
+		return null;
+	}
+	
+	public static String getFormat( Method method, String property )
+	{
+		List<ExpoProperty> eps = getExportProperty( method );
+		if ( eps != null )
+		{
+			for ( ExpoProperty ep : eps )
+			{
+				if ( StringUtils.isEmpty( ep.value() ) || property.equals( ep.value() ) )
+				{
+					return getFormat( ep );
+				}
+			}
+		}
+		return null;
+	}
+	
+	public static String getFormat( ExpoProperty ep )
+	{
+		return ( StringUtils.isEmpty( ep.format() ) ? null : ep.format() );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public static String getLabelKey( Class clazz )
 	{
@@ -0,0 +1,139 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Pool of the cell styles of a workbook.
+ * Each distinct combination of data format, alignment and font is created once and 
+ * reused by all the cells, so that the number of styles does not grow with the exported rows.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class CellStylePool 
+{
+	private final Workbook 		workbook;
+	private final DataFormat 	dataFormat;
+	
+	private final Map<StyleKey,CellStyle> 	styles 	= new HashMap<StyleKey,CellStyle>();
+	private Font 							bold 	= null;
+	
+	public CellStylePool( Workbook workbook )
+	{
+		this.workbook 	= workbook;
+		this.dataFormat = workbook.createDataFormat();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the style with the given data format and the general alignment.
+	 * @param format The data format, eg. "#,##0.00".
+	 * @return The style.
+	 */
+	public CellStyle getStyle( String format )
+	{
+		return getStyle( format, CellStyle.ALIGN_GENERAL, false );
+	}
+	
+	/**
+	 * Return the style with the given attributes, creating it the first time it is requested.
+	 * @param format The data format, null for the general format.
+	 * @param alignment The horizontal alignment, eg. {@link CellStyle#ALIGN_CENTER}.
+	 * @param boldFont True to use the bold font.
+	 * @return The style.
+	 */
+	public CellStyle getStyle( String format, short alignment, boolean boldFont )
+	{
+		StyleKey key = new StyleKey( format, alignment, boldFont );
+		CellStyle style = styles.get( key );
+		if ( style == null )
+		{
+			style = workbook.createCellStyle();
+			if ( format != null )
+			{
+				style.setDataFormat( dataFormat.getFormat( format ) );
+			}
+			style.setAlignment( alignment );
+			if ( boldFont )
+			{
+				style.setFont( getBoldFont() );
+			}
+			styles.put( key, style );
+		}
+		return style;
+	}
+	
+	/**
+	 * @return The number of styles created.
+	 */
+	public int size() {
+		return styles.size();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private Font getBoldFont()
+	{
+		if ( bold == null )
+		{
+			bold = workbook.createFont();
+			bold.setBoldweight( Font.BOLDWEIGHT_BOLD );
+		}
+		return bold;
+	}
+	
+	private static final class StyleKey
+	{
+		private final String 	format;
+		private final short 	alignment;
+		private final boolean 	bold;
+		
+		private StyleKey( String format, short alignment, boolean bold )
+		{
+			this.format 	= format;
+			this.alignment 	= alignment;
+			this.bold 		= bold;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * ( 31 * ( format == null ? 0 : format.hashCode() ) + alignment ) + ( bold ? 1 : 0 );
+		}
+		
+		@Override
+		public boolean equals( Object obj ) {
+			if ( !( obj instanceof StyleKey ) )
+			{
+				return false;
+			}
+			StyleKey other = (StyleKey) obj;
+			return alignment == other.alignment && bold == other.bold 
+					&& ( format == null ? other.format == null : format.equals( other.format ) );
+		}
+	}
+}
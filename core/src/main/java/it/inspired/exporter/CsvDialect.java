@@ -0,0 +1,180 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+/**
+ * The layout of the exported text: the separator of the values, the enclosure of the quoted values,
+ * the terminator of the lines and when the values are quoted.
+ * An enclosure inside a quoted value is doubled as defined by RFC 4180.
+ * The dialect is immutable, the with methods return a modified copy.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class CsvDialect 
+{
+	/**
+	 * Defines when the values are enclosed.
+	 */
+	public enum Quoting {
+		// Every value is enclosed, the headers only if needed
+		ALWAYS,
+		
+		// The values and the headers are enclosed only if they contain the separator, 
+		// the enclosure or a line break
+		MINIMAL,
+		
+		// The values are never enclosed
+		NEVER
+	}
+	
+	/**
+	 * The default layout: values separated by semicolon, always enclosed in double quotes 
+	 * and lines terminated by the platform line separator.
+	 */
+	public static final CsvDialect DEFAULT = new CsvDialect( ";", '"', System.getProperty("line.separator"), Quoting.ALWAYS );
+	
+	/**
+	 * The layout defined by RFC 4180: values separated by comma, enclosed only if needed 
+	 * and lines terminated by CRLF.
+	 */
+	public static final CsvDialect RFC4180 = new CsvDialect( ",", '"', "\r\n", Quoting.MINIMAL );
+	
+	/**
+	 * The layout read by Excel in the locales using the comma as decimal separator.
+	 */
+	public static final CsvDialect EXCEL = new CsvDialect( ";", '"', "\r\n", Quoting.MINIMAL );
+	
+	/**
+	 * Values separated by tab.
+	 */
+	public static final CsvDialect TAB = new CsvDialect( "\t", '"', "\n", Quoting.MINIMAL );
+	
+	private final String 	separator;
+	private final char 		enclosure;
+	private final String 	lineTerminator;
+	private final Quoting 	quoting;
+	
+	// ASCII characters requiring the value to be enclosed
+	private final boolean[] special = new boolean[128];
+	
+	// Other characters requiring the value to be enclosed
+	private final String specialChars;
+	
+	/**
+	 * @param separator The separator of the values.
+	 * @param enclosure The character enclosing the values.
+	 * @param lineTerminator The terminator of the lines.
+	 * @param quoting Defines when the values are enclosed.
+	 */
+	public CsvDialect( String separator, char enclosure, String lineTerminator, Quoting quoting )
+	{
+		if ( separator == null || separator.isEmpty() || lineTerminator == null || lineTerminator.isEmpty() || quoting == null )
+		{
+			throw new IllegalArgumentException( "Separator, line terminator and quoting are required" );
+		}
+		this.separator 		= separator;
+		this.enclosure 		= enclosure;
+		this.lineTerminator = lineTerminator;
+		this.quoting 		= quoting;
+		
+		StringBuilder chars = new StringBuilder();
+		for ( char c : new char[] { enclosure, separator.charAt( 0 ), lineTerminator.charAt( 0 ), '\r', '\n' } )
+		{
+			if ( c < special.length )
+			{
+				special[c] = true;
+			}
+			else if ( chars.indexOf( String.valueOf( c ) ) < 0 )
+			{
+				chars.append( c );
+			}
+		}
+		this.specialChars = chars.toString();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Check if the value must be enclosed since it contains the enclosure, a line break,
+	 * or the first character of the separator or of the line terminator.
+	 * @param value The value to check.
+	 * @return True if the value must be enclosed.
+	 */
+	public boolean needsQuotes( CharSequence value )
+	{
+		return needsQuotes( value, 0, value.length() );
+	}
+	
+	/**
+	 * Check if the part of the text between the given bounds must be enclosed, see {@link #needsQuotes(CharSequence)}.
+	 * @param text The text holding the value.
+	 * @param start The first character of the value.
+	 * @param end The character following the value.
+	 * @return True if the value must be enclosed.
+	 */
+	public boolean needsQuotes( CharSequence text, int start, int end )
+	{
+		for ( int i = start; i < end; i++ )
+		{
+			char c = text.charAt( i );
+			if ( c < 128 ? special[c] : specialChars.indexOf( c ) >= 0 )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public CsvDialect withSeparator( String separator ) {
+		return new CsvDialect( separator, enclosure, lineTerminator, quoting );
+	}
+	
+	public CsvDialect withEnclosure( char enclosure ) {
+		return new CsvDialect( separator, enclosure, lineTerminator, quoting );
+	}
+	
+	public CsvDialect withLineTerminator( String lineTerminator ) {
+		return new CsvDialect( separator, enclosure, lineTerminator, quoting );
+	}
+	
+	public CsvDialect withQuoting( Quoting quoting ) {
+		return new CsvDialect( separator, enclosure, lineTerminator, quoting );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public String getSeparator() {
+		return separator;
+	}
+	
+	public char getEnclosure() {
+		return enclosure;
+	}
+	
+	public String getLineTerminator() {
+		return lineTerminator;
+	}
+	
+	public Quoting getQuoting() {
+		return quoting;
+	}
+}
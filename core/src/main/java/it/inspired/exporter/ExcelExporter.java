@@ -0,0 +1,492 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import it.inspired.exporter.handler.ValueContext;
+import it.inspired.exporter.handler.ValueHandler;
+import it.inspired.exporter.metrics.CountingOutputStream;
+import it.inspired.exporter.metrics.ExportPhase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * The Excel export implementation.
+ * By default the rows are kept in memory and written as XLS,
+ * in streaming mode the rows are written as XLSX keeping in memory only a window of rows,
+ * the older rows are flushed to a temporary file.
+ * When a sheet is full the export continues on a new sheet, repeating the header.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExcelExporter extends Exporter
+{
+	private static final Logger log = Logger.getLogger(ExcelExporter.class);
+	
+	private String dateFormat = "dd/MM/yyyy HH:mm";
+	
+	private Workbook 	workbook 	= null;
+	private Sheet 		sheet  		= null;
+	
+	private boolean streaming 		= false;
+	private int 	rowWindowSize 	= SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+	
+	// Maximum number of rows of a sheet including the header, 0 to use the limit of the file format
+	private int maxRowsPerSheet = 0;
+	
+	// Sheets of the workbook, the exported row numbers are mapped to the last one 
+	// subtracting the rows written on the previous sheets
+	private List<Sheet> sheets 		= new ArrayList<Sheet>();
+	private int 		sheetRows 	= 0;
+	private int 		headerRows 	= 0;
+	private int 		rowOffset 	= 0;
+	
+	// Number of sheets with the header written
+	private int headedSheets = 0;
+	
+	// Number of header columns written, -1 if the header is not written
+	private int headerColumns = -1;
+	
+	// Rows kept in memory until the workbook is written, when not streaming
+	private int retainedRows = 0;
+	
+	// Styles of the workbook
+	private CellStylePool styles = null;
+	
+	// Settings used by the handlers to write the values
+	private ValueContext valueContext = null;
+	
+	// Style of the last value written in each column, reused while the handler and the format do not change
+	private CellStyle[] 	columnStyles 	= new CellStyle[0];
+	private ValueHandler[] 	columnHandlers 	= new ValueHandler[0];
+	private String[] 		columnFormats 	= new String[0];
+	
+	//----------------------------------------------------------------------------------------------------------
+	
+	@Override
+	public void init() 
+	{
+		super.init();
+
+		// 2 rows are left for the header
+		headerRows = ( super.isEnabledHeader() ? 2 : 0 );
+		super.currentRow = headerRows;
+		headerColumns = -1;
+		workbook = createWorkbook();
+		
+		sheetRows = ( maxRowsPerSheet > 0 ? maxRowsPerSheet : getVersion( workbook ).getMaxRows() );
+		sheets = new ArrayList<Sheet>();
+		sheet = createSheet();
+		rowOffset = 0;
+		headedSheets = 0;
+		retainedRows = 0;
+		
+		styles = new CellStylePool( workbook );
+		valueContext = new ValueContext( getFormatters(), dateFormat );
+		
+		columnStyles 	= new CellStyle[0];
+		columnHandlers 	= new ValueHandler[0];
+		columnFormats 	= new String[0];
+	}
+		
+	//----------------------------------------------------------------------------------------------------------
+	
+	/**
+	 * Create the workbook where the data are exported.
+	 * @return An XLS workbook or a streaming XLSX workbook in streaming mode.
+	 */
+	protected Workbook createWorkbook()
+	{
+		if ( streaming )
+		{
+			SXSSFWorkbook wb = new SXSSFWorkbook( rowWindowSize );
+			wb.setCompressTempFiles( true );
+			return wb;
+		}
+		return new HSSFWorkbook();
+	}
+	
+	/**
+	 * Create the sheet where the next rows are written, the first sheet is named "export"
+	 * and the following ones are numbered.
+	 * @return The new sheet.
+	 */
+	protected Sheet createSheet()
+	{
+		Sheet created = workbook.createSheet( sheets.isEmpty() ? "export" : "export " + ( sheets.size() + 1 ) );
+		sheets.add( created );
+		return created;
+	}
+	
+	/**
+	 * Continue the export on a new sheet, in streaming mode the rows of the full sheet are flushed 
+	 * and the header is written on the new sheet if it is already written on the previous ones.
+	 */
+	private void nextSheet()
+	{
+		if ( sheet instanceof SXSSFSheet )
+		{
+			try
+			{
+				( (SXSSFSheet) sheet ).flushRows();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException( e );
+			}
+		}
+		sheet = createSheet();
+		rowOffset += sheetRows - headerRows;
+		
+		log.debug( "Continuing the export on sheet " + sheet.getSheetName() );
+		
+		if ( streaming && headedSheets > 0 )
+		{
+			writeHeader();
+		}
+	}
+	
+	private static SpreadsheetVersion getVersion( Workbook workbook )
+	{
+		return ( workbook instanceof HSSFWorkbook ? SpreadsheetVersion.EXCEL97 : SpreadsheetVersion.EXCEL2007 );
+	}
+	
+	//----------------------------------------------------------------------------------------------------------
+	
+	/**
+	 * Write the header on the sheets not having it yet.
+	 */
+	@Override
+	protected void writeHeader() 
+	{
+		headerColumns = super.getHeaderSize();
+		
+		while ( headedSheets < sheets.size() )
+		{
+			writeHeader( sheets.get( headedSheets++ ) );
+		}
+	}
+	
+	/**
+	 * Write the header on the first 2 rows of the sheet.
+	 * @param sheet The sheet.
+	 */
+	protected void writeHeader( Sheet sheet ) 
+	{
+		Row row0 = sheet.createRow( 0 );
+		Row row1 = sheet.createRow( 1 );
+		
+		int coll = 0;
+		for ( Header  header: headers )
+		{
+			Cell cell0 = row0.createCell( coll );
+			//cell0.setCellValue( StringUtils.capitalizeMethodName( header.getType().getSimpleName() ) );
+			cell0.setCellValue( super.getHeaderName( header ) );
+					
+			CellRangeAddress region = new CellRangeAddress(0, 0, coll, coll + header.getProperties().size() - 1 );
+			sheet.addMergedRegion( region );
+		
+			cell0.setCellStyle( styles.getStyle( null, CellStyle.ALIGN_CENTER, false ) );
+			
+			for ( PropertyHeader ph : header.getProperties() )
+			{
+				String collName = null;
+				
+				Cell cell1 = row1.createCell( coll );
+				
+				// Check if property labekKey is overrided
+				if ( ph.isOverrided() ) {
+					String key = AnnotationHelper.getLabelKey( ph.getOverridingEpoProperty() );
+					if ( key != null ) {
+						collName = translate( null, key );
+					}
+				}
+				
+				if ( collName == null ) 
+				{
+					collName = super.getPropertyHeaderName( ph.getProperty() );
+				}
+				
+				cell1.setCellValue( collName );
+				coll++;
+			}
+		}
+	}
+
+	//----------------------------------------------------------------------------------------------------------
+	
+	@Override
+	protected void writeValue(int row, int coll, Object value) 
+	{
+		writeValue( row, coll, value, null );
+	}
+	
+	@Override
+	protected void writeValue(int row, int coll, Object value, String format) 
+	{
+		// The rows are written in order, so a row beyond the current sheet starts a new one
+		while ( row - rowOffset >= sheetRows )
+		{
+			nextSheet();
+		}
+		Row exrow = sheet.getRow( row - rowOffset );
+		if ( exrow == null )
+		{
+			exrow = sheet.createRow( row - rowOffset );
+		}
+		Cell cell = exrow.createCell( coll );
+		if ( value == null )
+		{
+			cell.setCellValue( "" );
+			return;
+		}
+		
+		ValueHandler handler = super.getValueHandler( coll, value );
+		handler.setCell( cell, value, valueContext );
+		
+		CellStyle style = getColumnStyle( coll, handler, format );
+		if ( style != null )
+		{
+			cell.setCellStyle( style );
+		}
+	}
+	
+	/**
+	 * Return the style of the value written in the given column.
+	 * The style is resolved when the handler or the format of the column values change, 
+	 * otherwise the style of the previous value is returned.
+	 * @param coll The column of the value.
+	 * @param handler The handler of the value.
+	 * @param format The pattern declared by the property, can be null.
+	 * @return The style or null if the value has no style.
+	 */
+	private CellStyle getColumnStyle( int coll, ValueHandler handler, String format )
+	{
+		if ( coll >= columnStyles.length )
+		{
+			int length = Math.max( coll + 1, columnStyles.length * 2 );
+			columnStyles 	= Arrays.copyOf( columnStyles, length );
+			columnHandlers 	= Arrays.copyOf( columnHandlers, length );
+			columnFormats 	= Arrays.copyOf( columnFormats, length );
+		}
+		if ( columnHandlers[coll] != handler || !equals( columnFormats[coll], format ) )
+		{
+			String dataFormat = getDataFormat( handler, format );
+			columnStyles[coll] 		= ( dataFormat == null ? null : styles.getStyle( dataFormat ) );
+			columnHandlers[coll] 	= handler;
+			columnFormats[coll] 	= format;
+		}
+		return columnStyles[coll];
+	}
+	
+	/**
+	 * Return the data format of the values written by the handler.
+	 * @param handler The handler of the value.
+	 * @param format The pattern declared by the property, can be null.
+	 * @return The data format or null if the value has no format.
+	 */
+	protected String getDataFormat( ValueHandler handler, String format )
+	{
+		return handler.getDataFormat( format, valueContext );
+	}
+	
+	private static boolean equals( String a, String b )
+	{
+		return ( a == b || ( a != null && a.equals( b ) ) );
+	}
+
+	//----------------------------------------------------------------------------------------------------------
+	
+	/**
+	 * In streaming mode the header is written as soon as the first row is exported,
+	 * before the header rows can be flushed to the temporary file.
+	 * Otherwise the whole workbook is kept in memory and the rows retained are reported to the listener.
+	 */
+	@Override
+	protected void rowExported( int row ) 
+	{
+		if ( !streaming )
+		{
+			super.rowsBuffered( ++retainedRows );
+		}
+		else if ( super.isEnabledHeader() && headerColumns < 0 )
+		{
+			writeHeader();
+		}
+	}
+	
+	//----------------------------------------------------------------------------------------------------------
+	
+	@Override
+	public void finalyze() {
+		long start = super.startTiming();
+		try
+		{
+			if ( super.isEnabledHeader() )
+			{
+				if ( headerColumns < 0 )
+				{
+					writeHeader();
+				}
+				else if ( super.getHeaderSize() > headerColumns )
+				{
+					log.warn( "The header was written with the first row, " + ( super.getHeaderSize() - headerColumns ) + " columns found later are without header" );
+				}
+			}
+		}
+		finally
+		{
+			super.endTiming( ExportPhase.FINALYZE, start );
+		}
+	}
+
+	//----------------------------------------------------------------------------------------------------------
+
+	@Override
+	public void write(OutputStream outputStream) throws IOException {
+		long start = super.startTiming();
+		try
+		{
+			if ( super.getListener() != null )
+			{
+				CountingOutputStream counter = new CountingOutputStream( outputStream );
+				workbook.write( counter );
+				super.bytesWritten( counter.getCount() );
+			}
+			else
+			{
+				workbook.write( outputStream );
+			}
+			if ( workbook instanceof SXSSFWorkbook )
+			{
+				// Delete the temporary files
+				( (SXSSFWorkbook) workbook ).dispose();
+			}
+		}
+		finally
+		{
+			super.endTiming( ExportPhase.WRITE, start );
+		}
+	}
+	
+	/**
+	 * Discard the workbook deleting the temporary files written in streaming mode.
+	 */
+	@Override
+	public void dispose() 
+	{
+		if ( workbook instanceof SXSSFWorkbook )
+		{
+			( (SXSSFWorkbook) workbook ).dispose();
+		}
+		workbook = null;
+		sheet = null;
+		sheets = new ArrayList<Sheet>();
+		styles = null;
+	}
+	
+	//----------------------------------------------------------------------------------------------------------
+	
+	/**
+	 * Check if the streaming mode is enabled.
+	 * @return True if the rows are streamed to an XLSX workbook.
+	 */
+	@Override
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * Enable the streaming mode, it must be set before calling {@link #init()}.
+	 * In streaming mode the rows are written to an XLSX workbook keeping in memory
+	 * only the last rows, so the memory used does not depend on the number of rows exported.
+	 * Since the rows already flushed can not be changed, the header is written
+	 * with the columns known when the first row is exported.
+	 * @param streaming The option to set.
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * @return The number of rows kept in memory in streaming mode.
+	 */
+	public int getRowWindowSize() {
+		return rowWindowSize;
+	}
+
+	/**
+	 * Set the number of rows kept in memory in streaming mode.
+	 * The window must contain at least the header rows and the first exported row.
+	 * @param rowWindowSize The number of rows.
+	 */
+	public void setRowWindowSize(int rowWindowSize) {
+		if ( rowWindowSize < 3 ) 
+		{
+			throw new IllegalArgumentException( "The row window must contain at least 3 rows" );
+		}
+		this.rowWindowSize = rowWindowSize;
+	}
+
+	/**
+	 * @return The maximum number of rows of a sheet including the header, 0 if the limit of the file format is used.
+	 */
+	public int getMaxRowsPerSheet() {
+		return maxRowsPerSheet;
+	}
+
+	/**
+	 * Set the maximum number of rows of a sheet including the header, it must be set before calling {@link #init()}.
+	 * When a sheet is full the following rows are written on a new sheet with the same header, 
+	 * the row numbers of the exporter keep counting the rows of all the sheets.
+	 * By default the limit of the file format is used, 65536 rows for XLS and 1048576 for XLSX.
+	 * @param maxRowsPerSheet The number of rows or 0 to use the limit of the file format.
+	 */
+	public void setMaxRowsPerSheet(int maxRowsPerSheet) {
+		if ( maxRowsPerSheet != 0 && maxRowsPerSheet < 3 ) 
+		{
+			throw new IllegalArgumentException( "A sheet must contain at least 3 rows" );
+		}
+		this.maxRowsPerSheet = maxRowsPerSheet;
+	}
+	
+	/**
+	 * @return The number of sheets written so far.
+	 */
+	public int getSheetCount() {
+		return sheets.size();
+	}
+}
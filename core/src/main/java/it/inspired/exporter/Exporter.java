@@ -0,0 +1,1665 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.async.ExportJob;
+import it.inspired.exporter.format.Formatters;
+import it.inspired.exporter.handler.ValueHandler;
+import it.inspired.exporter.handler.ValueHandlers;
+import it.inspired.exporter.i18n.TextCache;
+import it.inspired.exporter.i18n.TextResolver;
+import it.inspired.exporter.metrics.ExportListener;
+import it.inspired.exporter.metrics.ExportPhase;
+import it.inspired.exporter.plan.ColumnLayout;
+import it.inspired.exporter.plan.ExportPlan;
+import it.inspired.exporter.plan.ExportPlanCache;
+import it.inspired.exporter.plan.NestedProperty;
+import it.inspired.exporter.plan.PropertyStep;
+import it.inspired.exporter.source.ExportDataSource;
+import it.inspired.exporter.source.PageSupplier;
+import it.inspired.exporter.source.PagedIterator;
+import it.inspired.exporter.source.PrefetchingIterator;
+import it.inspired.exporter.utils.BeanUtils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * The abstract class that are extended to implements the 
+ * two types of exporter provided: Excel and TXT.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public abstract class Exporter 
+{
+	private static final Logger log = Logger.getLogger(Exporter.class);
+
+	// Rows rendered together by a parallel export task
+	private static final int PARALLEL_CHUNK = 64;
+	
+	// State of the row exported by the calling thread
+	private final RowContext context = new RowContext();
+	
+	protected List<Header> headers = new ArrayList<Header>();
+	
+	// Index of the headers by class
+	private Map<Class<?>,Header> headerIndex = new HashMap<Class<?>,Header>();
+	private int indexedHeaders = 0;
+	
+	protected int currentRow = 0;
+	
+	protected boolean enabledHeader = true;
+	
+	// Cache of the export plan built for each exported class
+	private ExportPlanCache planCache = ExportPlanCache.getShared();
+	
+	// Properties excluded when getExcludedProperties is not overridden
+	private List<String> excludedProperties = Collections.emptyList();
+	
+	// Properties excluded by the current export and the properties to export of each class
+	private Set<String> 							exclusions 	= Collections.emptySet();
+	private Map<ExportPlan,List<PropertyStep>> 		exportSteps = new ConcurrentHashMap<ExportPlan,List<PropertyStep>>();
+	
+	// Version of the value handlers the properties to export were read with
+	private int handlersVersion = -1;
+	
+	// Cache of the texts converted from the keys, disabled by default, and the locale of the texts
+	private TextCache 	textCache 	= null;
+	private Locale 		locale 		= Locale.getDefault();
+	
+	// Resolver of the texts not cached
+	private final TextResolver textResolver = new TextResolver() {
+		public String getText( String key ) {
+			textMisses.increment();
+			return timedText( key );
+		}
+	};
+	
+	// Texts requested to the cache and not found by the current export, the cache can be shared
+	private final LongAdder textLookups = new LongAdder();
+	private final LongAdder textMisses 	= new LongAdder();
+	
+	// Formatters of the patterns declared by the exported properties
+	private Formatters formatters = new Formatters();
+	
+	// Handler of the last value written in each column, resolved again only when the class changes
+	private Class<?>[] 		valueTypes 		= new Class<?>[0];
+	private ValueHandler[] 	valueHandlers 	= new ValueHandler[0];
+	
+	// Number of rows rendered at the same time and the executor rendering them 
+	private int 		parallelism = 1;
+	private Executor 	executor 	= null;
+	
+	// Receiver of the export events, null if the export is not monitored
+	private ExportListener listener = null;
+	
+	// Class of the exported objects whose metadata define the columns, null if the columns are found exporting
+	private Class<?> 		schemaType 	= null;
+	private ColumnLayout 	layout 		= null;
+	
+	// Class of the first object streamed without schema type, defining the columns of the export
+	private Class<?> 		streamType 	= null;
+	
+	// Number of rows written since the initialization, written only by the exporting thread
+	private volatile long rowsWritten = 0;
+	
+	//-------------------------------------------------------------------------------------------------
+	// Abstract Methods
+	//-------------------------------------------------------------------------------------------------
+	
+	/**
+	 * Used to write the header columns
+	 */
+	protected abstract void writeHeader();
+	
+	protected abstract void writeValue( int row, int coll, Object value );
+	
+	/**
+	 * Write the value of a property declaring the pattern used to format it, 
+	 * by default the pattern is ignored.
+	 * @param row The row of the value.
+	 * @param coll The column of the value.
+	 * @param value The value to write.
+	 * @param format The pattern declared by {@link ExpoProperty#format()}, null if not declared.
+	 */
+	protected void writeValue( int row, int coll, Object value, String format ) {
+		writeValue( row, coll, value );
+	}
+	
+	/**
+	 * Render the text of a value while the row is rendered by a parallel export, so that the value 
+	 * is formatted by the executor threads instead of the thread writing the rows.
+	 * The method is called concurrently and must be thread safe, by default the value is not rendered
+	 * and it is written by {@link #writeValue(int, int, Object, String)}.
+	 * @param out The text of the row, the text of the value is appended to it.
+	 * @param value The value to render, not null.
+	 * @param format The pattern declared by {@link ExpoProperty#format()}, null if not declared.
+	 * @return True if the text of the value has been appended, false to write the value itself.
+	 */
+	protected boolean renderValue( StringBuilder out, Object value, String format ) {
+		return false;
+	}
+	
+	/**
+	 * Write the text of a value rendered by {@link #renderValue(StringBuilder, Object, String)}.
+	 * @param row The row of the value.
+	 * @param coll The column of the value.
+	 * @param text The text of the row holding the value.
+	 * @param start The first character of the value.
+	 * @param end The character following the value.
+	 */
+	protected void writeText( int row, int coll, CharSequence text, int start, int end ) {
+		throw new UnsupportedOperationException( "writeText must be implemented to render the values" );
+	}
+	
+	/**
+	 * Return the handler writing the value in the given column.
+	 * The handler is resolved from {@link ValueHandlers} when the class of the column values changes,
+	 * otherwise the handler of the previous value is returned.
+	 * @param coll The column of the value.
+	 * @param value The value to write, not null.
+	 * @return The handler of the value.
+	 */
+	protected ValueHandler getValueHandler( int coll, Object value )
+	{
+		if ( coll >= valueTypes.length )
+		{
+			int length = Math.max( coll + 1, valueTypes.length * 2 );
+			valueTypes 		= Arrays.copyOf( valueTypes, length );
+			valueHandlers 	= Arrays.copyOf( valueHandlers, length );
+		}
+		if ( valueTypes[coll] != value.getClass() )
+		{
+			valueHandlers[coll] = ValueHandlers.getShared().get( value.getClass() );
+			valueTypes[coll] 	= value.getClass();
+		}
+		return valueHandlers[coll];
+	}
+	
+	/**
+	 * Start timing a phase of the export, see {@link #endTiming(ExportPhase, long)}.
+	 * @return The start time or zero if there is no listener.
+	 */
+	protected long startTiming()
+	{
+		return ( listener != null ? System.nanoTime() : 0L );
+	}
+	
+	/**
+	 * Report the time spent in the phase to the listener, if any.
+	 * @param phase The phase of the export.
+	 * @param start The time returned by {@link #startTiming()}.
+	 */
+	protected void endTiming( ExportPhase phase, long start )
+	{
+		ExportListener listener = this.listener;
+		if ( listener != null )
+		{
+			listener.timed( phase, System.nanoTime() - start );
+		}
+	}
+	
+	/**
+	 * Report the bytes written to the output to the listener, if any.
+	 * @param bytes The number of bytes written.
+	 */
+	protected void bytesWritten( long bytes )
+	{
+		ExportListener listener = this.listener;
+		if ( listener != null )
+		{
+			listener.bytesWritten( bytes );
+		}
+	}
+	
+	/**
+	 * Report to the listener, if any, the number of rows kept in memory waiting to be written.
+	 * @param rows The number of rows.
+	 */
+	protected void rowsBuffered( int rows )
+	{
+		ExportListener listener = this.listener;
+		if ( listener != null )
+		{
+			listener.rowsBuffered( rows );
+		}
+	}
+	
+	public abstract void finalyze();
+	
+	public abstract void write( OutputStream outputStream ) throws IOException;
+	
+	/**
+	 * Check if the rows are streamed to an output attached to the exporter, in which case
+	 * {@link #write(OutputStream)} only completes the attached output and can not write to another stream.
+	 * @return True if an output is attached, by default false.
+	 */
+	public boolean isOutputAttached() {
+		return false;
+	}
+	
+	/**
+	 * Check if the rows are written while they are exported, so that the columns must be known 
+	 * from the first row. When no schema type is set, the columns of a streaming export are defined 
+	 * by the class of the first exported object, see {@link #setSchemaType(Class)}.
+	 * @return True if the rows are streamed, by default false.
+	 */
+	public boolean isStreaming() {
+		return false;
+	}
+	
+	//-------------------------------------------------------------------------------------------------
+	// Protected Methods
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Overriding this method is possible to exclude some properties from the export process.
+	 * The method is called once when each export starts, by default it returns the properties 
+	 * set by {@link #setExcludedProperties(Collection)}.
+	 * @return A list of properties to exclude.
+	 */
+	protected List<String> getExcludedProperties() {
+		return new ArrayList<String>( excludedProperties );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Called when an object has been completely exported to the given row,
+	 * the exporters override it to complete the row.
+	 * @param row The row number.
+	 */
+	protected void rowExported( int row ) {
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * This method is used basically for  internationalization to convert a key into a specific text
+	 * @param key A string key to convert
+	 * @return The message returned
+	 */
+	protected String getText( String key ) {
+		throw new UnsupportedOperationException("getText(String key) must be implemented to use key converter");
+	}
+	
+	/**
+	 * Convert the key made of prefix and value into text using {@link #getText(String)}, 
+	 * the text is cached by the {@link TextCache} of the exporter if defined.
+	 * @param prefix The prefix of the key, null if the value is the key itself.
+	 * @param value The value completing the key.
+	 * @return The text.
+	 */
+	protected String translate( String prefix, Object value ) 
+	{
+		if ( textCache == null )
+		{
+			return timedText( prefix == null ? String.valueOf( value ) : prefix + value );
+		}
+		textLookups.increment();
+		return textCache.getText( prefix, value, locale, textResolver );
+	}
+	
+	/**
+	 * Call {@link #getText(String)} reporting the time spent to the listener.
+	 * @param key The key to convert.
+	 * @return The text.
+	 */
+	private String timedText( String key )
+	{
+		ExportListener listener = this.listener;
+		if ( listener == null )
+		{
+			return getText( key );
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return getText( key );
+		}
+		finally
+		{
+			listener.timed( ExportPhase.TEXT, System.nanoTime() - start );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the capitalized name of the class or the name specified using the labelKey
+	 * @param header
+	 * @return
+	 */
+	protected String getHeaderName( Header header ) 
+	{
+		String name = BeanUtils.capitalizeMethodName( header.getType().getSimpleName() );
+		String annoname = AnnotationHelper.getLabelKey( header.getType() );
+		if ( annoname != null ) {
+			name = translate( null, annoname );
+		}
+		return name;
+	}
+	
+	protected String getPropertyHeaderName( PropertyDescriptor property ) 
+	{
+		String name = BeanUtils.capitalizeMethodName( property.getName() );
+		String annoname = AnnotationHelper.getLabelKey( property );
+		if ( annoname != null ) {
+			name = translate( null, annoname );
+		}
+		return name;
+	}
+	
+	/**
+	 * Return the number of header columns declared so far.
+	 * @return The number of columns.
+	 */
+	protected int getHeaderSize()
+	{
+		int size = 0;
+		for ( Header header : headers )
+		{
+			size += header.getProperties().size();
+		}
+		return size;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Used to declare the header text of the exported file
+	 * @param col Column position of the header text
+	 * @param info Bean Information containing the property
+	 * @param property Property describing the column information
+	 */
+	protected void addHeader( Integer col, BeanInfo info,  PropertyDescriptor property, ExpoProperty annotation )
+	{
+		// The index is rebuilt if the headers have been changed by a subclass
+		if ( indexedHeaders != headers.size() )
+		{
+			indexedHeaders = headers.size();
+			headerIndex.clear();
+			for ( Header head : headers )
+			{
+				if ( !headerIndex.containsKey( head.getType() ) )
+				{
+					headerIndex.put( head.getType(), head );
+				}
+			}
+		}
+		
+		// Searching for the header associated to the bean information
+		Class<?> type = info.getBeanDescriptor().getBeanClass();
+		Header header = headerIndex.get( type );
+		if ( header == null )
+		{
+			header = new Header( type );
+			headers.add( header );
+			headerIndex.put( type, header );
+			indexedHeaders++;
+		}
+		// Searching for the header property, if exist return
+		if ( header.hasProperty( property ) )
+		{
+			return;
+		}
+		
+		// Add the header
+		if ( annotation == null ) {
+			header.addProperty( property );
+		} else {
+			header.addProperty(property, annotation);
+		}
+	}
+		
+	//--------------------------------------------------------------------------------------
+	// Private methods.
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Used to deproxy an hibernate object
+	 * @param proxy The object to deproxy
+	 * @return The deproxed object
+	 */
+	private static Object deproxy(Object proxy) 
+	{
+		/*
+		 * Check if it is an HibernateProxy using String equals.
+		 * This should avoid to import Hibernate if it is not used.
+		 */
+		if ( proxy.getClass().getName().equalsIgnoreCase( "org.hibernate.proxy.HibernateProxy" ) ) 
+		{
+			return ( ( HibernateProxy ) proxy ).getHibernateLazyInitializer()
+					 .getImplementation();
+		}
+		else 
+		{
+			return proxy;
+		}
+	}
+	 
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Read the excluded properties, once per export, discarding the properties to export 
+	 * of each class if the exclusions or the value handlers are changed.
+	 */
+	private void captureExclusions()
+	{
+		List<String> list = getExcludedProperties();
+		Set<String> excluded = ( list == null ? Collections.<String>emptySet() : new HashSet<String>( list ) );
+		int version = ValueHandlers.getShared().getVersion();
+		if ( !excluded.equals( exclusions ) || version != handlersVersion )
+		{
+			exclusions = Collections.unmodifiableSet( excluded );
+			handlersVersion = version;
+			exportSteps.clear();
+			layout = null;
+		}
+	}
+	
+	/**
+	 * Return the properties of the plan to export, without the excluded ones.
+	 * @param plan The plan of the exported class.
+	 * @return The ordered list of properties to export.
+	 */
+	private List<PropertyStep> getExportSteps( ExportPlan plan )
+	{
+		List<PropertyStep> steps = exportSteps.get( plan );
+		if ( steps == null )
+		{
+			steps = plan.getSteps( exclusions );
+			exportSteps.put( plan, steps );
+		}
+		return steps;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Build the column layout of the schema class, if not built yet, and declare its header
+	 * so that all the columns are known before the first row is exported.
+	 * @param type The schema class.
+	 * 
+	 * @throws IntrospectionException
+	 */
+	private void applySchema( Class<?> type ) throws IntrospectionException
+	{
+		if ( layout != null && layout.getType() == type && layout.isCurrent() )
+		{
+			return;
+		}
+		layout = ColumnLayout.compile( type, planCache, exclusions );
+		for ( ColumnLayout.Segment segment : layout.getSegments() )
+		{
+			BeanInfo info = segment.getPlan().getBeanInfo();
+			int coll = segment.getOffset();
+			for ( ColumnLayout.Column column : segment.getColumns() )
+			{
+				addHeader( coll++, info, column.getProperty(), column.getAnnotation() );
+			}
+		}
+	}
+	
+	/**
+	 * Export the object to the given row, using the column layout if defined.
+	 * @param context The state of the row being exported.
+	 * @param row The row number.
+	 * @param obj The object to export.
+	 * @return The number of the column where the export ends.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalArgumentException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int render( RowContext context, int row, Object obj ) throws IntrospectionException, IllegalArgumentException, IllegalAccessException, InvocationTargetException
+	{
+		if ( layout != null )
+		{
+			return exportLayout( context, row, obj );
+		}
+		return export( context, row, 0, obj );
+	}
+	
+	/**
+	 * Export the object writing each value at the column defined by the layout, 
+	 * the columns of the null objects are written empty.
+	 * @param context The state of the row being exported.
+	 * @param row The row number.
+	 * @param root The object to export.
+	 * @return The number of columns of the layout.
+	 * 
+	 * @throws IllegalArgumentException If the object is not an instance of the schema class.
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int exportLayout( RowContext context, int row, Object root ) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException
+	{
+		List<ColumnLayout.Segment> segments = layout.getSegments();
+		if ( context.objects.length < segments.size() )
+		{
+			context.objects = new Object[ segments.size() ];
+		}
+		Object[] objects = context.objects;
+		
+		for ( ColumnLayout.Segment segment : segments )
+		{
+			// The object of the segment is read from the object of the parent segment
+			Object obj = root;
+			if ( segment.getParent() >= 0 )
+			{
+				obj = objects[ segment.getParent() ];
+				if ( obj != null )
+				{
+					obj = getValue( segment.getStep(), obj );
+					if ( segment.getNested() != null )
+					{
+						obj = getValue( segment.getNested(), obj );
+					}
+				}
+			}
+			if ( obj != null )
+			{
+				obj = deproxy( obj );
+				if ( segment.getParent() < 0 && !layout.getType().isInstance( obj ) )
+				{
+					throw new IllegalArgumentException( "Unable to export " + obj.getClass().getName() + " using the columns of " + layout.getType().getName() );
+				}
+			}
+			objects[ segment.getIndex() ] = obj;
+			
+			BeanInfo info = segment.getPlan().getBeanInfo();
+			int coll = segment.getOffset();
+			
+			// The value of a step is read once for all its nested properties
+			PropertyStep step = null;
+			Object stepValue = null;
+			for ( ColumnLayout.Column column : segment.getColumns() )
+			{
+				Object value = null;
+				if ( obj != null )
+				{
+					if ( column.getNested() == null )
+					{
+						value = getValue( column.getStep(), obj );
+					}
+					else
+					{
+						if ( column.getStep() != step )
+						{
+							step = column.getStep();
+							stepValue = getValue( step, obj );
+						}
+						value = getValue( column.getNested(), stepValue );
+					}
+				}
+				context.cell( row, coll++, info, column.getProperty(), column.getAnnotation(), convert( column.getPrefixKey(), value ), column.getFormat() );
+			}
+		}
+		Arrays.fill( objects, null );
+		return layout.getColumns();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Start the export of the object to the given row starting from column zero.
+	 * @param row The row number where to export the object.
+	 * @param obj The object to export.
+	 * @return The number of the column where the export ends.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalArgumentException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int export( int row, Object obj ) throws IntrospectionException, IllegalArgumentException, IllegalAccessException, InvocationTargetException
+	{
+		context.start( null );
+		int col = render( context, row, obj );
+		log.debug( "Used columns: " + col );
+		rowExported( row );
+		rowsWritten++;
+		if ( listener != null )
+		{
+			listener.rowWritten( row, col );
+		}
+		return col;
+	}
+	
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Export the given object starting from the row and column specified.
+	 * The object graph is walked depth first: the values of an object are exported before 
+	 * the objects it references, that are exported in the order of the properties.
+	 * Each object is exported once per row, the objects are compared by identity.
+	 * @param context The state of the row being exported.
+	 * @param row The row number to start.
+	 * @param coll The column number to start.
+	 * @param root The object to export.
+	 * @return The number of the column where the export ends.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalArgumentException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int export( RowContext context, int row, int coll, Object root ) throws IntrospectionException, IllegalArgumentException, IllegalAccessException, InvocationTargetException 
+	{
+		context.push( root );
+		while ( !context.isEmpty() )
+		{
+			Object obj = deproxy( context.pop() );
+			if ( !context.visited.contains( obj ) )
+			{
+				coll = exportObject( context, row, coll, obj );
+			}
+		}
+		return coll;
+	}
+	
+	/**
+	 * Export the values of the given object pushing the referenced objects to export.
+	 * @param context The state of the row being exported.
+	 * @param row The row number.
+	 * @param coll The column number to start.
+	 * @param obj The object to export.
+	 * @return The number of the column where the values end.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalArgumentException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int exportObject( RowContext context, int row, int coll, Object obj ) throws IntrospectionException, IllegalArgumentException, IllegalAccessException, InvocationTargetException 
+	{
+		// Check if it is exportable
+		ExportPlan plan = getPlan( obj.getClass() );
+		if ( !plan.isExportable() )
+		{
+			return coll;
+		}
+		
+		if ( log.isDebugEnabled() )
+		{
+			log.debug( "Exporting object " + obj.getClass().getName() );
+		}
+		
+		context.visited.add( obj );
+		
+		// The referenced objects are pushed in order and reversed at the end so that they are popped in order
+		int first = context.depth;
+		
+		BeanInfo info = plan.getBeanInfo();
+		
+		// For each property the export rules have been evaluated building the plan,
+		// the excluded properties (eg. version) have been removed
+		for ( PropertyStep step : getExportSteps( plan ) )
+		{
+			switch ( step.getType() )
+			{
+				case VALUE:
+					// Get the value and convert it if there is a prefix
+					context.cell( row, coll, info, step.getProperty(), null, convert( step.getPrefixKey(), getValue( step, obj ) ), step.getFormat() );
+					coll++;
+					break;
+					
+				case OBJECT:
+					// The whole object is exported as an entity on its own
+					context.push( getValue( step, obj ) );
+					break;
+					
+				case NESTED:
+					// Only the declared properties are exported from the value
+					Object value = getValue( step, obj );
+					for ( NestedProperty nested : step.getNested() )
+					{
+						Object pvalue = getValue( nested, value );
+						if ( pvalue == null || BeanUtils.isPrimitive( pvalue.getClass() ) )
+						{
+							context.cell( row, coll, info, nested.getProperty(), nested.getAnnotation(), convert( nested.getPrefixKey(), pvalue ), nested.getFormat() );
+							coll++;
+						}
+						else
+						{
+							context.push( pvalue );
+						}
+					}
+					break;
+			}
+		}
+		context.reverse( first );
+		return coll;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the plan of the class reporting the time spent to the listener.
+	 * @param type The exported class.
+	 * @return The plan of the class.
+	 * 
+	 * @throws IntrospectionException
+	 */
+	private ExportPlan getPlan( Class<?> type ) throws IntrospectionException
+	{
+		ExportListener listener = this.listener;
+		if ( listener == null )
+		{
+			return planCache.getPlan( type );
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return planCache.getPlan( type );
+		}
+		finally
+		{
+			listener.timed( ExportPhase.INTROSPECTION, System.nanoTime() - start );
+		}
+	}
+	
+	/**
+	 * Read the value of the property reporting the time spent to the listener.
+	 * @param step The property.
+	 * @param obj The object owning the property.
+	 * @return The value of the property.
+	 * 
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private Object getValue( PropertyStep step, Object obj ) throws IllegalAccessException, InvocationTargetException
+	{
+		ExportListener listener = this.listener;
+		if ( listener == null )
+		{
+			return step.getValue( obj );
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return step.getValue( obj );
+		}
+		finally
+		{
+			listener.timed( ExportPhase.GETTER, System.nanoTime() - start );
+		}
+	}
+	
+	/**
+	 * Read the value of the nested property reporting the time spent to the listener.
+	 * @param nested The property.
+	 * @param obj The object owning the property, can be null.
+	 * @return The value of the property.
+	 * 
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private Object getValue( NestedProperty nested, Object obj ) throws IllegalAccessException, InvocationTargetException
+	{
+		ExportListener listener = this.listener;
+		if ( listener == null )
+		{
+			return nested.getValue( obj );
+		}
+		long start = System.nanoTime();
+		try
+		{
+			return nested.getValue( obj );
+		}
+		finally
+		{
+			listener.timed( ExportPhase.GETTER, System.nanoTime() - start );
+		}
+	}
+	
+	/**
+	 * Write the value reporting the time spent to the listener.
+	 * @param row The row of the value.
+	 * @param coll The column of the value.
+	 * @param value The value to write.
+	 * @param format The pattern declared by the property, can be null.
+	 */
+	private void write( int row, int coll, Object value, String format )
+	{
+		ExportListener listener = this.listener;
+		if ( listener == null )
+		{
+			writeValue( row, coll, value, format );
+			return;
+		}
+		long start = System.nanoTime();
+		try
+		{
+			writeValue( row, coll, value, format );
+		}
+		finally
+		{
+			listener.timed( ExportPhase.FORMAT, System.nanoTime() - start );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Convert the value into a message if a prefix key is defined.
+	 * @param prefix The prefix of the message key, can be null.
+	 * @param value The value to convert.
+	 * @return The message or the value itself if there is no prefix.
+	 */
+	private Object convert( String prefix, Object value )
+	{
+		if ( prefix == null || value == null )
+		{
+			return value;
+		}
+		return translate( prefix, value );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Export the objects rendering the rows in parallel. 
+	 * The objects are read from the iterator by the calling thread in chunks, each chunk is rendered 
+	 * by the executor into row buffers that are written by the calling thread in the original order.
+	 * At most {@link #parallelism} chunks are rendered at the same time, whatever the executor is, 
+	 * and at most twice as many chunks wait to be written.
+	 * @param items The objects to export.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalArgumentException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private void exportParallel( Iterator<?> items ) throws IntrospectionException, IllegalArgumentException, IllegalAccessException, InvocationTargetException
+	{
+		Executor pool = ( executor != null ? executor : ForkJoinPool.commonPool() );
+		Deque<FutureTask<RowBuffer[]>> pending = new ArrayDeque<FutureTask<RowBuffer[]>>();
+		final Semaphore running = new Semaphore( parallelism );
+		int buffered = 0;
+		try
+		{
+			while ( items.hasNext() )
+			{
+				Object[] chunk = new Object[ PARALLEL_CHUNK ];
+				int size = 0;
+				while ( size < chunk.length && items.hasNext() )
+				{
+					chunk[size++] = items.next();
+				}
+				
+				// Wait for a running task to complete, the permit is released when the task is done
+				acquire( running );
+				FutureTask<RowBuffer[]> task = new FutureTask<RowBuffer[]>( new RenderTask( currentRow, chunk, size ) ) {
+					@Override
+					protected void done() {
+						running.release();
+					}
+				};
+				currentRow += size;
+				pool.execute( task );
+				pending.add( task );
+				
+				buffered += size;
+				rowsBuffered( buffered );
+				
+				// Limit the rows waiting to be written
+				if ( pending.size() >= parallelism * 2 )
+				{
+					buffered -= commit( pending.poll() );
+				}
+			}
+			while ( !pending.isEmpty() )
+			{
+				commit( pending.poll() );
+			}
+		}
+		finally
+		{
+			// The chunks not yet started are dropped, the running ones are left to finish since
+			// interrupting them may break the lazy loads of the objects they are reading
+			for ( FutureTask<RowBuffer[]> task : pending )
+			{
+				task.cancel( false );
+			}
+		}
+	}
+	
+	/**
+	 * Acquire a permit to run a parallel task.
+	 * @param running The permits of the running tasks.
+	 */
+	private void acquire( Semaphore running )
+	{
+		try
+		{
+			running.acquire();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw (CancellationException) new CancellationException( "Export interrupted" ).initCause( e );
+		}
+	}
+	
+	/**
+	 * Write the rows rendered by a parallel task.
+	 * @param task The task rendering the rows.
+	 * @return The number of rows written.
+	 * 
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private int commit( FutureTask<RowBuffer[]> task ) throws IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		RowBuffer[] rows = null;
+		try
+		{
+			rows = task.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw (CancellationException) new CancellationException( "Export interrupted" ).initCause( e );
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if ( cause instanceof IntrospectionException ) 		throw (IntrospectionException) cause;
+			if ( cause instanceof IllegalAccessException ) 		throw (IllegalAccessException) cause;
+			if ( cause instanceof InvocationTargetException ) 	throw (InvocationTargetException) cause;
+			if ( cause instanceof RuntimeException ) 			throw (RuntimeException) cause;
+			if ( cause instanceof Error ) 						throw (Error) cause;
+			throw new IllegalStateException( cause );
+		}
+		
+		for ( RowBuffer buffer : rows )
+		{
+			for ( int i = 0; i < buffer.size(); i++ )
+			{
+				if ( layout == null )
+				{
+					addHeader( buffer.getColl( i ), buffer.getInfo( i ), buffer.getProperty( i ), buffer.getAnnotation( i ) );
+				}
+				if ( buffer.isRendered( i ) )
+				{
+					writeText( buffer.getRow(), buffer.getColl( i ), buffer.getText(), buffer.getStart( i ), buffer.getEnd( i ) );
+				}
+				else
+				{
+					write( buffer.getRow(), buffer.getColl( i ), buffer.getValue( i ), buffer.getFormat( i ) );
+				}
+			}
+			rowExported( buffer.getRow() );
+			rowsWritten++;
+			if ( listener != null )
+			{
+				listener.rowWritten( buffer.getRow(), buffer.size() );
+			}
+		}
+		return rows.length;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	// Inner classes
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * The state of the row being exported by a thread.
+	 */
+	private class RowContext
+	{
+		// Objects exported in the row, compared by identity
+		private final Set<Object> visited = Collections.newSetFromMap( new IdentityHashMap<Object,Boolean>() );
+		
+		// Objects waiting to be exported in the row, the next one is at the top
+		private Object[] 	stack = new Object[16];
+		private int 		depth = 0;
+		
+		// Cells of the row rendered in parallel, null if the cells are written directly
+		private RowBuffer buffer;
+		
+		// Objects of the segments of the column layout
+		private Object[] objects = new Object[0];
+		
+		// First character of the last value rendered in the text of the row
+		private int start;
+		
+		private void start( RowBuffer buffer )
+		{
+			this.visited.clear();
+			this.buffer = buffer;
+		}
+		
+		private void push( Object obj )
+		{
+			if ( obj == null )
+			{
+				return;
+			}
+			if ( depth == stack.length )
+			{
+				stack = Arrays.copyOf( stack, depth * 2 );
+			}
+			stack[depth++] = obj;
+		}
+		
+		private Object pop()
+		{
+			Object obj = stack[--depth];
+			stack[depth] = null;
+			return obj;
+		}
+		
+		private boolean isEmpty()
+		{
+			return depth == 0;
+		}
+		
+		// Reverse the objects pushed starting from the given position
+		private void reverse( int first )
+		{
+			for ( int i = first, j = depth - 1; i < j; i++, j-- )
+			{
+				Object obj = stack[i];
+				stack[i] = stack[j];
+				stack[j] = obj;
+			}
+		}
+		
+		private void cell( int row, int coll, BeanInfo info, PropertyDescriptor property, ExpoProperty annotation, Object value, String format )
+		{
+			if ( buffer == null )
+			{
+				if ( layout == null )
+				{
+					addHeader( coll, info, property, annotation );
+				}
+				write( row, coll, value, format );
+			}
+			else if ( value != null && render( value, format ) )
+			{
+				buffer.addText( coll, info, property, annotation, start, buffer.getText().length() );
+			}
+			else
+			{
+				buffer.add( coll, info, property, annotation, value, format );
+			}
+		}
+		
+		// Render the value into the text of the row setting the first character of the value
+		private boolean render( Object value, String format )
+		{
+			StringBuilder text = buffer.getText();
+			start = text.length();
+			ExportListener listener = Exporter.this.listener;
+			if ( listener == null )
+			{
+				return renderValue( text, value, format );
+			}
+			long begin = System.nanoTime();
+			try
+			{
+				return renderValue( text, value, format );
+			}
+			finally
+			{
+				listener.timed( ExportPhase.FORMAT, System.nanoTime() - begin );
+			}
+		}
+	}
+	
+	/**
+	 * Renders a chunk of rows of a parallel export.
+	 */
+	private class RenderTask implements Callable<RowBuffer[]>
+	{
+		private final int 		firstRow;
+		private final Object[] 	chunk;
+		private final int 		size;
+		
+		private RenderTask( int firstRow, Object[] chunk, int size )
+		{
+			this.firstRow 	= firstRow;
+			this.chunk 		= chunk;
+			this.size 		= size;
+		}
+		
+		public RowBuffer[] call() throws Exception 
+		{
+			RowContext context = new RowContext();
+			RowBuffer[] rows = new RowBuffer[ size ];
+			for ( int i = 0; i < size; i++ )
+			{
+				rows[i] = new RowBuffer( firstRow + i );
+				context.start( rows[i] );
+				render( context, firstRow + i, chunk[i] );
+				chunk[i] = null;
+			}
+			return rows;
+		}
+	}
+	
+	/**
+	 * Returns the object already read from an iterator before the following ones.
+	 */
+	private static class FirstIterator implements Iterator<Object>
+	{
+		private Object 				first;
+		private boolean 			pending = true;
+		private final Iterator<?> 	items;
+		
+		private FirstIterator( Object first, Iterator<?> items )
+		{
+			this.first = first;
+			this.items = items;
+		}
+		
+		public boolean hasNext() 
+		{
+			return pending || items.hasNext();
+		}
+		
+		public Object next() 
+		{
+			if ( pending )
+			{
+				Object obj = first;
+				first 	= null;
+				pending = false;
+				return obj;
+			}
+			return items.next();
+		}
+	}
+	
+	//-------------------------------------------------------------------------------------------------
+	// Public Methods
+	//-------------------------------------------------------------------------------------------------
+	
+	/**
+	 * Should always be called
+	 */
+	public void init() {
+		currentRow = 0;
+		rowsWritten = 0;
+		streamType = null;
+	}
+	
+	/**
+	 * Release the resources held by the exporter, like the temporary files, discarding the exported data.
+	 * The exporter can be used again after calling {@link #init()}.
+	 */
+	public void dispose() {
+	}
+	
+	//-------------------------------------------------------------------------------------------------
+
+	/**
+	 * Start the export process to the given list of object.
+	 * @param list The list of object to export.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public void export( List<?> list ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		export( list.iterator() );
+	}
+	
+	/**
+	 * Start the export process to the objects of the given collection.
+	 * @param items The objects to export.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public void export( Iterable<?> items ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		export( items.iterator() );
+	}
+	
+	/**
+	 * Start the export process to the objects of the given stream.
+	 * The objects are pulled from the stream while they are exported,
+	 * the stream is not closed.
+	 * @param items The objects to export.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public void export( Stream<?> items ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		export( items.iterator() );
+	}
+	
+	/**
+	 * Start the export process to the objects supplied one page at a time.
+	 * A page is requested only when the objects of the previous one have been exported.
+	 * @param supplier The supplier of the pages.
+	 * @param pageSize The number of objects in a page.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public <T> void export( PageSupplier<T> supplier, int pageSize ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		export( new PagedIterator<T>( supplier, pageSize ) );
+	}
+	
+	/**
+	 * Start the export process to the objects fetched from the data source.
+	 * The next pages are fetched in background while the current one is exported,
+	 * see {@link PrefetchingIterator}.
+	 * @param source The source of the objects.
+	 * @param pageSize The number of objects in a page.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public <T> void export( ExportDataSource<T> source, int pageSize ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		export( source, pageSize, PrefetchingIterator.DEFAULT_PREFETCH_PAGES, null );
+	}
+	
+	/**
+	 * Start the export process to the objects fetched from the data source.
+	 * The next pages are fetched in background while the current one is exported,
+	 * see {@link PrefetchingIterator}.
+	 * @param source The source of the objects.
+	 * @param pageSize The number of objects in a page.
+	 * @param prefetchPages The maximum number of pages fetched in advance.
+	 * @param executor The executor fetching the pages or null to fetch them in a new thread.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public <T> void export( ExportDataSource<T> source, int pageSize, int prefetchPages, Executor executor ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		PrefetchingIterator<T> items = new PrefetchingIterator<T>( source, pageSize, prefetchPages, executor );
+		try
+		{
+			export( items );
+		}
+		finally
+		{
+			items.close();
+		}
+	}
+	
+	/**
+	 * Start the export process to the objects returned by the iterator.
+	 * The objects are pulled from the iterator while they are exported, 
+	 * so they do not need to be loaded in memory at the same time.
+	 * @param items The objects to export.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public void export( Iterator<?> items ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		captureExclusions();
+		if ( schemaType == null && streamType == null && isStreaming() && items.hasNext() )
+		{
+			// The rows are written as soon as they are exported, so the columns are fixed by the first object
+			Object first = items.next();
+			streamType = ( first != null ? first.getClass() : null );
+			items = new FirstIterator( first, items );
+		}
+		Class<?> type = ( schemaType != null ? schemaType : streamType );
+		if ( type != null )
+		{
+			applySchema( type );
+		}
+		if ( listener == null )
+		{
+			exportRows( items );
+			return;
+		}
+		
+		// The statistics of the text cache are counted by this export, 
+		// since the cache can be shared by other exports running at the same time
+		TextCache cache = textCache;
+		textLookups.reset();
+		textMisses.reset();
+		
+		listener.exportStarted( this );
+		try
+		{
+			exportRows( items );
+		}
+		finally
+		{
+			if ( cache != null )
+			{
+				long misses = textMisses.sum();
+				listener.cacheStatistics( "text", textLookups.sum() - misses, misses );
+			}
+			listener.exportFinished( this );
+		}
+	}
+	
+	/**
+	 * Run the whole export in background using the given executor: the exporter is initialized, 
+	 * the objects are exported and the result is written to the output, that is not closed. 
+	 * The exporter must not be used by other threads until the returned job is done.
+	 * The progress is known when the objects are a {@link Collection}.
+	 * @param items The objects to export.
+	 * @param output The output where the export is written, null if the rows are streamed to an attached output.
+	 * @param executor The executor running the export.
+	 * @return The job, completed with the number of exported rows.
+	 */
+	public ExportJob exportAsync( Iterable<?> items, OutputStream output, Executor executor )
+	{
+		long total = ( items instanceof Collection ? ( (Collection<?>) items ).size() : -1 );
+		return exportAsync( items.iterator(), total, output, executor );
+	}
+	
+	/**
+	 * Run the whole export in background using the given executor, 
+	 * see {@link #exportAsync(Iterable, OutputStream, Executor)}.
+	 * @param items The objects to export.
+	 * @param totalRows The number of objects to export or -1 if unknown.
+	 * @param output The output where the export is written, null if the rows are streamed to an attached output.
+	 * @param executor The executor running the export.
+	 * @return The job, completed with the number of exported rows.
+	 */
+	public ExportJob exportAsync( Iterator<?> items, long totalRows, OutputStream output, Executor executor )
+	{
+		ExportJob job = new ExportJob( this, items, totalRows, output );
+		executor.execute( job );
+		return job;
+	}
+	
+	/**
+	 * Export the objects returned by the iterator, sequentially or in parallel.
+	 * @param items The objects to export.
+	 * 
+	 * @throws IllegalArgumentException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	private void exportRows( Iterator<?> items ) throws IllegalArgumentException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		if ( parallelism > 1 )
+		{
+			exportParallel( items );
+			return;
+		}
+		while ( items.hasNext() )
+		{
+			export( currentRow++, items.next() );
+		}
+	}
+
+	/**
+	 * Return the cache used to get the export plan of the exported classes.
+	 * @return The plan cache.
+	 */
+	public ExportPlanCache getPlanCache() {
+		return planCache;
+	}
+
+	/**
+	 * Set the cache used to get the export plan of the exported classes,
+	 * by default the cache shared by all the exporters is used.
+	 * @param planCache The plan cache to use.
+	 */
+	public void setPlanCache(ExportPlanCache planCache) {
+		this.planCache = planCache;
+	}
+
+	/**
+	 * Convert and cache the texts of the given values before starting the export, 
+	 * eg. all the codes of a status column exported with a prefix key.
+	 * Nothing is done if the exporter has no text cache.
+	 * @param prefix The prefix of the keys.
+	 * @param values The values completing the keys.
+	 */
+	public void preloadTexts( String prefix, Iterable<?> values )
+	{
+		if ( textCache != null )
+		{
+			textCache.preload( prefix, values, locale, textResolver );
+		}
+	}
+	
+	/**
+	 * @return The registry of the formatters used to write the values.
+	 */
+	public Formatters getFormatters() {
+		return formatters;
+	}
+
+	/**
+	 * Set the registry of the formatters used to write the values, it defines the locale and the 
+	 * time zone of the formatted values and it can be shared by many exporters.
+	 * @param formatters The registry of the formatters.
+	 */
+	public void setFormatters(Formatters formatters) {
+		this.formatters = formatters;
+	}
+
+	/**
+	 * @return The cache of the converted texts, null if the texts are not cached.
+	 */
+	public TextCache getTextCache() {
+		return textCache;
+	}
+
+	/**
+	 * Set the cache of the converted texts, the cache can be shared by many exporters 
+	 * using the same messages. The texts are cached by key and {@link #getLocale()}, 
+	 * so the locale must be set to the one used by {@link #getText(String)}, 
+	 * otherwise texts converted for another locale are returned.
+	 * By default the texts are not cached.
+	 * @param textCache The cache to use or null to call {@link #getText(String)} for each value.
+	 */
+	public void setTextCache(TextCache textCache) {
+		this.textCache = textCache;
+	}
+
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Set the locale identifying the cached texts, it must be the locale 
+	 * used by {@link #getText(String)} to convert the keys when a {@link TextCache} is set.
+	 * @param locale The locale of the texts.
+	 */
+	public void setLocale(Locale locale) {
+		this.locale = locale;
+	}
+
+	/**
+	 * Set the properties excluded from the export, the list is used by the default 
+	 * implementation of {@link #getExcludedProperties()}.
+	 * The exclusions are read when an export starts, so they can be changed between two exports.
+	 * @param excludedProperties The names of the properties to exclude.
+	 */
+	public void setExcludedProperties( Collection<String> excludedProperties ) {
+		this.excludedProperties = ( excludedProperties == null ? Collections.<String>emptyList() : new ArrayList<String>( excludedProperties ) );
+	}
+	
+	/**
+	 * Return the number of tasks rendering the rows at the same time.
+	 * @return The parallelism, 1 if the rows are rendered by the calling thread.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Set the number of tasks rendering the rows at the same time.
+	 * With a value greater than one the objects are traversed, and the values are read and converted, 
+	 * by the executor threads while the calling thread writes the rendered rows in the original order,
+	 * so the output is the same of the sequential export.
+	 * The rows are rendered in chunks of {@value #PARALLEL_CHUNK}: at most <code>parallelism</code> chunks 
+	 * are submitted to the executor at the same time, even if it is shared, and at most twice as many 
+	 * rendered chunks are kept in memory waiting to be written.
+	 * In parallel mode {@link #getText(String)} is called concurrently, and the exported objects 
+	 * are read concurrently: they must not be lazy loaded through a session that is not thread safe. 
+	 * The values are formatted by the executor threads only by the exporters rendering their text, 
+	 * like the {@link TextExporter}, the {@link ExcelExporter} formats and writes the cells 
+	 * on the calling thread since the workbook is not thread safe.
+	 * @param parallelism The number of chunks of rows rendered at the same time.
+	 */
+	public void setParallelism(int parallelism) {
+		if ( parallelism < 1 )
+		{
+			throw new IllegalArgumentException( "The parallelism must be positive" );
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return The executor rendering the rows in parallel, null if the common {@link ForkJoinPool} is used.
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the executor rendering the rows when the parallelism is greater than one,
+	 * by default the common {@link ForkJoinPool} is used.
+	 * @param executor The executor to use.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return The receiver of the export events, null if not defined.
+	 */
+	public ExportListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Set the receiver of the export events, it must be set before the export.
+	 * When no listener is set the export is not timed.
+	 * @param listener The listener or null to stop monitoring the exports.
+	 */
+	public void setListener(ExportListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @return The class whose metadata define the columns, null if the columns are found while exporting.
+	 */
+	public Class<?> getSchemaType() {
+		return schemaType;
+	}
+
+	/**
+	 * Define the columns from the metadata of the given class before the objects are exported,
+	 * instead of finding them from the exported objects. The exported objects must be instances of the class.
+	 * <p>
+	 * Each value is written at a fixed column: the values of the null objects are written as empty cells,
+	 * so the columns do not depend on the data, and the whole header is known before the first row. 
+	 * The columns are derived from the declared types of the properties and each class is exported once per row,
+	 * see {@link ColumnLayout}.
+	 * <p>
+	 * When no schema type is set the columns are found while exporting, except in streaming mode 
+	 * where the rows are written as soon as they are exported: the columns are then defined 
+	 * by the class of the first exported object, see {@link #isStreaming()}.
+	 * @param schemaType The class of the exported objects or null to find the columns while exporting.
+	 */
+	public void setSchemaType(Class<?> schemaType) {
+		this.schemaType = schemaType;
+		this.layout 	= null;
+	}
+
+	/**
+	 * Return the number of rows written since the exporter has been initialized,
+	 * it can be read by other threads to follow the progress of the export.
+	 * @return The number of rows.
+	 */
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	/**
+	 * Check if the header has to be added to the exported file.
+	 * @return True if the header is enabled.
+	 */
+	public boolean isEnabledHeader() {
+		return enabledHeader;
+	}
+
+	/**
+	 * Set the enable header option.
+	 * @param enabledHeader The option to set.
+	 */
+	public void setEnabledHeader(boolean enabledHeader) {
+		this.enabledHeader = enabledHeader;
+	}
+}
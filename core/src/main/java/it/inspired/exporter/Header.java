@@ -22,7 +22,10 @@ import it.inspired.exporter.annotation.ExpoProperty;
 
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The class used manage the information to write the header during the export process.
@@ -39,10 +42,21 @@ public class Header
 	private Class type;
 	
 	/*
-	 * 
+	 * The properties in column order
 	 */
 	private List<PropertyHeader> properties = new ArrayList<PropertyHeader>();
 	
+	/*
+	 * Index of the properties by descriptor instance, the same instances are
+	 * exported for each row so that the equality is checked only the first time
+	 */
+	private Map<PropertyDescriptor,PropertyHeader> byInstance = new IdentityHashMap<PropertyDescriptor,PropertyHeader>();
+	
+	/*
+	 * Index of the properties by descriptor equality
+	 */
+	private Map<PropertyDescriptor,PropertyHeader> byProperty = new HashMap<PropertyDescriptor,PropertyHeader>();
+	
 	public Header( Class type )
 	{
 		this.type = type;
@@ -56,20 +70,62 @@ public class Header
 		this.type = type;
 	}
 
+	/**
+	 * @return The properties in column order, they must be added using {@link #addProperty(PropertyDescriptor)}
+	 * or {@link #addProperty(PropertyDescriptor, ExpoProperty)} to be indexed.
+	 */
 	public List<PropertyHeader> getProperties() {
 		return properties;
 	}
 
 	public void setProperties(List<PropertyHeader> properties) {
 		this.properties = properties;
+		this.byInstance.clear();
+		this.byProperty.clear();
+		for ( PropertyHeader ph : properties )
+		{
+			index( ph );
+		}
 	}
 	
 	public void addProperty(PropertyDescriptor property ) {
-		this.properties.add( new PropertyHeader(property) );
+		addProperty( property, null );
 	}
 	
 	public void addProperty(PropertyDescriptor property, ExpoProperty annotation) {
-		this.properties.add( new PropertyHeader(property, annotation) );
+		PropertyHeader ph = ( annotation == null ? new PropertyHeader(property) : new PropertyHeader(property, annotation) );
+		this.properties.add( ph );
+		index( ph );
+	}
+	
+	/**
+	 * Check if the header contains the given property.
+	 * @param property The property to search.
+	 * @return True if a property equal to the given one has been added.
+	 */
+	public boolean hasProperty( PropertyDescriptor property )
+	{
+		if ( byInstance.containsKey( property ) )
+		{
+			return true;
+		}
+		PropertyHeader ph = byProperty.get( property );
+		if ( ph != null )
+		{
+			// Another instance of the same property, the next lookup is by instance
+			byInstance.put( property, ph );
+			return true;
+		}
+		return false;
+	}
+	
+	private void index( PropertyHeader ph )
+	{
+		byInstance.put( ph.getProperty(), ph );
+		if ( !byProperty.containsKey( ph.getProperty() ) )
+		{
+			byProperty.put( ph.getProperty(), ph );
+		}
 	}
 	
 	public boolean isFor( Class clazz )
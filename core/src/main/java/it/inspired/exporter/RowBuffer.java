@@ -0,0 +1,172 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import it.inspired.exporter.annotation.ExpoProperty;
+
+import java.beans.BeanInfo;
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+
+/**
+ * Holds the cells of a row rendered by a parallel export until they are 
+ * written, in the original row order, by the exporter.
+ * The cells hold either the value or the bounds of its text, when the value 
+ * has been rendered into the text of the row by the exporter.
+ * 
+ * @author Massimo Romano
+ *
+ */
+class RowBuffer
+{
+	private final int row;
+	
+	private int 					size 		= 0;
+	private int[] 					colls 		= new int[16];
+	private Object[] 				values 		= new Object[16];
+	private BeanInfo[] 				infos 		= new BeanInfo[16];
+	private PropertyDescriptor[] 	properties 	= new PropertyDescriptor[16];
+	private ExpoProperty[] 			annotations = new ExpoProperty[16];
+	private String[] 				formats 	= new String[16];
+	private int[] 					starts 		= new int[16];
+	private int[] 					ends 		= new int[16];
+	
+	// Text of the values rendered by the exporter, created when the first value is rendered
+	private StringBuilder text = null;
+	
+	RowBuffer( int row )
+	{
+		this.row = row;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Add a cell to the row.
+	 * @param coll The column of the cell.
+	 * @param info The bean information used to build the header.
+	 * @param property The property used to build the header.
+	 * @param annotation The annotation overriding the property header, can be null.
+	 * @param value The value of the cell.
+	 * @param format The pattern used to format the value, can be null.
+	 */
+	void add( int coll, BeanInfo info, PropertyDescriptor property, ExpoProperty annotation, Object value, String format )
+	{
+		add( coll, info, property, annotation );
+		values[size] 	= value;
+		formats[size] 	= format;
+		starts[size] 	= -1;
+		size++;
+	}
+	
+	/**
+	 * Add a cell whose value has been rendered into the text of the row.
+	 * @param coll The column of the cell.
+	 * @param info The bean information used to build the header.
+	 * @param property The property used to build the header.
+	 * @param annotation The annotation overriding the property header, can be null.
+	 * @param start The first character of the value in the text of the row.
+	 * @param end The character following the value in the text of the row.
+	 */
+	void addText( int coll, BeanInfo info, PropertyDescriptor property, ExpoProperty annotation, int start, int end )
+	{
+		add( coll, info, property, annotation );
+		starts[size] 	= start;
+		ends[size] 		= end;
+		size++;
+	}
+	
+	private void add( int coll, BeanInfo info, PropertyDescriptor property, ExpoProperty annotation )
+	{
+		if ( size == colls.length )
+		{
+			int length = size * 2;
+			colls 		= Arrays.copyOf( colls, length );
+			values 		= Arrays.copyOf( values, length );
+			infos 		= Arrays.copyOf( infos, length );
+			properties 	= Arrays.copyOf( properties, length );
+			annotations = Arrays.copyOf( annotations, length );
+			formats 	= Arrays.copyOf( formats, length );
+			starts 		= Arrays.copyOf( starts, length );
+			ends 		= Arrays.copyOf( ends, length );
+		}
+		colls[size] 		= coll;
+		infos[size] 		= info;
+		properties[size] 	= property;
+		annotations[size] 	= annotation;
+	}
+	
+	/**
+	 * @return The text of the values rendered by the exporter, the rendered values are appended to it.
+	 */
+	StringBuilder getText()
+	{
+		if ( text == null )
+		{
+			text = new StringBuilder( 128 );
+		}
+		return text;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	int getRow() {
+		return row;
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	int getColl( int index ) {
+		return colls[index];
+	}
+	
+	Object getValue( int index ) {
+		return values[index];
+	}
+	
+	BeanInfo getInfo( int index ) {
+		return infos[index];
+	}
+	
+	PropertyDescriptor getProperty( int index ) {
+		return properties[index];
+	}
+	
+	ExpoProperty getAnnotation( int index ) {
+		return annotations[index];
+	}
+	
+	String getFormat( int index ) {
+		return formats[index];
+	}
+	
+	boolean isRendered( int index ) {
+		return starts[index] >= 0;
+	}
+	
+	int getStart( int index ) {
+		return starts[index];
+	}
+	
+	int getEnd( int index ) {
+		return ends[index];
+	}
+}
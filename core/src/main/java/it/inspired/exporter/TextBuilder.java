@@ -0,0 +1,386 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * This class provide an API to write position based text.
+ * Every added string value ha its position in term of row and column. 
+ * The characters of each row are stored in a growable array reused when the row is cleared,
+ * each value is indexed by column with its bounds in the array, so no object is allocated 
+ * to store a value. The values are enclosed and escaped while they are copied, 
+ * according to the {@link CsvDialect}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class TextBuilder 
+{	
+	private int maxRow  = 0;
+	private int maxColl = 0;
+	private CsvDialect dialect = CsvDialect.DEFAULT;
+	
+	// Rows stored starting from firstRow, a cleared row is reused
+	private Row[] rows = new Row[16];
+	private int firstRow = 0;
+	private int size = 0;
+	
+	// Reused to build the line written for a row
+	private char[] line = new char[256];
+	
+	//---------------------------------------------------------------------------------
+	
+	/**
+	 * Return the values of the given row
+	 * @param row The row number
+	 * @return The row values or null if the row is empty
+	 */
+	private Row row( int row ) {
+		int index = row - firstRow;
+		if ( index < 0 || index >= size ) {
+			return null;
+		}
+		return rows[index];
+	}
+	
+	/**
+	 * Make room to store the rows before the first one
+	 * @param row The row number to store
+	 */
+	private void shift( int row ) {
+		int shift = firstRow - row;
+		Row[] shifted = new Row[ Math.max( rows.length, size + shift ) ];
+		System.arraycopy( rows, 0, shifted, shift, size );
+		rows = shifted;
+		firstRow = row;
+		size += shift;
+	}
+	
+	/**
+	 * Return the row where the value of the given column is stored, creating it if needed
+	 * @param row The row number
+	 * @param coll The column number
+	 * @return The row
+	 */
+	private Row store( int row, int coll ) {
+		if ( size == 0 ) {
+			firstRow = row;
+		}
+		else if ( row < firstRow ) {
+			shift( row );
+		}
+		int index = row - firstRow;
+		if ( index >= rows.length ) {
+			rows = Arrays.copyOf( rows, Math.max( rows.length * 2, index + 1 ) );
+		}
+		size = Math.max( size, index + 1 );
+		
+		Row values = rows[index];
+		if ( values == null ) {
+			values = rows[index] = new Row( Math.max( maxColl, coll ) + 1 );
+		}
+		
+		maxRow  = Math.max( maxRow, row );
+		maxColl = Math.max( maxColl, coll );
+		return values;
+	}
+	
+	//---------------------------------------------------------------------------------
+	
+	/**
+	 * Set the separator to use between values
+	 * @param separator The separator to use
+	 */
+	public void setSeparator( String separator ) {
+		this.dialect = dialect.withSeparator( separator );
+	}
+	
+	/**
+	 * Set the layout of the text, it must be set before the values are added
+	 * @param dialect The layout to use
+	 */
+	public void setDialect( CsvDialect dialect ) {
+		this.dialect = dialect;
+	}
+	
+	public CsvDialect getDialect() {
+		return dialect;
+	}
+	
+	/**
+	 * Add a string value to a specific row and column, the value is stored as is
+	 * @param row The row number
+	 * @param coll The column number
+	 * @param value The value to add
+	 */
+	public void add( int row, int coll, String value ) {
+		value = ( value != null ? value : "" );
+		store( row, coll ).set( coll, value, 0, value.length(), false, '\0' );
+	}
+	
+	/**
+	 * Add a value to a specific row and column, the value is enclosed and escaped 
+	 * as defined by the dialect. The characters are copied so the value can be reused.
+	 * @param row The row number
+	 * @param coll The column number
+	 * @param value The value to add
+	 */
+	public void addValue( int row, int coll, CharSequence value ) {
+		addValue( row, coll, value, 0, value.length() );
+	}
+	
+	/**
+	 * Add the part of a text between the given bounds as the value of a specific row and column, 
+	 * see {@link #addValue(int, int, CharSequence)}.
+	 * @param row The row number
+	 * @param coll The column number
+	 * @param text The text holding the value
+	 * @param start The first character of the value
+	 * @param end The character following the value
+	 */
+	public void addValue( int row, int coll, CharSequence text, int start, int end ) {
+		boolean quote = false;
+		switch ( dialect.getQuoting() ) {
+		case ALWAYS:
+			quote = true;
+			break;
+		case MINIMAL:
+			quote = dialect.needsQuotes( text, start, end );
+			break;
+		default:
+			break;
+		}
+		store( row, coll ).set( coll, text, start, end, quote, dialect.getEnclosure() );
+	}
+	
+	/**
+	 * Add a header to a specific row and column, the header is enclosed and escaped 
+	 * only if needed, unless the dialect never encloses the values.
+	 * @param row The row number
+	 * @param coll The column number
+	 * @param value The header to add
+	 */
+	public void addHeader( int row, int coll, CharSequence value ) {
+		if ( value == null ) {
+			value = "";
+		}
+		boolean quote = dialect.getQuoting() != CsvDialect.Quoting.NEVER && dialect.needsQuotes( value );
+		store( row, coll ).set( coll, value, 0, value.length(), quote, dialect.getEnclosure() );
+	}
+	
+	/**
+	 * Get the valued stored in the given row and column 
+	 * @param row The raw number
+	 * @param coll The column number
+	 * @return The value retrieved of the empty string if the cell is empty
+	 */
+	public String get( int row, int coll ) {
+		Row values = row( row );
+		if ( values != null && coll < values.colls ) {
+			return new String( values.chars, values.starts[coll], values.ends[coll] - values.starts[coll] );
+		}
+		return "";
+	}
+	
+	/**
+	 * Return the greatest column number used
+	 * @return The column number
+	 */
+	public int getMaxColl() {
+		return maxColl;
+	}
+	
+	/**
+	 * Remove all the values
+	 */
+	public void clear() {
+		for ( int i = 0; i < size; i++ ) {
+			if ( rows[i] != null ) {
+				rows[i].clear();
+			}
+		}
+		size 	= 0;
+		maxRow  = 0;
+		maxColl = 0;
+	}
+	
+	/**
+	 * Append the values of a single row followed by the line terminator
+	 * 
+	 * @param out The destination of the row
+	 * @param row The row number
+	 * @param colls The number of columns to write
+	 * @throws IOException
+	 */
+	public void writeRow( Appendable out, int row, int colls ) throws IOException {
+		Row values = row( row );
+		String separator = dialect.getSeparator();
+		String terminator = dialect.getLineTerminator();
+		
+		int length = 0;
+		for ( int coll = 0; coll < colls; coll++ ) {
+			if ( coll != 0 ) {
+				length = append( length, separator );
+			}
+			if ( values != null && coll < values.colls ) {
+				int start = values.starts[coll];
+				int count = values.ends[coll] - start;
+				ensureLine( length + count );
+				System.arraycopy( values.chars, start, line, length, count );
+				length += count;
+			}
+		}
+		length = append( length, terminator );
+		
+		if ( out instanceof Writer ) {
+			( (Writer) out ).write( line, 0, length );
+		}
+		else if ( out instanceof StringBuilder ) {
+			( (StringBuilder) out ).append( line, 0, length );
+		}
+		else {
+			out.append( CharBuffer.wrap( line, 0, length ) );
+		}
+	}
+	
+	/**
+	 * Append all the rows respecting the given coordinates
+	 * 
+	 * @param out The destination of the rows
+	 * @throws IOException
+	 */
+	public void write( Appendable out ) throws IOException {
+		for ( int row = 0; row <= maxRow; row ++ ) {
+			writeRow( out, row, maxColl + 1 );
+		}
+	}
+	
+	/**
+	 * Build the string with the provided values respecting the given coordinates
+	 * 
+	 * @return The builded string
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		
+		try {
+			write( str );
+		}
+		catch (IOException e) {
+			// Never thrown by StringBuilder
+			throw new IllegalStateException( e );
+		}
+		
+		return str.toString();
+	}
+	
+	//---------------------------------------------------------------------------------
+	
+	private int append( int length, String str ) {
+		ensureLine( length + str.length() );
+		str.getChars( 0, str.length(), line, length );
+		return length + str.length();
+	}
+	
+	private void ensureLine( int length ) {
+		if ( length > line.length ) {
+			line = Arrays.copyOf( line, Math.max( line.length * 2, length ) );
+		}
+	}
+	
+	//---------------------------------------------------------------------------------
+	
+	/**
+	 * The characters of a row and the bounds of each value
+	 */
+	private static class Row {
+		private char[] 	chars = new char[64];
+		private int 	used = 0;
+		private int[] 	starts;
+		private int[] 	ends;
+		
+		// Number of columns whose bounds are set
+		private int colls = 0;
+		
+		private Row( int colls ) {
+			starts 	= new int[colls];
+			ends 	= new int[colls];
+		}
+		
+		/**
+		 * Copy the value between start and end at the end of the row characters, doubling the enclosures if quoted
+		 */
+		private void set( int coll, CharSequence value, int start, int end, boolean quote, char enclosure ) {
+			if ( coll >= starts.length ) {
+				int length = Math.max( starts.length * 2, coll + 1 );
+				starts 	= Arrays.copyOf( starts, length );
+				ends 	= Arrays.copyOf( ends, length );
+			}
+			if ( coll >= colls ) {
+				// The columns skipped are empty
+				Arrays.fill( starts, colls, coll, used );
+				Arrays.fill( ends, colls, coll, used );
+				colls = coll + 1;
+			}
+			
+			int length = end - start;
+			int required = used + ( quote ? length * 2 + 2 : length );
+			if ( required > chars.length ) {
+				chars = Arrays.copyOf( chars, Math.max( chars.length * 2, required ) );
+			}
+			
+			starts[coll] = used;
+			if ( !quote ) {
+				if ( value instanceof String ) {
+					( (String) value ).getChars( start, end, chars, used );
+				}
+				else if ( value instanceof StringBuilder ) {
+					( (StringBuilder) value ).getChars( start, end, chars, used );
+				}
+				else {
+					for ( int i = 0; i < length; i++ ) {
+						chars[used + i] = value.charAt( start + i );
+					}
+				}
+				used += length;
+			}
+			else {
+				chars[used++] = enclosure;
+				for ( int i = start; i < end; i++ ) {
+					char c = value.charAt( i );
+					if ( c == enclosure ) {
+						chars[used++] = enclosure;
+					}
+					chars[used++] = c;
+				}
+				chars[used++] = enclosure;
+			}
+			ends[coll] = used;
+		}
+		
+		private void clear() {
+			used 	= 0;
+			colls 	= 0;
+		}
+	}
+}
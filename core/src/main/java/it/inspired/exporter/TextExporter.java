@@ -0,0 +1,491 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import it.inspired.exporter.handler.ValueContext;
+import it.inspired.exporter.handler.ValueHandler;
+import it.inspired.exporter.handler.ValueHandlers;
+import it.inspired.exporter.io.FileChannelWriter;
+import it.inspired.exporter.metrics.CountingOutputStream;
+import it.inspired.exporter.metrics.ExportPhase;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The TXT export implementation.
+ * By default the values are kept in memory and written by {@link #write(OutputStream)},
+ * when an output is attached before the export the rows are written as soon as they are exported.
+ * @author Massimo Romano
+ *
+ */
+public class TextExporter extends Exporter
+{
+	private static final Logger log = Logger.getLogger(TextExporter.class);
+	
+	TextBuilder 	text 	= null;
+	
+	private CsvDialect dialect = CsvDialect.DEFAULT;
+	private String dateFormat = "dd/MM/yyyy HH:mm";
+	private Charset charset = Charset.defaultCharset();
+	
+	// Output where the rows are streamed, null if the rows are kept in memory
+	private Writer writer = null;
+	
+	// Bytes written to the attached output stream, null if a writer is attached
+	private CountingOutputStream counter = null;
+	
+	// Attached output stream, null if a writer is attached
+	private OutputStream stream = null;
+	
+	// File attached by the exporter, closed when the data is written
+	private FileChannelWriter file = null;
+	private Path filePath = null;
+	
+	// Bytes of the attached file already reported to the listener
+	private long fileBytes = 0;
+	
+	// Number of header columns written, -1 if the header is not written
+	private int headerColumns = -1;
+	
+	// Rows kept in memory until the data is written, when no output is attached
+	private int retainedRows = 0;
+	
+	// Settings used by the handlers to write the values
+	private ValueContext valueContext = null;
+	
+	// Reused to render the values before they are copied into the text
+	private final StringBuilder rendered = new StringBuilder();
+	
+	@Override
+	protected void writeHeader() {
+		Integer coll = 0;
+		for ( Header  header: headers )
+		{
+			for ( PropertyHeader ph : header.getProperties() )
+			{
+				String collName = null;
+				
+				// Check if property labekKey is overrided
+				if ( ph.isOverrided() ) {
+					String key = AnnotationHelper.getLabelKey( ph.getOverridingEpoProperty() );
+					if ( key != null ) {
+						collName  = translate( null, key );
+					}
+				}
+				
+				if ( collName == null ) 
+				{
+					collName = super.getPropertyHeaderName( ph.getProperty() );
+				}
+				text.addHeader( 0, coll, collName );
+				
+				coll++;
+			}
+		}
+		headerColumns = coll;
+	}
+
+	@Override
+	protected void writeValue(int row, int coll, Object value) {
+		writeValue( row, coll, value, null );
+	}
+	
+	@Override
+	protected void writeValue(int row, int coll, Object value, String format) {
+		if ( value != null )
+		{
+			ValueHandler handler = super.getValueHandler( coll, value );
+			rendered.setLength( 0 );
+			handler.appendText( rendered, value, format, valueContext );
+			text.addValue( row, coll, rendered );
+		}
+		else
+		{
+			text.add( row, coll, "" );
+		}
+	}
+	
+	/**
+	 * In parallel mode the values are formatted by the threads rendering the rows,
+	 * the text is copied when the rows are written.
+	 */
+	@Override
+	protected boolean renderValue( StringBuilder out, Object value, String format ) {
+		ValueHandlers.getShared().get( value.getClass() ).appendText( out, value, format, valueContext );
+		return true;
+	}
+	
+	@Override
+	protected void writeText( int row, int coll, CharSequence text, int start, int end ) {
+		this.text.addValue( row, coll, text, start, end );
+	}
+	
+	/**
+	 * In streaming mode the row is written to the attached output and removed from memory.
+	 * The header is written with the columns known when the first row is exported.
+	 * Otherwise the row is kept in memory and the rows retained are reported to the listener.
+	 */
+	@Override
+	protected void rowExported( int row ) 
+	{
+		if ( writer == null )
+		{
+			super.rowsBuffered( ++retainedRows );
+			return;
+		}
+		try
+		{
+			if ( super.isEnabledHeader() && headerColumns < 0 )
+			{
+				writeHeader();
+				text.writeRow( writer, 0, headerColumns );
+			}
+			text.writeRow( writer, row, Math.max( text.getMaxColl() + 1, headerColumns ) );
+			text.clear();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	@Override
+	public void init() {
+		super.init();
+		super.currentRow = 0;
+		if ( super.isEnabledHeader() )
+		{
+			super.currentRow = 1;
+		}
+		headerColumns = -1;
+		retainedRows = 0;
+		text = new TextBuilder();
+		text.setDialect(dialect);
+		valueContext = new ValueContext( getFormatters(), dateFormat );
+	}
+
+	@Override
+	public void finalyze() 
+	{
+		long start = super.startTiming();
+		if ( writer == null )
+		{
+			if ( super.isEnabledHeader() )
+			{
+				writeHeader();
+			}
+			super.endTiming( ExportPhase.FINALYZE, start );
+			return;
+		}
+		try
+		{
+			if ( super.isEnabledHeader() && headerColumns < 0 )
+			{
+				writeHeader();
+				text.writeRow( writer, 0, headerColumns );
+				text.clear();
+			}
+			else if ( super.isEnabledHeader() && super.getHeaderSize() > headerColumns )
+			{
+				log.warn( "The header was written with the first row, " + ( super.getHeaderSize() - headerColumns ) + " columns found later are without header" );
+			}
+			writer.flush();
+			countBytes();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException( e );
+		}
+		finally
+		{
+			super.endTiming( ExportPhase.FINALYZE, start );
+		}
+	}
+
+	/**
+	 * Write the exported data to the output stream.
+	 * The rows are encoded while they are written, without building the whole text.
+	 * In streaming mode the rows are already written to the attached output 
+	 * and it is only flushed, an output file attached by the exporter is closed:
+	 * the given stream must be null or the attached one.
+	 * 
+	 * @throws IllegalStateException If the stream is not the attached output.
+	 */
+	@Override
+	public void write(OutputStream outputStream) throws IOException 
+	{
+		long start = super.startTiming();
+		try
+		{
+			if ( writer != null )
+			{
+				if ( outputStream != null && outputStream != stream )
+				{
+					throw new IllegalStateException( "The rows are streamed to the attached output, they can not be written to another stream" );
+				}
+				writeAttached();
+				return;
+			}
+			CountingOutputStream out = new CountingOutputStream( outputStream );
+			Writer encoder = new BufferedWriter( new OutputStreamWriter( out, charset ) );
+			text.write( encoder );
+			encoder.flush();
+			super.bytesWritten( out.getCount() );
+		}
+		finally
+		{
+			super.endTiming( ExportPhase.WRITE, start );
+		}
+	}
+	
+	/**
+	 * Write the exported data to the file, replacing it.
+	 * The rows are encoded directly into a direct buffer written through a file channel,
+	 * see {@link FileChannelWriter}.
+	 * In streaming mode the rows are already written to the attached output 
+	 * and it is only flushed: the path must be the one of the attached file.
+	 * @param path The file to write.
+	 * 
+	 * @throws IOException
+	 * @throws IllegalStateException If another output is attached.
+	 */
+	public void writeFile(Path path) throws IOException 
+	{
+		long start = super.startTiming();
+		try
+		{
+			if ( writer != null )
+			{
+				if ( file == null || !filePath.equals( path ) )
+				{
+					throw new IllegalStateException( "The rows are streamed to the attached output, they can not be written to another file" );
+				}
+				writeAttached();
+				return;
+			}
+			FileChannelWriter out = new FileChannelWriter( path, charset );
+			try
+			{
+				text.write( out );
+			}
+			finally
+			{
+				out.close();
+			}
+			super.bytesWritten( out.getBytesWritten() );
+		}
+		finally
+		{
+			super.endTiming( ExportPhase.WRITE, start );
+		}
+	}
+	
+	/**
+	 * Flush the attached output and close the file attached by the exporter.
+	 * @throws IOException
+	 */
+	private void writeAttached() throws IOException
+	{
+		writer.flush();
+		if ( file == null )
+		{
+			countBytes();
+			return;
+		}
+		FileChannelWriter out = file;
+		file 		= null;
+		filePath 	= null;
+		writer 		= null;
+		out.close();
+		countBytes( out );
+	}
+	
+	/**
+	 * Discard the exported rows, the attached output is not closed
+	 * unless it is a file attached by the exporter.
+	 */
+	@Override
+	public void dispose() {
+		text = null;
+		try
+		{
+			closeFile();
+		}
+		catch (IOException e)
+		{
+			log.warn( "Unable to close the output file", e );
+		}
+	}
+	
+	/**
+	 * Close the file attached by the exporter, if any, and detach it.
+	 * @throws IOException
+	 */
+	private void closeFile() throws IOException
+	{
+		if ( file != null )
+		{
+			FileChannelWriter out = file;
+			file 		= null;
+			filePath 	= null;
+			writer 		= null;
+			out.close();
+		}
+	}
+	
+	/**
+	 * Report to the listener the bytes written to the attached output since the last call.
+	 */
+	private void countBytes()
+	{
+		if ( counter != null )
+		{
+			super.bytesWritten( counter.resetCount() );
+		}
+		else if ( file != null )
+		{
+			countBytes( file );
+		}
+	}
+	
+	private void countBytes( FileChannelWriter out )
+	{
+		long bytes = out.getBytesWritten();
+		super.bytesWritten( bytes - fileBytes );
+		fileBytes = bytes;
+	}
+	
+	/**
+	 * Attach the file where the rows are written as soon as they are exported,
+	 * it must be called before the export. The rows are encoded with the exporter charset
+	 * directly into a direct buffer written through a file channel, see {@link FileChannelWriter}.
+	 * The file is closed when the data is written, by {@link #dispose()} or when another output is attached.
+	 * @param path The file to write, it is replaced.
+	 * 
+	 * @throws IOException If the file can not be opened.
+	 */
+	public void setOutputFile(Path path) throws IOException {
+		closeFile();
+		FileChannelWriter out = new FileChannelWriter( path, charset );
+		setWriter( out );
+		this.file 		= out;
+		this.filePath 	= path;
+		this.fileBytes 	= 0;
+	}
+	
+	/**
+	 * Attach the output stream where the rows are written as soon as they are exported,
+	 * it must be called before the export. The rows are encoded with the exporter charset.
+	 * A file previously attached by the exporter is closed.
+	 * @param outputStream The output stream.
+	 */
+	public void setOutputStream(OutputStream outputStream) {
+		detachFile();
+		counter = ( outputStream != null ? new CountingOutputStream( outputStream ) : null );
+		this.writer = ( counter != null ? new BufferedWriter( new OutputStreamWriter( counter, charset ) ) : null );
+		this.stream = outputStream;
+	}
+	
+	/**
+	 * Attach the writer where the rows are written as soon as they are exported,
+	 * it must be called before the export. 
+	 * A file previously attached by the exporter is closed.
+	 * @param writer The writer, null to keep the rows in memory.
+	 */
+	public void setWriter(Writer writer) {
+		detachFile();
+		this.writer = writer;
+		this.counter = null;
+		this.stream = null;
+	}
+	
+	@Override
+	public boolean isOutputAttached() {
+		return writer != null;
+	}
+	
+	/**
+	 * @return True if the rows are streamed to an attached output.
+	 */
+	@Override
+	public boolean isStreaming() {
+		return writer != null;
+	}
+	
+	private void detachFile()
+	{
+		try
+		{
+			closeFile();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException( e );
+		}
+	}
+	
+	/**
+	 * @return The charset used to encode the text.
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * @return The layout of the text.
+	 */
+	public CsvDialect getDialect() {
+		return dialect;
+	}
+	
+	/**
+	 * Set the layout of the text, by default {@link CsvDialect#DEFAULT}: values separated 
+	 * by semicolon and always enclosed in double quotes, with the enclosures inside the values doubled.
+	 * It must be set before the export.
+	 * @param dialect The layout to use.
+	 */
+	public void setDialect(CsvDialect dialect) {
+		this.dialect = dialect;
+	}
+	
+	/**
+	 * Set the charset used to encode the text, by default the platform charset is used.
+	 * It must be set before an output stream or a file is attached, since they encode the text with it.
+	 * @param charset The charset to use.
+	 * 
+	 * @throws IllegalStateException If an output stream or a file is attached.
+	 */
+	public void setCharset(Charset charset) {
+		if ( counter != null || file != null )
+		{
+			throw new IllegalStateException( "The charset must be set before the output is attached" );
+		}
+		this.charset = charset;
+	}
+
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import java.lang.reflect.Method;
+
+/**
+ * Factory of the {@link PropertyAccessor} used to read the exported properties.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public interface AccessorFactory 
+{
+	/**
+	 * Create the accessor invoking the given getter.
+	 * @param getter The getter of the property.
+	 * @return The accessor for the property.
+	 */
+	public PropertyAccessor create( Method getter );
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+/**
+ * Provides the accessors of the properties of a class without using reflection.
+ * The implementations are generated at compile time by the annotation processor of the
+ * model-exporter-processor module and found by {@link AccessorProviders}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public interface AccessorProvider 
+{
+	/**
+	 * @return The class whose properties are read by the accessors.
+	 */
+	public Class<?> getType();
+	
+	/**
+	 * Return the accessor invoking the getter with the given name.
+	 * @param getter The name of the getter method, eg. getName.
+	 * @return The accessor or null if the getter is not provided.
+	 */
+	public PropertyAccessor getAccessor( String getter );
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Registry of the {@link AccessorProvider} generated at compile time.
+ * The provider of a class is a top level class named after the binary name of the class, 
+ * keeping the separator of the nested classes, with the suffix {@value #SUFFIX}, 
+ * eg. the provider of com.acme.Order$Line is com.acme.Order$Line{@value #SUFFIX}.
+ * The separator is kept since two classes can not have the same binary name, 
+ * while replacing it would make the providers of Order$Line and Order_Line collide.
+ * The provider is searched once per class, using the class loader of the class.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class AccessorProviders 
+{
+	private static final Logger log = Logger.getLogger(AccessorProviders.class);
+	
+	/*
+	 * Suffix of the name of the generated providers
+	 */
+	public static final String SUFFIX = "_ExpoAccessors";
+	
+	private static final ClassValue<AccessorProvider> providers = new ClassValue<AccessorProvider>() {
+		@Override
+		protected AccessorProvider computeValue( Class<?> type ) {
+			return load( type );
+		}
+	};
+	
+	private AccessorProviders() {}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the provider generated for the given class.
+	 * @param type The class whose properties are read.
+	 * @return The provider or null if it has not been generated.
+	 */
+	public static AccessorProvider find( Class<?> type )
+	{
+		if ( type == null || type.isPrimitive() || type.isArray() )
+		{
+			return null;
+		}
+		return providers.get( type );
+	}
+	
+	/**
+	 * Return the name of the provider generated for the given class.
+	 * @param binaryName The binary name of the class, eg. com.acme.Order$Line.
+	 * @return The name of the provider.
+	 */
+	public static String getProviderName( String binaryName )
+	{
+		return binaryName + SUFFIX;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static AccessorProvider load( Class<?> type )
+	{
+		ClassLoader loader = ( type.getClassLoader() != null ? type.getClassLoader() : AccessorProviders.class.getClassLoader() );
+		try
+		{
+			Class<?> clazz = Class.forName( getProviderName( type.getName() ), true, loader );
+			if ( !AccessorProvider.class.isAssignableFrom( clazz ) )
+			{
+				log.warn( clazz.getName() + " does not implement " + AccessorProvider.class.getName() );
+				return null;
+			}
+			AccessorProvider provider = (AccessorProvider) clazz.getDeclaredConstructor().newInstance();
+			if ( provider.getType() != type )
+			{
+				log.warn( clazz.getName() + " does not provide the accessors of " + type.getName() );
+				return null;
+			}
+			log.debug( "Using generated accessors " + clazz.getName() );
+			return provider;
+		}
+		catch (ClassNotFoundException e)
+		{
+			// Not generated, the accessors are created by the factory
+			return null;
+		}
+		catch (LinkageError e)
+		{
+			log.warn( "Unable to load the accessors of " + type.getName(), e );
+			return null;
+		}
+		catch (ReflectiveOperationException e)
+		{
+			log.warn( "Unable to create the accessors of " + type.getName(), e );
+			return null;
+		}
+	}
+}
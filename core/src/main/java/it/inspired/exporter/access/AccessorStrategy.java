@@ -0,0 +1,92 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The strategies available to read the exported properties.
+ * The default strategy can be selected with the system property {@value #PROPERTY},
+ * eg. -Dit.inspired.exporter.accessor=reflection
+ * 
+ * @author Massimo Romano
+ *
+ */
+public enum AccessorStrategy 
+{
+	// Getters called using Method.invoke
+	REFLECTION,
+	
+	// Getters called using MethodHandle, falling back to reflection
+	METHOD_HANDLE,
+	
+	// Getters called using functions generated by the LambdaMetafactory, falling back to method handles
+	LAMBDA;
+	
+	/*
+	 * System property used to define the default strategy
+	 */
+	public static final String PROPERTY = "it.inspired.exporter.accessor";
+	
+	private static final Logger log = Logger.getLogger(AccessorStrategy.class);
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Create the factory implementing the strategy.
+	 * @return The accessor factory.
+	 */
+	public AccessorFactory createFactory()
+	{
+		switch ( this )
+		{
+			case REFLECTION:
+				return new ReflectionAccessorFactory();
+			case METHOD_HANDLE:
+				return new MethodHandleAccessorFactory();
+			default:
+				return new LambdaAccessorFactory();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the strategy defined by the system property {@value #PROPERTY} or {@link #LAMBDA} if not defined.
+	 * An unknown strategy is logged and {@link #LAMBDA} is returned, since the default strategy 
+	 * is read while the shared plan cache is created.
+	 * @return The default strategy.
+	 */
+	public static AccessorStrategy getDefault()
+	{
+		String value = System.getProperty( PROPERTY );
+		if ( value != null && !value.trim().isEmpty() )
+		{
+			try
+			{
+				return AccessorStrategy.valueOf( value.trim().toUpperCase() );
+			}
+			catch (IllegalArgumentException e)
+			{
+				log.warn( "Unknown accessor strategy '" + value + "' defined by " + PROPERTY + ", using " + LAMBDA );
+			}
+		}
+		return LAMBDA;
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Creates accessors calling the getter through a {@link Function} generated
+ * by the {@link LambdaMetafactory}, that the JIT compiler handles as a direct call.
+ * The function can be generated only for public getters of public classes visible
+ * from the class loader of the framework, otherwise the accessor is created by the fallback factory.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class LambdaAccessorFactory implements AccessorFactory
+{
+	private static final Logger log = Logger.getLogger(LambdaAccessorFactory.class);
+	
+	private static final MethodType FACTORY_TYPE 	= MethodType.methodType( Function.class );
+	private static final MethodType FUNCTION_TYPE 	= MethodType.methodType( Object.class, Object.class );
+	
+	private final AccessorFactory fallback;
+	
+	public LambdaAccessorFactory() 
+	{
+		this( new MethodHandleAccessorFactory() );
+	}
+	
+	public LambdaAccessorFactory( AccessorFactory fallback ) 
+	{
+		this.fallback = fallback;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@SuppressWarnings("unchecked")
+	public PropertyAccessor create( Method getter ) 
+	{
+		if ( isSupported( getter ) )
+		{
+			try
+			{
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				MethodHandle handle = lookup.unreflect( getter );
+				CallSite site = LambdaMetafactory.metafactory( lookup, "apply", FACTORY_TYPE, FUNCTION_TYPE, handle, handle.type().wrap() );
+				return new FunctionAccessor( (Function<Object, Object>) site.getTarget().invokeExact() );
+			}
+			catch (Throwable e)
+			{
+				log.debug( "Unable to generate the accessor for " + getter, e );
+			}
+		}
+		return fallback.create( getter );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Check if the getter can be linked by a lambda defined in the framework class loader.
+	 * @param getter The getter to check.
+	 * @return True if the lambda can be generated.
+	 */
+	private boolean isSupported( Method getter )
+	{
+		Class<?> type = getter.getDeclaringClass();
+		if ( !Modifier.isPublic( getter.getModifiers() ) || Modifier.isStatic( getter.getModifiers() ) )
+		{
+			return false;
+		}
+		for ( Class<?> c = type; c != null; c = c.getEnclosingClass() )
+		{
+			if ( !Modifier.isPublic( c.getModifiers() ) )
+			{
+				return false;
+			}
+		}
+		return isVisible( type ) && isVisible( getter.getReturnType() );
+	}
+	
+	private boolean isVisible( Class<?> type )
+	{
+		if ( type.isPrimitive() )
+		{
+			return true;
+		}
+		while ( type.isArray() )
+		{
+			type = type.getComponentType();
+		}
+		try
+		{
+			return Class.forName( type.getName(), false, LambdaAccessorFactory.class.getClassLoader() ) == type;
+		}
+		catch (ClassNotFoundException e)
+		{
+			return false;
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class FunctionAccessor implements PropertyAccessor
+	{
+		private final Function<Object, Object> function;
+		
+		private FunctionAccessor( Function<Object, Object> function ) 
+		{
+			this.function = function;
+		}
+		
+		public Object get( Object bean ) throws InvocationTargetException 
+		{
+			try
+			{
+				return function.apply( bean );
+			}
+			catch (Throwable e)
+			{
+				throw new InvocationTargetException( e );
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Creates accessors calling the getter through a {@link MethodHandle}
+ * adapted to the generic signature (Object)Object.
+ * When the getter can not be accessed the accessor is created by the fallback factory.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class MethodHandleAccessorFactory implements AccessorFactory
+{
+	private static final Logger log = Logger.getLogger(MethodHandleAccessorFactory.class);
+	
+	private static final MethodType GENERIC_TYPE = MethodType.methodType( Object.class, Object.class );
+	
+	private final AccessorFactory fallback;
+	
+	public MethodHandleAccessorFactory() 
+	{
+		this( new ReflectionAccessorFactory() );
+	}
+	
+	public MethodHandleAccessorFactory( AccessorFactory fallback ) 
+	{
+		this.fallback = fallback;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public PropertyAccessor create( Method getter ) 
+	{
+		try
+		{
+			MethodHandle handle = MethodHandles.publicLookup().unreflect( getter ).asType( GENERIC_TYPE );
+			return new MethodHandleAccessor( handle );
+		}
+		catch (IllegalAccessException e)
+		{
+			log.debug( "Method handle not available for " + getter + ", using " + fallback.getClass().getSimpleName() );
+			return fallback.create( getter );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class MethodHandleAccessor implements PropertyAccessor
+	{
+		private final MethodHandle handle;
+		
+		private MethodHandleAccessor( MethodHandle handle ) 
+		{
+			this.handle = handle;
+		}
+		
+		public Object get( Object bean ) throws InvocationTargetException 
+		{
+			try
+			{
+				return handle.invokeExact( bean );
+			}
+			catch (Throwable e)
+			{
+				throw new InvocationTargetException( e );
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Reads the value of a property from a bean.
+ * The accessors are created once for each getter by an {@link AccessorFactory}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public interface PropertyAccessor 
+{
+	/**
+	 * Read the property from the given bean.
+	 * @param bean The bean owning the property.
+	 * @return The value of the property.
+	 * 
+	 * @throws IllegalAccessException If the getter is not accessible.
+	 * @throws InvocationTargetException If the getter throws an exception.
+	 */
+	public Object get( Object bean ) throws IllegalAccessException, InvocationTargetException;
+}
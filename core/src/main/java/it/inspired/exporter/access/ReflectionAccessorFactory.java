@@ -0,0 +1,54 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates accessors calling the getter through {@link Method#invoke(Object, Object...)}.
+ * It works for any getter and it is used as fallback by the other factories.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ReflectionAccessorFactory implements AccessorFactory
+{
+	public PropertyAccessor create( Method getter ) 
+	{
+		return new ReflectionAccessor( getter );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class ReflectionAccessor implements PropertyAccessor
+	{
+		private final Method getter;
+		
+		private ReflectionAccessor( Method getter ) 
+		{
+			this.getter = getter;
+		}
+		
+		public Object get( Object bean ) throws IllegalAccessException, InvocationTargetException 
+		{
+			return getter.invoke( bean );
+		}
+	}
+}
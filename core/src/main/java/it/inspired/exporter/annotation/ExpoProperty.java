@@ -51,7 +51,9 @@ public @interface ExpoProperty {
 	public int position() default Integer.MAX_VALUE;
 	
 	/*
-	 * Used to format value
+	 * Used to format value, the pattern of dates and times follows java.time.format.DateTimeFormatter 
+	 * and the pattern of numbers follows java.text.DecimalFormat (eg. "dd/MM/yyyy" or "#,##0.00").
+	 * The Excel cells use the pattern translated into an Excel data format.
 	 */
 	public String format() default "";
 	
@@ -0,0 +1,202 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.async;
+
+import it.inspired.exporter.Exporter;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An export running in background, see {@link Exporter#exportAsync(Iterable, OutputStream, java.util.concurrent.Executor)}.
+ * The job initializes the exporter, exports the objects, completes the export and writes it to the output,
+ * then it completes with the number of exported rows. When the export fails the resources 
+ * of the exporter are released before the job completes with the failure.
+ * <p>
+ * Cancelling the job stops the export before the next object is exported, then the resources 
+ * of the exporter are released. The future is completed as soon as it is cancelled, 
+ * while the export stops in its own thread shortly after.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportJob extends CompletableFuture<Long> implements Runnable
+{
+	private final Exporter 		exporter;
+	private final Iterator<?> 	items;
+	private final long 			totalRows;
+	private final OutputStream 	output;
+	
+	private volatile boolean 	cancelled 	= false;
+	private volatile boolean 	started 	= false;
+	
+	/**
+	 * @param exporter The exporter, it must not be used by other threads while the job runs.
+	 * @param items The objects to export.
+	 * @param totalRows The number of objects to export or -1 if unknown.
+	 * @param output The output where the export is written, it is not closed. It must be null, or the attached
+	 *                 output itself, if the exporter streams to an attached output, see {@link Exporter#isOutputAttached()}.
+	 * 
+	 * @throws IllegalArgumentException If the output is null and the exporter has no attached output.
+	 */
+	public ExportJob( Exporter exporter, Iterator<?> items, long totalRows, OutputStream output )
+	{
+		if ( output == null && !exporter.isOutputAttached() )
+		{
+			throw new IllegalArgumentException( "The output is required when the exporter has no attached output" );
+		}
+		this.exporter 	= exporter;
+		this.items 		= items;
+		this.totalRows 	= totalRows;
+		this.output 	= output;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public void run() 
+	{
+		if ( isDone() )
+		{
+			return;
+		}
+		started = true;
+		try
+		{
+			exporter.init();
+			exporter.export( new CancellableIterator( items ) );
+			checkCancelled();
+			exporter.finalyze();
+			checkCancelled();
+			exporter.write( output );
+		}
+		catch (Throwable e)
+		{
+			try
+			{
+				exporter.dispose();
+			}
+			finally
+			{
+				completeExceptionally( e );
+			}
+			return;
+		}
+		complete( exporter.getRowsWritten() );
+	}
+	
+	/**
+	 * Request the export to stop, the exported data are discarded.
+	 * @param mayInterruptIfRunning Ignored, the export stops checking the request before each object.
+	 * @return True if the job is cancelled.
+	 */
+	@Override
+	public boolean cancel( boolean mayInterruptIfRunning ) 
+	{
+		cancelled = true;
+		return super.cancel( mayInterruptIfRunning );
+	}
+	
+	private void checkCancelled()
+	{
+		if ( cancelled )
+		{
+			throw new CancellationException( "Export cancelled" );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return True if the job has been cancelled.
+	 */
+	public boolean isCancellationRequested() {
+		return cancelled;
+	}
+	
+	/**
+	 * @return True if the job has started to run.
+	 */
+	public boolean isStarted() {
+		return started;
+	}
+	
+	/**
+	 * @return The number of rows written so far.
+	 */
+	public long getRowsDone() {
+		return ( started ? exporter.getRowsWritten() : 0 );
+	}
+	
+	/**
+	 * @return The number of objects to export or -1 if unknown.
+	 */
+	public long getTotalRows() {
+		return totalRows;
+	}
+	
+	/**
+	 * Return the ratio of the exported rows.
+	 * @return The progress between 0 and 1, -1 if the number of objects to export is unknown.
+	 */
+	public double getProgress() 
+	{
+		if ( isDone() && !isCompletedExceptionally() )
+		{
+			return 1;
+		}
+		if ( totalRows < 0 )
+		{
+			return -1;
+		}
+		return ( totalRows == 0 ? 0 : Math.min( 1, (double) getRowsDone() / totalRows ) );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Stops the iteration when the job is cancelled.
+	 */
+	private class CancellableIterator implements Iterator<Object>
+	{
+		private final Iterator<?> items;
+		
+		private CancellableIterator( Iterator<?> items )
+		{
+			this.items = items;
+		}
+		
+		public boolean hasNext() 
+		{
+			checkCancelled();
+			return items.hasNext();
+		}
+
+		public Object next() 
+		{
+			checkCancelled();
+			return items.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.format;
+
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Translates the patterns of the dates, see {@link java.time.format.DateTimeFormatter}, and of the numbers,
+ * see {@link java.text.DecimalFormat}, into Excel data formats.
+ * The quoted literals are enclosed in double quotes and the other literal characters are escaped.
+ * The date fields without an Excel equivalent, like the time zones or the week of the year, are dropped, 
+ * while the number patterns without an equivalent, like the per mille ones, are not translated.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class ExcelFormats 
+{
+	// Literal characters written without escaping
+	private static final String PLAIN = " -/:.,()";
+	
+	private ExcelFormats() {}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Translate the pattern of a date into an Excel data format.
+	 * @param pattern The pattern of {@link java.time.format.DateTimeFormatter}.
+	 * @return The data format.
+	 */
+	public static String date( String pattern )
+	{
+		StringBuilder out = new StringBuilder( pattern.length() + 8 );
+		boolean twelveHours = false;
+		boolean marker = false;
+		int i = 0;
+		while ( i < pattern.length() )
+		{
+			char c = pattern.charAt( i );
+			if ( c == '\'' )
+			{
+				i = quote( pattern, i, out );
+				continue;
+			}
+			if ( !isLetter( c ) )
+			{
+				literal( c, out );
+				i++;
+				continue;
+			}
+			
+			// The letters repeated make a single field
+			int count = 1;
+			while ( i + count < pattern.length() && pattern.charAt( i + count ) == c )
+			{
+				count++;
+			}
+			i += count;
+			switch ( c )
+			{
+				case 'y':
+				case 'u':
+				case 'Y':
+					out.append( count == 2 ? "yy" : "yyyy" );
+					break;
+				case 'M':
+				case 'L':
+					out.append( count == 1 ? "m" : count == 2 ? "mm" : count == 3 ? "mmm" : "mmmm" );
+					break;
+				case 'd':
+					out.append( count == 1 ? "d" : "dd" );
+					break;
+				case 'E':
+					out.append( count < 4 ? "ddd" : "dddd" );
+					break;
+				case 'H':
+				case 'k':
+					out.append( count == 1 ? "h" : "hh" );
+					break;
+				case 'h':
+				case 'K':
+					twelveHours = true;
+					out.append( count == 1 ? "h" : "hh" );
+					break;
+				case 'm':
+					out.append( count == 1 ? "m" : "mm" );
+					break;
+				case 's':
+					out.append( count == 1 ? "s" : "ss" );
+					break;
+				case 'S':
+					// Excel shows at most the milliseconds
+					out.append( "000".substring( 0, Math.min( count, 3 ) ) );
+					break;
+				case 'a':
+					marker = true;
+					out.append( "AM/PM" );
+					break;
+				default:
+					// No Excel equivalent
+					break;
+			}
+		}
+		if ( twelveHours && !marker )
+		{
+			// Without the marker Excel shows the hours of the day
+			out.append( " AM/PM" );
+		}
+		return out.toString();
+	}
+	
+	/**
+	 * Translate the pattern of a number into an Excel data format.
+	 * @param pattern The pattern of {@link java.text.DecimalFormat}.
+	 * @param locale The locale of the currency symbol.
+	 * @return The data format or null if the pattern can not be translated.
+	 */
+	public static String number( String pattern, Locale locale )
+	{
+		StringBuilder out = new StringBuilder( pattern.length() + 8 );
+		int i = 0;
+		while ( i < pattern.length() )
+		{
+			char c = pattern.charAt( i );
+			switch ( c )
+			{
+				case '\'':
+					i = quote( pattern, i, out );
+					continue;
+				case '0':
+				case '#':
+				case ',':
+				case '.':
+				case ';':
+				case '%':
+				case '-':
+					out.append( c );
+					break;
+				case 'E':
+					// Excel requires the sign of the exponent
+					out.append( "E+" );
+					break;
+				case '\u00a4':
+					boolean code = ( i + 1 < pattern.length() && pattern.charAt( i + 1 ) == '\u00a4' );
+					if ( code )
+					{
+						i++;
+					}
+					String symbol = currency( locale, code );
+					if ( symbol == null )
+					{
+						return null;
+					}
+					text( symbol, out );
+					break;
+				case '\u2030':
+					// Excel can not multiply by one thousand
+					return null;
+				default:
+					literal( c, out );
+					break;
+			}
+			i++;
+		}
+		return out.toString();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static boolean isLetter( char c )
+	{
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' );
+	}
+	
+	/**
+	 * Copy the literal starting at the given quote, two quotes are a single quote.
+	 * @return The position following the closing quote.
+	 */
+	private static int quote( String pattern, int start, StringBuilder out )
+	{
+		StringBuilder text = new StringBuilder();
+		int i = start + 1;
+		if ( i < pattern.length() && pattern.charAt( i ) == '\'' )
+		{
+			out.append( "\\'" );
+			return i + 1;
+		}
+		while ( i < pattern.length() )
+		{
+			char c = pattern.charAt( i++ );
+			if ( c != '\'' )
+			{
+				text.append( c );
+			}
+			else if ( i < pattern.length() && pattern.charAt( i ) == '\'' )
+			{
+				text.append( c );
+				i++;
+			}
+			else
+			{
+				break;
+			}
+		}
+		text( text, out );
+		return i;
+	}
+	
+	private static void text( CharSequence text, StringBuilder out )
+	{
+		if ( text.length() == 0 )
+		{
+			return;
+		}
+		out.append( '"' );
+		for ( int i = 0; i < text.length(); i++ )
+		{
+			char c = text.charAt( i );
+			// The double quotes can not be enclosed
+			if ( c == '"' )
+			{
+				out.append( "\"\\\"\"" );
+			}
+			else
+			{
+				out.append( c );
+			}
+		}
+		out.append( '"' );
+	}
+	
+	private static void literal( char c, StringBuilder out )
+	{
+		if ( PLAIN.indexOf( c ) < 0 )
+		{
+			out.append( '\\' );
+		}
+		out.append( c );
+	}
+	
+	private static String currency( Locale locale, boolean code )
+	{
+		try
+		{
+			Currency currency = Currency.getInstance( locale );
+			return ( code ? currency.getCurrencyCode() : currency.getSymbol( locale ) );
+		}
+		catch (IllegalArgumentException e)
+		{
+			// The locale has no country
+			return null;
+		}
+	}
+}
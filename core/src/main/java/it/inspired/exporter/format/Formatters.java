@@ -0,0 +1,124 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.format;
+
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread safe registry of the {@link ValueFormatter} compiled for each pattern, 
+ * the formatters share the locale and the time zone of the registry.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class Formatters 
+{
+	private final Locale locale;
+	private final ZoneId zone;
+	
+	private final ConcurrentMap<String,ValueFormatter> formatters = new ConcurrentHashMap<String,ValueFormatter>();
+	
+	/**
+	 * Create the registry using the default locale and time zone.
+	 */
+	public Formatters()
+	{
+		this( Locale.getDefault(), ZoneId.systemDefault() );
+	}
+	
+	/**
+	 * Create the registry using the given locale and time zone.
+	 * @param locale The locale of the names of months and days and of the number symbols.
+	 * @param zone The time zone of the dates and instants.
+	 */
+	public Formatters( Locale locale, ZoneId zone )
+	{
+		this.locale = locale;
+		this.zone 	= zone;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the formatter of the given pattern, compiling it the first time it is requested.
+	 * @param pattern The pattern of the values.
+	 * @return The formatter.
+	 */
+	public ValueFormatter get( String pattern )
+	{
+		ValueFormatter formatter = formatters.get( pattern );
+		if ( formatter == null )
+		{
+			formatter = new ValueFormatter( pattern, locale, zone );
+			ValueFormatter existing = formatters.putIfAbsent( pattern, formatter );
+			if ( existing != null )
+			{
+				formatter = existing;
+			}
+		}
+		return formatter;
+	}
+	
+	/**
+	 * Check if the value is formatted as a date, both {@link Date}, {@link Calendar} 
+	 * and the java.time dates and times.
+	 * @param value The value to check.
+	 * @return True if the value is a date or a time.
+	 */
+	public static boolean isDate( Object value )
+	{
+		return value instanceof Date || value instanceof Calendar || ValueFormatter.isDateTime( value );
+	}
+	
+	/**
+	 * Convert the date into a {@link Date}, the java.time local values are in the time zone of the registry.
+	 * @param value The value to convert, see {@link #isDate(Object)}.
+	 * @return The date or null if the value is not a date.
+	 */
+	public Date toDate( Object value )
+	{
+		if ( value instanceof Date )
+		{
+			return (Date) value;
+		}
+		if ( value instanceof Calendar )
+		{
+			return ( (Calendar) value ).getTime();
+		}
+		if ( ValueFormatter.isDateTime( value ) )
+		{
+			return ValueFormatter.toDate( (TemporalAccessor) value, zone );
+		}
+		return null;
+	}
+	
+	public Locale getLocale() {
+		return locale;
+	}
+	
+	public ZoneId getZone() {
+		return zone;
+	}
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Thread safe formatter of the values exported with the same pattern.
+ * The pattern is compiled once, the first time a date or a number is formatted: the dates, 
+ * both {@link Date} and java.time types, are formatted using an immutable {@link DateTimeFormatter} 
+ * and the numbers using a {@link DecimalFormat} per thread. Any other value is converted using toString.
+ * The text of the last dates formatted is cached, so that repeated timestamps are rendered once.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class ValueFormatter 
+{
+	// Number of rendered dates cached, must be a power of two
+	private static final int CACHE_SIZE = 256;
+	
+	private final String 	pattern;
+	private final Locale 	locale;
+	private final ZoneId 	zone;
+	
+	// Compiled when the first date or number is formatted
+	private volatile DateTimeFormatter 			dateFormatter;
+	private volatile ThreadLocal<DecimalFormat> numberFormatter;
+	
+	// Rendered dates, each entry is immutable so that the cache can be read without locking 
+	private final Rendered[] rendered = new Rendered[ CACHE_SIZE ];
+	
+	ValueFormatter( String pattern, Locale locale, ZoneId zone )
+	{
+		this.pattern 	= pattern;
+		this.locale 	= locale;
+		this.zone 		= zone;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Format the given value.
+	 * @param value The value to format.
+	 * @return The formatted text, the empty string for null values.
+	 * 
+	 * @throws IllegalArgumentException If the pattern is not valid for the value.
+	 */
+	public String format( Object value )
+	{
+		if ( value == null )
+		{
+			return "";
+		}
+		if ( value instanceof Date )
+		{
+			return formatMillis( ( (Date) value ).getTime() );
+		}
+		if ( value instanceof Calendar )
+		{
+			return formatMillis( ( (Calendar) value ).getTimeInMillis() );
+		}
+		if ( isDateTime( value ) )
+		{
+			return formatTemporal( (TemporalAccessor) value );
+		}
+		if ( value instanceof Number )
+		{
+			return formatNumber( (Number) value );
+		}
+		return value.toString();
+	}
+	
+	public String getPattern() {
+		return pattern;
+	}
+	
+	/**
+	 * Check if the value is one of the java.time types formatted as a date or a time.
+	 * @param value The value to check.
+	 * @return True if the value is a date or a time.
+	 */
+	static boolean isDateTime( Object value )
+	{
+		return value instanceof LocalDate || value instanceof LocalDateTime || value instanceof LocalTime 
+				|| value instanceof Instant || value instanceof OffsetDateTime || value instanceof ZonedDateTime;
+	}
+	
+	/**
+	 * Convert the date or time into a {@link Date}, 
+	 * the dates start at midnight and the times are on the epoch day.
+	 * @param value The java.time value.
+	 * @param zone The time zone of the local values.
+	 * @return The date.
+	 */
+	static Date toDate( TemporalAccessor value, ZoneId zone )
+	{
+		if ( value instanceof Instant )
+		{
+			return new Date( ( (Instant) value ).toEpochMilli() );
+		}
+		return Date.from( ZonedDateTime.from( toDateTime( value, zone ) ).toInstant() );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private String formatMillis( long millis )
+	{
+		int index = (int) ( millis ^ ( millis >>> 32 ) ) & ( CACHE_SIZE - 1 );
+		Rendered entry = rendered[index];
+		if ( entry != null && entry.key == null && entry.millis == millis )
+		{
+			return entry.text;
+		}
+		String text = getDateFormatter().format( Instant.ofEpochMilli( millis ).atZone( zone ) );
+		rendered[index] = new Rendered( null, millis, text );
+		return text;
+	}
+	
+	private String formatTemporal( TemporalAccessor value )
+	{
+		int index = value.hashCode() & ( CACHE_SIZE - 1 );
+		Rendered entry = rendered[index];
+		if ( entry != null && value.equals( entry.key ) )
+		{
+			return entry.text;
+		}
+		String text = getDateFormatter().format( toDateTime( value, zone ) );
+		rendered[index] = new Rendered( value, 0, text );
+		return text;
+	}
+	
+	/**
+	 * Complete the value with the fields required by any pattern: the dates start at midnight,
+	 * the times are on the epoch day and the instants are in the zone of the formatter.
+	 */
+	private static TemporalAccessor toDateTime( TemporalAccessor value, ZoneId zone )
+	{
+		if ( value instanceof LocalDate )
+		{
+			return ( (LocalDate) value ).atStartOfDay( zone );
+		}
+		if ( value instanceof LocalDateTime )
+		{
+			return ( (LocalDateTime) value ).atZone( zone );
+		}
+		if ( value instanceof LocalTime )
+		{
+			return ( (LocalTime) value ).atDate( LocalDate.ofEpochDay( 0 ) ).atZone( zone );
+		}
+		if ( value instanceof Instant )
+		{
+			return ( (Instant) value ).atZone( zone );
+		}
+		if ( value instanceof OffsetDateTime )
+		{
+			return ( (OffsetDateTime) value ).toZonedDateTime();
+		}
+		return value;
+	}
+	
+	private String formatNumber( Number value )
+	{
+		DecimalFormat format = getNumberFormatter().get();
+		if ( value instanceof BigDecimal || value instanceof BigInteger )
+		{
+			return format.format( value );
+		}
+		if ( value instanceof Double || value instanceof Float )
+		{
+			return format.format( value.doubleValue() );
+		}
+		return format.format( value.longValue() );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private DateTimeFormatter getDateFormatter()
+	{
+		DateTimeFormatter formatter = dateFormatter;
+		if ( formatter == null )
+		{
+			formatter = DateTimeFormatter.ofPattern( pattern, locale );
+			dateFormatter = formatter;
+		}
+		return formatter;
+	}
+	
+	private ThreadLocal<DecimalFormat> getNumberFormatter()
+	{
+		ThreadLocal<DecimalFormat> formatter = numberFormatter;
+		if ( formatter == null )
+		{
+			// The pattern is validated once, each thread uses its own copy
+			final DecimalFormat prototype = new DecimalFormat( pattern, DecimalFormatSymbols.getInstance( locale ) );
+			formatter = new ThreadLocal<DecimalFormat>() {
+				@Override
+				protected DecimalFormat initialValue() {
+					return (DecimalFormat) prototype.clone();
+				}
+			};
+			numberFormatter = formatter;
+		}
+		return formatter;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static final class Rendered
+	{
+		private final Object 	key;
+		private final long 		millis;
+		private final String 	text;
+		
+		private Rendered( Object key, long millis, String text )
+		{
+			this.key 	= key;
+			this.millis = millis;
+			this.text 	= text;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.handler;
+
+import it.inspired.exporter.format.Formatters;
+
+/**
+ * The settings of the exporter used by the {@link ValueHandler} to write the values.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ValueContext 
+{
+	private final Formatters 	formatters;
+	private final String 		dateFormat;
+	
+	/**
+	 * @param formatters The formatters of the exporter.
+	 * @param dateFormat The pattern of the dates without a declared format.
+	 */
+	public ValueContext( Formatters formatters, String dateFormat )
+	{
+		this.formatters = formatters;
+		this.dateFormat = dateFormat;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Format the value using the given pattern.
+	 * @param value The value to format.
+	 * @param pattern The pattern of the value.
+	 * @return The formatted value.
+	 */
+	public String format( Object value, String pattern )
+	{
+		return formatters.get( pattern ).format( value );
+	}
+	
+	public Formatters getFormatters() {
+		return formatters;
+	}
+	
+	public String getDateFormat() {
+		return dateFormat;
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.handler;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Writes the values of a type, the handler of a class is resolved by {@link ValueHandlers}.
+ * The handlers are shared by all the exporters so they must be stateless.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public interface ValueHandler 
+{
+	/**
+	 * Write the value into the Excel cell using the native type of the cell.
+	 * @param cell The cell to write.
+	 * @param value The value to write, never null.
+	 * @param context The settings of the exporter.
+	 */
+	public void setCell( Cell cell, Object value, ValueContext context );
+	
+	/**
+	 * Return the text of the value.
+	 * @param value The value to write, never null.
+	 * @param format The pattern declared by the property, can be null.
+	 * @param context The settings of the exporter.
+	 * @return The text of the value.
+	 */
+	public String toText( Object value, String format, ValueContext context );
+	
+	/**
+	 * Append the text of the value, by default the text returned by {@link #toText(Object, String, ValueContext)}.
+	 * The handlers of the numbers and of the booleans append the value without creating a string.
+	 * @param out The buffer where the text is appended.
+	 * @param value The value to write, never null.
+	 * @param format The pattern declared by the property, can be null.
+	 * @param context The settings of the exporter.
+	 */
+	public default void appendText( StringBuilder out, Object value, String format, ValueContext context ) {
+		out.append( toText( value, format, context ) );
+	}
+	
+	/**
+	 * Return the Excel data format of the values.
+	 * @param format The pattern declared by the property, can be null.
+	 * @param context The settings of the exporter.
+	 * @return The data format or null if the values have no format.
+	 */
+	public String getDataFormat( String format, ValueContext context );
+}
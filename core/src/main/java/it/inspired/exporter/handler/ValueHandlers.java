@@ -0,0 +1,478 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.handler;
+
+import it.inspired.exporter.format.ExcelFormats;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Thread safe registry of the {@link ValueHandler} of each type.
+ * The handler of a class is the one registered for the class itself, for the nearest superclass
+ * or for one of its interfaces, it is resolved the first time the class is requested and then cached.
+ * <p>
+ * The handlers for the strings, the numbers, the booleans, the enums, the dates and the java.time 
+ * dates and times are registered by default. Anyway only the primitive types, String, Integer, Long, 
+ * Double, BigDecimal, Boolean, Date and Timestamp, and the classes handled by the handlers registered 
+ * by {@link #register(Class, ValueHandler)}, are exported as values in a single cell: the properties 
+ * of the other classes are exported as entities on their own, unless {@link #setAllValueTypes(boolean)}
+ * makes values all the classes having a handler. 
+ * Registering a handler or changing the option changes the version of the registry,
+ * so the cached export plans deciding which properties are values are built again.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ValueHandlers 
+{
+	// Wrapper of the primitive types
+	private static final Map<Class<?>,Class<?>> wrappers = new HashMap<Class<?>,Class<?>>();
+	
+	// Classes always exported as values
+	private static final Set<Class<?>> basicTypes = new HashSet<Class<?>>( Arrays.<Class<?>>asList( 
+			Integer.class, Double.class, String.class, Date.class, Boolean.class, BigDecimal.class, Timestamp.class, Long.class ) );
+	static
+	{
+		wrappers.put( boolean.class, Boolean.class );
+		wrappers.put( byte.class, Byte.class );
+		wrappers.put( char.class, Character.class );
+		wrappers.put( short.class, Short.class );
+		wrappers.put( int.class, Integer.class );
+		wrappers.put( long.class, Long.class );
+		wrappers.put( float.class, Float.class );
+		wrappers.put( double.class, Double.class );
+	}
+	
+	/**
+	 * Handler of the strings, the values are written as text.
+	 */
+	public static final ValueHandler TEXT = new TextHandler();
+	
+	/**
+	 * Handler of the booleans.
+	 */
+	public static final ValueHandler BOOLEAN = new BooleanHandler();
+	
+	/**
+	 * Handler of the integer numbers.
+	 */
+	public static final ValueHandler INTEGER = new NumberHandler( "0" );
+	
+	/**
+	 * Handler of the decimal numbers.
+	 */
+	public static final ValueHandler DECIMAL = new NumberHandler( "0.00" );
+	
+	/**
+	 * Handler of the {@link Date}, {@link Calendar} and java.time values.
+	 */
+	public static final ValueHandler DATE = new DateHandler();
+	
+	// Handler of the classes not registered, the values are written as text
+	private static final ValueHandler DEFAULT = new TextHandler();
+	
+	// Initialized after the handlers it registers
+	private static final ValueHandlers shared = new ValueHandlers();
+	
+	private final Map<Class<?>,ValueHandler> handlers = new HashMap<Class<?>,ValueHandler>();
+	
+	// Classes of the handlers registered by the application
+	private final Set<Class<?>> registered = new HashSet<Class<?>>();
+	
+	// Replaced when a handler is registered so the classes are resolved again
+	private volatile ClassValue<ValueHandler> 	resolved 	= newCache();
+	private volatile ClassValue<Boolean> 		values 		= newValueCache();
+	
+	// True if all the classes having a handler are values
+	private volatile boolean allValueTypes = false;
+	
+	// Incremented when a handler is registered
+	private volatile int version = 0;
+	
+	/**
+	 * Create a registry with the default handlers.
+	 */
+	public ValueHandlers()
+	{
+		handlers.put( String.class, TEXT );
+		handlers.put( Character.class, TEXT );
+		handlers.put( Enum.class, TEXT );
+		handlers.put( Boolean.class, BOOLEAN );
+		
+		handlers.put( Byte.class, INTEGER );
+		handlers.put( Short.class, INTEGER );
+		handlers.put( Integer.class, INTEGER );
+		handlers.put( Long.class, INTEGER );
+		handlers.put( BigInteger.class, INTEGER );
+		handlers.put( Float.class, new FloatHandler() );
+		handlers.put( Double.class, DECIMAL );
+		handlers.put( BigDecimal.class, new NumberHandler( "#,##0.0000" ) );
+		handlers.put( Number.class, new NumberHandler( null ) );
+		
+		handlers.put( Date.class, DATE );
+		handlers.put( Calendar.class, DATE );
+		handlers.put( LocalDate.class, DATE );
+		handlers.put( LocalDateTime.class, DATE );
+		handlers.put( LocalTime.class, DATE );
+		handlers.put( ZonedDateTime.class, DATE );
+		handlers.put( OffsetDateTime.class, DATE );
+		handlers.put( Instant.class, DATE );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The registry used by the exporters.
+	 */
+	public static ValueHandlers getShared() {
+		return shared;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Register the handler of the given type, the handler is used for its subclasses too
+	 * unless a more specific handler is registered.
+	 * @param type The class or the interface handled.
+	 * @param handler The handler of the values.
+	 */
+	public void register( Class<?> type, ValueHandler handler )
+	{
+		if ( type == null || handler == null )
+		{
+			throw new IllegalArgumentException( "Type and handler are required" );
+		}
+		synchronized ( handlers ) 
+		{
+			handlers.put( type, handler );
+			registered.add( type );
+			resolved = newCache();
+			values 	 = newValueCache();
+			version++;
+		}
+	}
+	
+	/**
+	 * Return the handler of the given class.
+	 * @param type The class of the values.
+	 * @return The handler of the class or the default handler writing the values as text.
+	 */
+	public ValueHandler get( Class<?> type )
+	{
+		return resolved.get( type );
+	}
+	
+	/**
+	 * Return the version of the registry, changed each time a handler is registered.
+	 * The structures built checking which classes are values must be built again when the version changes.
+	 * @return The version.
+	 */
+	public int getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Check if the values of the class are written in a single cell: the primitive types and 
+	 * their usual wrappers, the strings, the dates and the classes handled by a registered handler.
+	 * All the classes having a handler are values if {@link #setAllValueTypes(boolean)} is enabled.
+	 * @param type The class to check.
+	 * @return True if the class is a value.
+	 */
+	public boolean isValueType( Class<?> type )
+	{
+		return type.isPrimitive() || values.get( type );
+	}
+	
+	/**
+	 * @return True if all the classes having a handler are values.
+	 */
+	public boolean isAllValueTypes() {
+		return allValueTypes;
+	}
+	
+	/**
+	 * Make values all the classes having a handler, including the handlers registered by default
+	 * for enums, Float, Short, Byte, Character, BigInteger, Calendar, the subclasses of Date 
+	 * and the java.time types, that by default are exported as entities on their own.
+	 * Changing the option changes the version of the registry.
+	 * @param allValueTypes The option to set.
+	 */
+	public void setAllValueTypes( boolean allValueTypes )
+	{
+		synchronized ( handlers ) 
+		{
+			if ( this.allValueTypes != allValueTypes )
+			{
+				this.allValueTypes = allValueTypes;
+				values = newValueCache();
+				version++;
+			}
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private ClassValue<ValueHandler> newCache()
+	{
+		return new ClassValue<ValueHandler>() {
+			@Override
+			protected ValueHandler computeValue( Class<?> type ) {
+				synchronized ( handlers ) 
+				{
+					return resolve( type );
+				}
+			}
+		};
+	}
+	
+	private ClassValue<Boolean> newValueCache()
+	{
+		return new ClassValue<Boolean>() {
+			@Override
+			protected Boolean computeValue( Class<?> type ) {
+				if ( basicTypes.contains( type ) )
+				{
+					return Boolean.TRUE;
+				}
+				synchronized ( handlers ) 
+				{
+					Class<?> handled = resolveType( type );
+					return handled != null && ( allValueTypes || registered.contains( handled ) );
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Return the handler of the class found by {@link #resolveType(Class)}.
+	 * @param type The class of the values.
+	 * @return The handler found or the default one.
+	 */
+	private ValueHandler resolve( Class<?> type )
+	{
+		Class<?> handled = resolveType( type );
+		return ( handled != null ? handlers.get( handled ) : DEFAULT );
+	}
+	
+	/**
+	 * Search the handler of the class, then of the superclasses and at last of the interfaces.
+	 * @param type The class of the values.
+	 * @return The class or the interface the handler is registered for, null if not found.
+	 */
+	private Class<?> resolveType( Class<?> type )
+	{
+		if ( type.isPrimitive() )
+		{
+			type = wrappers.get( type );
+		}
+		for ( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass() )
+		{
+			if ( handlers.containsKey( c ) )
+			{
+				return c;
+			}
+		}
+		
+		// Interfaces in breadth first order so the nearest one is found first
+		Set<Class<?>> visited = new HashSet<Class<?>>();
+		Deque<Class<?>> queue = new ArrayDeque<Class<?>>();
+		for ( Class<?> c = type; c != null; c = c.getSuperclass() )
+		{
+			Collections.addAll( queue, c.getInterfaces() );
+		}
+		while ( !queue.isEmpty() )
+		{
+			Class<?> c = queue.poll();
+			if ( visited.add( c ) )
+			{
+				if ( handlers.containsKey( c ) )
+				{
+					return c;
+				}
+				Collections.addAll( queue, c.getInterfaces() );
+			}
+		}
+		return null;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class TextHandler implements ValueHandler
+	{
+		@Override
+		public void setCell( Cell cell, Object value, ValueContext context ) {
+			cell.setCellValue( value.toString() );
+		}
+
+		@Override
+		public String toText( Object value, String format, ValueContext context ) {
+			return value.toString();
+		}
+		
+		@Override
+		public void appendText( StringBuilder out, Object value, String format, ValueContext context ) {
+			if ( value instanceof CharSequence )
+			{
+				out.append( (CharSequence) value );
+			}
+			else if ( value instanceof Character )
+			{
+				out.append( ( (Character) value ).charValue() );
+			}
+			else
+			{
+				out.append( value.toString() );
+			}
+		}
+
+		@Override
+		public String getDataFormat( String format, ValueContext context ) {
+			return null;
+		}
+	}
+	
+	private static class BooleanHandler extends TextHandler
+	{
+		@Override
+		public void setCell( Cell cell, Object value, ValueContext context ) {
+			cell.setCellValue( ( (Boolean) value ).booleanValue() );
+		}
+		
+		@Override
+		public void appendText( StringBuilder out, Object value, String format, ValueContext context ) {
+			out.append( ( (Boolean) value ).booleanValue() );
+		}
+	}
+	
+	private static class NumberHandler implements ValueHandler
+	{
+		private final String dataFormat;
+		
+		private NumberHandler( String dataFormat )
+		{
+			this.dataFormat = dataFormat;
+		}
+		
+		@Override
+		public void setCell( Cell cell, Object value, ValueContext context ) {
+			cell.setCellValue( ( (Number) value ).doubleValue() );
+		}
+
+		@Override
+		public String toText( Object value, String format, ValueContext context ) {
+			return ( format != null ? context.format( value, format ) : value.toString() );
+		}
+		
+		/**
+		 * The primitive wrappers are appended as toString would render them, without creating the string.
+		 */
+		@Override
+		public void appendText( StringBuilder out, Object value, String format, ValueContext context ) {
+			if ( format != null )
+			{
+				out.append( context.format( value, format ) );
+			}
+			else if ( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte )
+			{
+				out.append( ( (Number) value ).longValue() );
+			}
+			else if ( value instanceof Double )
+			{
+				out.append( ( (Double) value ).doubleValue() );
+			}
+			else if ( value instanceof Float )
+			{
+				out.append( ( (Float) value ).floatValue() );
+			}
+			else
+			{
+				out.append( value.toString() );
+			}
+		}
+
+		/**
+		 * The declared pattern is translated into an Excel format, 
+		 * the default format is used if the pattern has no Excel equivalent.
+		 */
+		@Override
+		public String getDataFormat( String format, ValueContext context ) {
+			if ( format == null )
+			{
+				return dataFormat;
+			}
+			String excelFormat = ExcelFormats.number( format, context.getFormatters().getLocale() );
+			return ( excelFormat != null ? excelFormat : dataFormat );
+		}
+	}
+	
+	private static class FloatHandler extends NumberHandler
+	{
+		private FloatHandler()
+		{
+			super( "0.00" );
+		}
+		
+		/**
+		 * The float is widened from its decimal representation, so 0.1f is written as 0.1 
+		 * and not as 0.10000000149011612.
+		 */
+		@Override
+		public void setCell( Cell cell, Object value, ValueContext context ) {
+			cell.setCellValue( Double.parseDouble( value.toString() ) );
+		}
+	}
+	
+	private static class DateHandler implements ValueHandler
+	{
+		@Override
+		public void setCell( Cell cell, Object value, ValueContext context ) {
+			cell.setCellValue( context.getFormatters().toDate( value ) );
+		}
+
+		@Override
+		public String toText( Object value, String format, ValueContext context ) {
+			return context.format( value, format != null ? format : context.getDateFormat() );
+		}
+
+		@Override
+		public String getDataFormat( String format, ValueContext context ) {
+			return ExcelFormats.date( format != null ? format : context.getDateFormat() );
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.i18n;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Thread safe cache of the texts converted from the exported values, the entries are 
+ * identified by the prefix of the key, the value and the locale so that the key is built 
+ * and resolved only the first time a value is exported.
+ * The cache is bounded, the least recently used texts are evicted when the maximum size is reached.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class TextCache 
+{
+	/*
+	 * Default maximum number of cached texts
+	 */
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	
+	/*
+	 * Placeholder for the null texts
+	 */
+	private static final String NULL = new String();
+	
+	private final Map<Key,String> texts;
+	
+	private long hits 	= 0;
+	private long misses = 0;
+	
+	/**
+	 * Create a cache holding at most {@value #DEFAULT_MAX_SIZE} texts.
+	 */
+	public TextCache()
+	{
+		this( DEFAULT_MAX_SIZE );
+	}
+	
+	/**
+	 * Create a cache holding at most the given number of texts.
+	 * @param maxSize The maximum number of texts.
+	 */
+	public TextCache( final int maxSize )
+	{
+		if ( maxSize < 1 )
+		{
+			throw new IllegalArgumentException( "The maximum size must be positive" );
+		}
+		this.texts = new LinkedHashMap<Key,String>( 16, 0.75f, true ) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Key,String> eldest ) {
+				return size() > maxSize;
+			}
+		};
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return the text of the key made of prefix and value, resolving it if not cached.
+	 * The resolver is called without holding the lock of the cache.
+	 * @param prefix The prefix of the key, can be null.
+	 * @param value The value completing the key.
+	 * @param locale The locale of the text.
+	 * @param resolver The resolver converting the key into text.
+	 * @return The text.
+	 */
+	public String getText( String prefix, Object value, Locale locale, TextResolver resolver )
+	{
+		Key key = new Key( prefix, value, locale );
+		String text;
+		synchronized ( this ) 
+		{
+			text = texts.get( key );
+			if ( text != null )
+			{
+				hits++;
+				return ( text == NULL ? null : text );
+			}
+			misses++;
+		}
+		text = resolver.getText( key.toString() );
+		synchronized ( this ) 
+		{
+			texts.put( key, ( text == null ? NULL : text ) );
+		}
+		return text;
+	}
+	
+	/**
+	 * Resolve and cache the texts of the given values, eg. all the codes of a status column,
+	 * before starting the export.
+	 * @param prefix The prefix of the keys.
+	 * @param values The values completing the keys.
+	 * @param locale The locale of the texts.
+	 * @param resolver The resolver converting the keys into texts.
+	 */
+	public void preload( String prefix, Iterable<?> values, Locale locale, TextResolver resolver )
+	{
+		for ( Object value : values )
+		{
+			Key key = new Key( prefix, value, locale );
+			String text = resolver.getText( key.toString() );
+			synchronized ( this ) 
+			{
+				texts.put( key, ( text == null ? NULL : text ) );
+			}
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Remove all the texts, eg. when the messages are reloaded.
+	 */
+	public synchronized void clear() {
+		texts.clear();
+	}
+	
+	public synchronized int size() {
+		return texts.size();
+	}
+	
+	/**
+	 * @return The number of texts found in the cache.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return The number of texts resolved since they were not cached.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * @return The ratio of the texts found in the cache, zero if no text has been requested.
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return ( total == 0 ? 0 : (double) hits / total );
+	}
+	
+	/**
+	 * Reset the counters of hits and misses.
+	 */
+	public synchronized void resetStatistics() {
+		hits 	= 0;
+		misses 	= 0;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static final class Key
+	{
+		private final String 	prefix;
+		private final Object 	value;
+		private final Locale 	locale;
+		private final int 		hash;
+		
+		private Key( String prefix, Object value, Locale locale )
+		{
+			this.prefix = prefix;
+			this.value 	= value;
+			this.locale = locale;
+			this.hash 	= 31 * ( 31 * hashCode( prefix ) + hashCode( value ) ) + hashCode( locale );
+		}
+		
+		private static int hashCode( Object obj ) {
+			return ( obj == null ? 0 : obj.hashCode() );
+		}
+		
+		private static boolean equals( Object a, Object b ) {
+			return ( a == null ? b == null : a.equals( b ) );
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals( Object obj ) {
+			if ( !( obj instanceof Key ) )
+			{
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && equals( prefix, other.prefix ) && equals( value, other.value ) && equals( locale, other.locale );
+		}
+		
+		/**
+		 * @return The key of the message
+		 */
+		@Override
+		public String toString() {
+			return ( prefix == null ? String.valueOf( value ) : prefix + value );
+		}
+	}
+}
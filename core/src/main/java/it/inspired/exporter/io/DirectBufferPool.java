@@ -0,0 +1,124 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread safe pool of direct byte buffers of the same size.
+ * Direct buffers are expensive to allocate and are released only when garbage collected, 
+ * so the buffers of the completed exports are kept to be reused by the next ones.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class DirectBufferPool 
+{
+	/**
+	 * Default size of the pooled buffers.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+	
+	private static final DirectBufferPool shared = new DirectBufferPool( DEFAULT_BUFFER_SIZE, 16 );
+	
+	private final int bufferSize;
+	private final int maxPooled;
+	
+	private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+	private final AtomicInteger 	pooled 	= new AtomicInteger();
+	
+	/**
+	 * Create the pool.
+	 * @param bufferSize The size of the buffers.
+	 * @param maxPooled The maximum number of buffers kept in the pool.
+	 */
+	public DirectBufferPool( int bufferSize, int maxPooled )
+	{
+		if ( bufferSize <= 0 )
+		{
+			throw new IllegalArgumentException( "The buffer size must be positive" );
+		}
+		this.bufferSize = bufferSize;
+		this.maxPooled 	= maxPooled;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The pool shared by the writers that do not define their own pool.
+	 */
+	public static DirectBufferPool getShared() {
+		return shared;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Return a cleared buffer taken from the pool or allocated if the pool is empty.
+	 * @return The buffer.
+	 */
+	public ByteBuffer acquire()
+	{
+		ByteBuffer buffer = buffers.poll();
+		if ( buffer == null )
+		{
+			return ByteBuffer.allocateDirect( bufferSize );
+		}
+		pooled.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+	
+	/**
+	 * Return the buffer to the pool, it is discarded if the pool is full.
+	 * The buffer must not be used after it is released.
+	 * @param buffer The buffer acquired from the pool.
+	 */
+	public void release( ByteBuffer buffer )
+	{
+		if ( buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize )
+		{
+			return;
+		}
+		if ( pooled.incrementAndGet() <= maxPooled )
+		{
+			buffers.offer( buffer );
+		}
+		else
+		{
+			pooled.decrementAndGet();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public int getBufferSize() {
+		return bufferSize;
+	}
+	
+	/**
+	 * @return The number of buffers available in the pool.
+	 */
+	public int getPooled() {
+		return pooled.get();
+	}
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer encoding the text directly into a file.
+ * The characters are encoded by a single {@link CharsetEncoder} into a pooled direct buffer 
+ * written through a {@link FileChannel}, so no intermediate array of bytes is created. 
+ * The file is not mapped in memory: a mapped region can not be released before it is garbage collected,
+ * keeping the address space pinned and preventing the file from being truncated on Windows.
+ * <p>
+ * Malformed and unmappable characters are replaced as done by {@link java.io.OutputStreamWriter}.
+ * The writer is not thread safe.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class FileChannelWriter extends Writer
+{
+	/**
+	 * Minimum size of the buffers, large enough to encode any character.
+	 */
+	public static final int MIN_BUFFER_SIZE = 16;
+	
+	private final FileChannel 		channel;
+	private final CharsetEncoder 	encoder;
+	private final DirectBufferPool 	pool;
+	
+	private ByteBuffer buffer;
+	
+	// Bytes written to the channel, excluding the ones in the buffer
+	private long written = 0;
+	
+	// High surrogate written at the end of the previous characters
+	private char 	pending;
+	private boolean hasPending = false;
+	
+	private boolean closed = false;
+	
+	/**
+	 * Create the writer replacing the file and using the shared pool of buffers.
+	 * @param file The file to write.
+	 * @param charset The charset used to encode the text.
+	 * 
+	 * @throws IOException If the file can not be opened.
+	 */
+	public FileChannelWriter( Path file, Charset charset ) throws IOException
+	{
+		this( FileChannel.open( file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING ), 
+			  charset, DirectBufferPool.getShared() );
+	}
+	
+	/**
+	 * Create the writer appending to the channel.
+	 * @param channel The channel where the text is written, it is closed with the writer.
+	 * @param charset The charset used to encode the text.
+	 * @param pool The pool of the buffers.
+	 */
+	public FileChannelWriter( FileChannel channel, Charset charset, DirectBufferPool pool )
+	{
+		if ( pool.getBufferSize() < MIN_BUFFER_SIZE )
+		{
+			throw new IllegalArgumentException( "The buffers must be at least " + MIN_BUFFER_SIZE + " bytes" );
+		}
+		this.channel 	= channel;
+		this.encoder 	= createEncoder( charset );
+		this.pool 		= pool;
+		this.buffer 	= pool.acquire();
+	}
+	
+	private static CharsetEncoder createEncoder( Charset charset )
+	{
+		return charset.newEncoder()
+				.onMalformedInput( CodingErrorAction.REPLACE )
+				.onUnmappableCharacter( CodingErrorAction.REPLACE );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Override
+	public void write( int c ) throws IOException 
+	{
+		write( CharBuffer.wrap( new char[] { (char) c } ) );
+	}
+	
+	@Override
+	public void write( char[] cbuf, int off, int len ) throws IOException 
+	{
+		write( CharBuffer.wrap( cbuf, off, len ) );
+	}
+	
+	@Override
+	public void write( String str, int off, int len ) throws IOException 
+	{
+		write( CharBuffer.wrap( str, off, off + len ) );
+	}
+	
+	@Override
+	public Writer append( CharSequence csq ) throws IOException 
+	{
+		write( CharBuffer.wrap( csq == null ? "null" : csq ) );
+		return this;
+	}
+	
+	@Override
+	public Writer append( CharSequence csq, int start, int end ) throws IOException 
+	{
+		write( CharBuffer.wrap( csq == null ? "null" : csq, start, end ) );
+		return this;
+	}
+	
+	/**
+	 * Write the encoded bytes to the channel.
+	 */
+	@Override
+	public void flush() throws IOException 
+	{
+		ensureOpen();
+		drain();
+	}
+	
+	/**
+	 * Write the remaining bytes and close the channel.
+	 */
+	@Override
+	public void close() throws IOException 
+	{
+		if ( closed )
+		{
+			return;
+		}
+		try
+		{
+			CharBuffer in = ( hasPending ? CharBuffer.wrap( new char[] { pending } ) : CharBuffer.allocate( 0 ) );
+			hasPending = false;
+			encode( in, true );
+			while ( encoder.flush( buffer ).isOverflow() )
+			{
+				drain();
+			}
+			drain();
+		}
+		finally
+		{
+			closed = true;
+			pool.release( buffer );
+			buffer = null;
+			channel.close();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The number of bytes written to the file.
+	 */
+	public long getBytesWritten() {
+		return written;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private void ensureOpen() throws IOException
+	{
+		if ( closed )
+		{
+			throw new IOException( "Writer closed" );
+		}
+	}
+	
+	private void write( CharBuffer in ) throws IOException
+	{
+		ensureOpen();
+		if ( hasPending )
+		{
+			if ( !in.hasRemaining() )
+			{
+				return;
+			}
+			// Complete the surrogate pair split between two writes
+			hasPending = false;
+			encode( CharBuffer.wrap( new char[] { pending, in.get() } ), false );
+		}
+		encode( in, false );
+	}
+	
+	/**
+	 * Encode the characters into the buffer, the buffer is written to the channel when full.
+	 * A trailing high surrogate is kept until the next characters are written.
+	 */
+	private void encode( CharBuffer in, boolean endOfInput ) throws IOException
+	{
+		while ( true )
+		{
+			CoderResult result = encoder.encode( in, buffer, endOfInput );
+			if ( result.isOverflow() )
+			{
+				drain();
+			}
+			else if ( result.isUnderflow() )
+			{
+				break;
+			}
+			else
+			{
+				result.throwException();
+			}
+		}
+		if ( in.hasRemaining() )
+		{
+			pending 	= in.get();
+			hasPending 	= true;
+		}
+	}
+	
+	private void drain() throws IOException
+	{
+		buffer.flip();
+		while ( buffer.hasRemaining() )
+		{
+			written += channel.write( buffer );
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,340 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream writing the data in gzip format, compressing blocks of data on several threads.
+ * Each block is compressed independently as a complete gzip member and the members are written 
+ * in order: a sequence of gzip members is a valid gzip file (RFC 1952) read by any gzip decoder.
+ * <p>
+ * The data is streamed: at most two blocks for each thread are buffered, so the memory used 
+ * does not depend on the size of the data. 
+ * With a parallelism of one the blocks are compressed by the writing thread.
+ * Flushing the stream compresses the buffered data as a member on its own, so it should be 
+ * flushed only when the data must reach the wrapped stream.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ParallelGzipOutputStream extends OutputStream
+{
+	/**
+	 * Default size of the compressed blocks.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+	
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+	
+	private final OutputStream 	out;
+	private final int 			level;
+	private final int 			blockSize;
+	private final int 			parallelism;
+	private final Executor 		executor;
+	private final boolean 		ownExecutor;
+	
+	// Blocks being compressed, in the order they are written
+	private final Deque<Future<ByteArrayOutputStream>> pending = new ArrayDeque<Future<ByteArrayOutputStream>>();
+	
+	private byte[] 	block;
+	private int 	count 	= 0;
+	private long 	members = 0;
+	private boolean closed 	= false;
+	
+	/**
+	 * Create the stream compressing with the default level on as many threads as the available processors.
+	 * @param out The stream where the compressed data is written.
+	 */
+	public ParallelGzipOutputStream( OutputStream out )
+	{
+		this( out, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors(), null );
+	}
+	
+	/**
+	 * Create the stream.
+	 * @param out The stream where the compressed data is written.
+	 * @param level The compression level, see {@link Deflater}.
+	 * @param blockSize The size of the blocks compressed independently.
+	 * @param parallelism The number of blocks compressed at the same time.
+	 * @param executor The executor compressing the blocks or null to use a pool owned by the stream,
+	 * shut down when the stream is closed.
+	 */
+	public ParallelGzipOutputStream( OutputStream out, int level, int blockSize, int parallelism, Executor executor )
+	{
+		if ( blockSize <= 0 || parallelism <= 0 )
+		{
+			throw new IllegalArgumentException( "The block size and the parallelism must be positive" );
+		}
+		this.out 			= out;
+		this.level 			= level;
+		this.blockSize 		= blockSize;
+		this.parallelism 	= parallelism;
+		this.ownExecutor 	= ( executor == null && parallelism > 1 );
+		this.executor 		= ( ownExecutor ? createExecutor( parallelism ) : executor );
+		this.block 			= new byte[ blockSize ];
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Override
+	public void write( int b ) throws IOException 
+	{
+		ensureOpen();
+		if ( count == blockSize )
+		{
+			compressBlock();
+		}
+		block[ count++ ] = (byte) b;
+	}
+	
+	@Override
+	public void write( byte[] b, int off, int len ) throws IOException 
+	{
+		ensureOpen();
+		while ( len > 0 )
+		{
+			if ( count == blockSize )
+			{
+				compressBlock();
+			}
+			int size = Math.min( len, blockSize - count );
+			System.arraycopy( b, off, block, count, size );
+			count += size;
+			off += size;
+			len -= size;
+		}
+	}
+	
+	/**
+	 * Compress the buffered data and write all the compressed blocks to the wrapped stream.
+	 */
+	@Override
+	public void flush() throws IOException 
+	{
+		ensureOpen();
+		compressBlock();
+		drain( 0 );
+		out.flush();
+	}
+	
+	/**
+	 * Finish writing the compressed data without closing the wrapped stream.
+	 * An empty gzip member is written if no data was written, so the output is always a valid gzip file.
+	 * @throws IOException
+	 */
+	public void finish() throws IOException
+	{
+		ensureOpen();
+		compressBlock();
+		if ( members == 0 && pending.isEmpty() )
+		{
+			submit( block, 0 );
+		}
+		drain( 0 );
+		out.flush();
+	}
+	
+	/**
+	 * Finish writing the compressed data and close the wrapped stream.
+	 */
+	@Override
+	public void close() throws IOException 
+	{
+		if ( closed )
+		{
+			return;
+		}
+		try
+		{
+			finish();
+		}
+		finally
+		{
+			closed = true;
+			for ( Future<ByteArrayOutputStream> future : pending )
+			{
+				future.cancel( false );
+			}
+			pending.clear();
+			block = null;
+			if ( ownExecutor )
+			{
+				( (ExecutorService) executor ).shutdown();
+			}
+			out.close();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The number of gzip members written.
+	 */
+	public long getMembers() {
+		return members;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private void ensureOpen() throws IOException
+	{
+		if ( closed )
+		{
+			throw new IOException( "Stream closed" );
+		}
+	}
+	
+	/**
+	 * Start compressing the buffered data, waiting for the oldest blocks when too many are pending.
+	 * @throws IOException
+	 */
+	private void compressBlock() throws IOException
+	{
+		if ( count == 0 )
+		{
+			return;
+		}
+		byte[] data = block;
+		int length 	= count;
+		block = new byte[ blockSize ];
+		count = 0;
+		submit( data, length );
+		drain( 2 * parallelism );
+	}
+	
+	private void submit( final byte[] data, final int length )
+	{
+		FutureTask<ByteArrayOutputStream> task = new FutureTask<ByteArrayOutputStream>( new Callable<ByteArrayOutputStream>() {
+			public ByteArrayOutputStream call() {
+				return compress( data, length );
+			}
+		});
+		pending.addLast( task );
+		if ( executor != null )
+		{
+			executor.execute( task );
+		}
+		else
+		{
+			task.run();
+		}
+	}
+	
+	/**
+	 * Write the compressed blocks in order until at most the given number of blocks are pending.
+	 * @param max The maximum number of pending blocks.
+	 * @throws IOException If a block can not be compressed or written.
+	 */
+	private void drain( int max ) throws IOException
+	{
+		while ( pending.size() > max )
+		{
+			Future<ByteArrayOutputStream> future = pending.removeFirst();
+			try
+			{
+				future.get().writeTo( out );
+				members++;
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IOException( "Interrupted while compressing", e );
+			}
+			catch (ExecutionException e)
+			{
+				throw new IOException( "Unable to compress the data", e.getCause() );
+			}
+		}
+	}
+	
+	/**
+	 * Compress the data as a complete gzip member.
+	 * @param data The data to compress.
+	 * @param length The number of bytes to compress.
+	 * @return The gzip member.
+	 */
+	private ByteArrayOutputStream compress( byte[] data, int length )
+	{
+		ByteArrayOutputStream member = new ByteArrayOutputStream( length / 2 + HEADER.length + 8 );
+		member.write( HEADER, 0, HEADER.length );
+		
+		CRC32 crc = new CRC32();
+		crc.update( data, 0, length );
+		
+		Deflater deflater = new Deflater( level, true );
+		try
+		{
+			deflater.setInput( data, 0, length );
+			deflater.finish();
+			byte[] buffer = new byte[ 64 * 1024 ];
+			while ( !deflater.finished() )
+			{
+				int size = deflater.deflate( buffer );
+				member.write( buffer, 0, size );
+			}
+		}
+		finally
+		{
+			deflater.end();
+		}
+		
+		writeInt( member, (int) crc.getValue() );
+		writeInt( member, length );
+		return member;
+	}
+	
+	/**
+	 * Write the integer in little endian order as required by the gzip trailer.
+	 */
+	private static void writeInt( ByteArrayOutputStream out, int value )
+	{
+		out.write( value & 0xff );
+		out.write( ( value >>> 8 ) & 0xff );
+		out.write( ( value >>> 16 ) & 0xff );
+		out.write( ( value >>> 24 ) & 0xff );
+	}
+	
+	private static ExecutorService createExecutor( int threads )
+	{
+		final AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool( threads, new ThreadFactory() {
+			public Thread newThread( Runnable runnable ) {
+				Thread thread = new Thread( runnable, "export-gzip-" + count.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		});
+	}
+}
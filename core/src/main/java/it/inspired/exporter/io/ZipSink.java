@@ -0,0 +1,189 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import it.inspired.exporter.Exporter;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes one or more exported files in a zip container.
+ * The entries are compressed while they are written, so the files are streamed to the 
+ * wrapped stream without being buffered.
+ * The entries are written one at a time: opening an entry closes the previous one.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ZipSink implements Closeable
+{
+	private final ZipOutputStream zip;
+	
+	private EntryOutputStream entry = null;
+	
+	/**
+	 * Create the sink compressing with the default level.
+	 * @param out The stream where the container is written.
+	 */
+	public ZipSink( OutputStream out )
+	{
+		this( out, Deflater.DEFAULT_COMPRESSION );
+	}
+	
+	/**
+	 * Create the sink.
+	 * @param out The stream where the container is written.
+	 * @param level The compression level, see {@link Deflater}.
+	 */
+	public ZipSink( OutputStream out, int level )
+	{
+		this.zip = new ZipOutputStream( out );
+		this.zip.setLevel( level );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Start a new file in the container closing the previous one.
+	 * The returned stream can be attached to a streaming exporter, eg. 
+	 * {@link it.inspired.exporter.TextExporter#setOutputStream(OutputStream)}, closing it
+	 * closes the entry and not the container.
+	 * @param name The name of the file.
+	 * @return The stream where the file is written.
+	 * 
+	 * @throws IOException
+	 */
+	public OutputStream openEntry( String name ) throws IOException
+	{
+		closeEntry();
+		zip.putNextEntry( new ZipEntry( name ) );
+		entry = new EntryOutputStream();
+		return entry;
+	}
+	
+	/**
+	 * Write the data exported by the exporter as a new file in the container.
+	 * An exporter streaming to an attached output must be attached to {@link #openEntry(String)} instead.
+	 * @param name The name of the file.
+	 * @param exporter The exporter whose export is finalized.
+	 * 
+	 * @throws IOException
+	 * @throws IllegalArgumentException If the exporter streams to an attached output.
+	 */
+	public void add( String name, Exporter exporter ) throws IOException
+	{
+		if ( exporter.isOutputAttached() )
+		{
+			throw new IllegalArgumentException( "The exporter streams to an attached output, attach it to a new entry instead" );
+		}
+		OutputStream out = openEntry( name );
+		exporter.write( out );
+		closeEntry();
+	}
+	
+	/**
+	 * Close the current file if any.
+	 * @throws IOException
+	 */
+	public void closeEntry() throws IOException
+	{
+		if ( entry != null )
+		{
+			entry.closed = true;
+			entry = null;
+			zip.closeEntry();
+		}
+	}
+	
+	/**
+	 * Close the current file, write the directory of the container and close the wrapped stream.
+	 */
+	public void close() throws IOException 
+	{
+		try
+		{
+			closeEntry();
+		}
+		finally
+		{
+			zip.close();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * The stream of a single entry, writing directly to the container.
+	 */
+	private class EntryOutputStream extends FilterOutputStream
+	{
+		private boolean closed = false;
+		
+		private EntryOutputStream()
+		{
+			super( zip );
+		}
+		
+		@Override
+		public void write( int b ) throws IOException 
+		{
+			ensureOpen();
+			zip.write( b );
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) throws IOException 
+		{
+			ensureOpen();
+			zip.write( b, off, len );
+		}
+		
+		@Override
+		public void flush() throws IOException 
+		{
+			if ( !closed )
+			{
+				zip.flush();
+			}
+		}
+		
+		@Override
+		public void close() throws IOException 
+		{
+			if ( !closed && entry == this )
+			{
+				closeEntry();
+			}
+		}
+		
+		private void ensureOpen() throws IOException
+		{
+			if ( closed )
+			{
+				throw new IOException( "Entry closed" );
+			}
+		}
+	}
+}
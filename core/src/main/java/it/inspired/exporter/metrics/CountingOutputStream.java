@@ -0,0 +1,75 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream counting the bytes written to the wrapped stream.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class CountingOutputStream extends FilterOutputStream 
+{
+	private long count = 0;
+	
+	public CountingOutputStream( OutputStream out )
+	{
+		super( out );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Override
+	public void write( int b ) throws IOException 
+	{
+		out.write( b );
+		count++;
+	}
+	
+	@Override
+	public void write( byte[] b, int off, int len ) throws IOException 
+	{
+		out.write( b, off, len );
+		count += len;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The number of bytes written.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Reset the number of bytes written.
+	 * @return The number of bytes written before the reset.
+	 */
+	public long resetCount()
+	{
+		long written = count;
+		count = 0;
+		return written;
+	}
+}
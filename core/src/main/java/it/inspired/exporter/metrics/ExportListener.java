@@ -0,0 +1,81 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.metrics;
+
+import it.inspired.exporter.Exporter;
+
+/**
+ * Receives the events of the exports performed by an {@link Exporter}.
+ * When the rows are rendered in parallel the methods are called by many threads at the same time,
+ * so the implementations must be thread safe. The methods are called while exporting 
+ * so they should return quickly.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public interface ExportListener 
+{
+	/**
+	 * Called when an export starts.
+	 * @param exporter The exporter.
+	 */
+	public void exportStarted( Exporter exporter );
+	
+	/**
+	 * Called when a row has been written.
+	 * @param row The number of the row.
+	 * @param cells The number of cells written in the row.
+	 */
+	public void rowWritten( int row, int cells );
+	
+	/**
+	 * Called when a phase of the export completes.
+	 * @param phase The phase.
+	 * @param nanos The time spent, in nanoseconds.
+	 */
+	public void timed( ExportPhase phase, long nanos );
+	
+	/**
+	 * Called when the exported data are written to the output.
+	 * @param bytes The number of bytes written.
+	 */
+	public void bytesWritten( long bytes );
+	
+	/**
+	 * Called when the number of rows kept in memory waiting to be written changes: 
+	 * the rows rendered in parallel or, when the output is not streamed, the rows 
+	 * retained by the exporter until the data are written.
+	 * @param rows The number of rows.
+	 */
+	public void rowsBuffered( int rows );
+	
+	/**
+	 * Called at the end of the export with the statistics of a cache used by the export.
+	 * @param cache The name of the cache.
+	 * @param hits The number of values found in the cache during the export.
+	 * @param misses The number of values not found in the cache during the export.
+	 */
+	public void cacheStatistics( String cache, long hits, long misses );
+	
+	/**
+	 * Called when an export ends, even if it failed.
+	 * @param exporter The exporter.
+	 */
+	public void exportFinished( Exporter exporter );
+}
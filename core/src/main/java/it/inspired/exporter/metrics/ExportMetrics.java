@@ -0,0 +1,259 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.metrics;
+
+import it.inspired.exporter.Exporter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe {@link ExportListener} collecting the events as counters and timers.
+ * The same instance can be registered in many exporters to collect the totals of all the exports.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportMetrics implements ExportListener 
+{
+	private final LongAdder exports = new LongAdder();
+	private final LongAdder rows 	= new LongAdder();
+	private final LongAdder cells 	= new LongAdder();
+	private final LongAdder bytes 	= new LongAdder();
+	
+	private final AtomicInteger peakBufferedRows = new AtomicInteger();
+	
+	private final Map<ExportPhase,Timer> timers = new EnumMap<ExportPhase,Timer>( ExportPhase.class );
+	
+	private final ConcurrentMap<String,Counter> caches = new ConcurrentHashMap<String,Counter>();
+	
+	public ExportMetrics()
+	{
+		for ( ExportPhase phase : ExportPhase.values() )
+		{
+			timers.put( phase, new Timer() );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	// Listener
+	//--------------------------------------------------------------------------------------
+	
+	public void exportStarted( Exporter exporter ) {
+		exports.increment();
+	}
+
+	public void rowWritten( int row, int cells ) {
+		this.rows.increment();
+		this.cells.add( cells );
+	}
+
+	public void timed( ExportPhase phase, long nanos ) {
+		timers.get( phase ).add( nanos );
+	}
+
+	public void bytesWritten( long bytes ) {
+		this.bytes.add( bytes );
+	}
+
+	public void rowsBuffered( int rows ) 
+	{
+		int peak = peakBufferedRows.get();
+		while ( rows > peak && !peakBufferedRows.compareAndSet( peak, rows ) )
+		{
+			peak = peakBufferedRows.get();
+		}
+	}
+
+	public void cacheStatistics( String cache, long hits, long misses ) 
+	{
+		Counter counter = caches.get( cache );
+		if ( counter == null )
+		{
+			counter = new Counter();
+			Counter existing = caches.putIfAbsent( cache, counter );
+			if ( existing != null )
+			{
+				counter = existing;
+			}
+		}
+		counter.hits.add( hits );
+		counter.misses.add( misses );
+	}
+
+	public void exportFinished( Exporter exporter ) {
+	}
+	
+	//--------------------------------------------------------------------------------------
+	// Counters
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The number of exports started.
+	 */
+	public long getExports() {
+		return exports.sum();
+	}
+	
+	/**
+	 * @return The number of rows written.
+	 */
+	public long getRows() {
+		return rows.sum();
+	}
+	
+	/**
+	 * @return The number of cells written.
+	 */
+	public long getCells() {
+		return cells.sum();
+	}
+	
+	/**
+	 * @return The number of bytes written to the outputs.
+	 */
+	public long getBytes() {
+		return bytes.sum();
+	}
+	
+	/**
+	 * @return The maximum number of rows kept in memory waiting to be written, see {@link ExportListener#rowsBuffered(int)}.
+	 */
+	public int getPeakBufferedRows() {
+		return peakBufferedRows.get();
+	}
+	
+	/**
+	 * Return the number of times the phase has been timed.
+	 * @param phase The phase.
+	 * @return The number of times.
+	 */
+	public long getCount( ExportPhase phase ) {
+		return timers.get( phase ).count.sum();
+	}
+	
+	/**
+	 * Return the total time spent in the phase.
+	 * @param phase The phase.
+	 * @param unit The unit of the returned time.
+	 * @return The time spent.
+	 */
+	public long getTime( ExportPhase phase, TimeUnit unit ) {
+		return unit.convert( timers.get( phase ).nanos.sum(), TimeUnit.NANOSECONDS );
+	}
+	
+	/**
+	 * Return the number of hits of the cache.
+	 * @param cache The name of the cache.
+	 * @return The number of hits.
+	 */
+	public long getHits( String cache ) 
+	{
+		Counter counter = caches.get( cache );
+		return ( counter == null ? 0 : counter.hits.sum() );
+	}
+	
+	/**
+	 * Return the number of misses of the cache.
+	 * @param cache The name of the cache.
+	 * @return The number of misses.
+	 */
+	public long getMisses( String cache ) 
+	{
+		Counter counter = caches.get( cache );
+		return ( counter == null ? 0 : counter.misses.sum() );
+	}
+	
+	/**
+	 * Return the ratio of the values found in the cache.
+	 * @param cache The name of the cache.
+	 * @return The hit rate between 0 and 1, 0 if the cache has not been used.
+	 */
+	public double getHitRate( String cache ) 
+	{
+		long hits 	= getHits( cache );
+		long total 	= hits + getMisses( cache );
+		return ( total == 0 ? 0 : (double) hits / total );
+	}
+	
+	/**
+	 * Reset all the counters and timers.
+	 */
+	public void reset()
+	{
+		exports.reset();
+		rows.reset();
+		cells.reset();
+		bytes.reset();
+		peakBufferedRows.set( 0 );
+		for ( Timer timer : timers.values() )
+		{
+			timer.count.reset();
+			timer.nanos.reset();
+		}
+		caches.clear();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@Override
+	public String toString() 
+	{
+		StringBuilder sb = new StringBuilder( 256 );
+		sb.append( "exports=" ).append( getExports() )
+		  .append( " rows=" ).append( getRows() )
+		  .append( " cells=" ).append( getCells() )
+		  .append( " bytes=" ).append( getBytes() )
+		  .append( " peakBufferedRows=" ).append( getPeakBufferedRows() );
+		for ( ExportPhase phase : ExportPhase.values() )
+		{
+			sb.append( ' ' ).append( phase.name().toLowerCase() ).append( "Ms=" ).append( getTime( phase, TimeUnit.MILLISECONDS ) );
+		}
+		for ( String cache : caches.keySet() )
+		{
+			sb.append( ' ' ).append( cache ).append( "HitRate=" ).append( getHitRate( cache ) );
+		}
+		return sb.toString();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class Timer
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		
+		private void add( long time )
+		{
+			count.increment();
+			nanos.add( time );
+		}
+	}
+	
+	private static class Counter
+	{
+		private final LongAdder hits 	= new LongAdder();
+		private final LongAdder misses 	= new LongAdder();
+	}
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.metrics;
+
+/**
+ * The phases of an export whose time is reported to the {@link ExportListener}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public enum ExportPhase 
+{
+	// Building or reading the export plan of the exported classes
+	INTROSPECTION,
+	
+	// Reading the values of the properties from the exported objects
+	GETTER,
+	
+	// Converting the keys into texts with getText, the cached texts are not timed
+	TEXT,
+	
+	// Formatting the values and writing them into the cells
+	FORMAT,
+	
+	// Completing the export with finalyze()
+	FINALYZE,
+	
+	// Writing the exported data to the output with write()
+	WRITE
+}
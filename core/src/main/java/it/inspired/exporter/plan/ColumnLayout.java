@@ -0,0 +1,325 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.plan;
+
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.handler.ValueHandlers;
+import it.inspired.exporter.utils.BeanUtils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fixed columns of the rows exported from a class, derived from the class metadata 
+ * before any object is exported.
+ * <p>
+ * The layout is made of segments, one for each exported class reachable from the root class 
+ * through the declared types of the properties, in the order the objects are exported: 
+ * the values of an object first, then the objects it references depth first. 
+ * Each class has a single segment, the first one found, so recursive references 
+ * (eg. a person referencing its boss) are not exported.
+ * Each segment reads its object from the object of the parent segment, 
+ * when the object is null its columns are left empty.
+ *
+ * @author Massimo Romano
+ *
+ */
+public class ColumnLayout
+{
+	private final Class<?> 		type;
+	private final List<Segment> segments;
+	private final int 			columns;
+	private final int 			version;
+	
+	private ColumnLayout( Class<?> type, List<Segment> segments, int columns, int version )
+	{
+		this.type 		= type;
+		this.segments 	= Collections.unmodifiableList( segments );
+		this.columns 	= columns;
+		this.version 	= version;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Build the layout of the rows exported from the given class.
+	 * @param type The class of the exported objects.
+	 * @param cache The cache of the plans of the classes.
+	 * @param excluded The names of the properties not exported, can be null.
+	 * @return The layout.
+	 * 
+	 * @throws IntrospectionException If a class can not be inspected.
+	 */
+	public static ColumnLayout compile( Class<?> type, ExportPlanCache cache, Set<String> excluded ) throws IntrospectionException
+	{
+		int version = ValueHandlers.getShared().getVersion();
+		Builder builder = new Builder( cache, excluded );
+		builder.add( type, -1, null, null );
+		return new ColumnLayout( type, builder.segments, builder.offset, version );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The root class of the layout.
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+	
+	/**
+	 * @return The segments in column order, the first one is the root class.
+	 */
+	public List<Segment> getSegments() {
+		return segments;
+	}
+	
+	/**
+	 * @return The number of columns of the rows.
+	 */
+	public int getColumns() {
+		return columns;
+	}
+	
+	/**
+	 * Check if the layout is still valid, that is no value handler has been registered after it was built.
+	 * @return True if the layout is current.
+	 */
+	public boolean isCurrent() {
+		return version == ValueHandlers.getShared().getVersion();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * The columns of an exported class.
+	 */
+	public static class Segment
+	{
+		private final int 				index;
+		private final int 				parent;
+		private final PropertyStep 		step;
+		private final NestedProperty 	nested;
+		private final ExportPlan 		plan;
+		private final int 				offset;
+		private final List<Column> 		columns;
+		
+		private Segment( int index, int parent, PropertyStep step, NestedProperty nested, ExportPlan plan, int offset, List<Column> columns )
+		{
+			this.index 		= index;
+			this.parent 	= parent;
+			this.step 		= step;
+			this.nested 	= nested;
+			this.plan 		= plan;
+			this.offset 	= offset;
+			this.columns 	= Collections.unmodifiableList( columns );
+		}
+		
+		/**
+		 * @return The position of the segment in the layout.
+		 */
+		public int getIndex() {
+			return index;
+		}
+		
+		/**
+		 * @return The position of the segment whose object references the object of this segment, -1 for the root.
+		 */
+		public int getParent() {
+			return parent;
+		}
+		
+		/**
+		 * @return The property of the parent object referencing the object, null for the root.
+		 */
+		public PropertyStep getStep() {
+			return step;
+		}
+		
+		/**
+		 * @return The property declared by {@link ExpoProperty} on the value of the step, 
+		 * null if the object is the value of the step itself.
+		 */
+		public NestedProperty getNested() {
+			return nested;
+		}
+		
+		public ExportPlan getPlan() {
+			return plan;
+		}
+		
+		/**
+		 * @return The column of the first value of the segment.
+		 */
+		public int getOffset() {
+			return offset;
+		}
+		
+		public List<Column> getColumns() {
+			return columns;
+		}
+	}
+	
+	/**
+	 * A column of a segment, it is either a value of the object or a value nested in one of its properties.
+	 */
+	public static class Column
+	{
+		private final PropertyStep 		step;
+		private final NestedProperty 	nested;
+		
+		private Column( PropertyStep step, NestedProperty nested )
+		{
+			this.step 	= step;
+			this.nested = nested;
+		}
+		
+		/**
+		 * @return The property of the object whose value is exported or contains the exported value.
+		 */
+		public PropertyStep getStep() {
+			return step;
+		}
+		
+		/**
+		 * @return The property exported from the value of the step, null if the value is exported.
+		 */
+		public NestedProperty getNested() {
+			return nested;
+		}
+		
+		/**
+		 * @return The descriptor of the exported property.
+		 */
+		public PropertyDescriptor getProperty() {
+			return ( nested != null ? nested.getProperty() : step.getProperty() );
+		}
+		
+		/**
+		 * @return The annotation declaring the nested property, null if the column is not nested.
+		 */
+		public ExpoProperty getAnnotation() {
+			return ( nested != null ? nested.getAnnotation() : null );
+		}
+		
+		public String getPrefixKey() {
+			return ( nested != null ? nested.getPrefixKey() : step.getPrefixKey() );
+		}
+		
+		public String getFormat() {
+			return ( nested != null ? nested.getFormat() : step.getFormat() );
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	private static class Builder
+	{
+		private final ExportPlanCache 	cache;
+		private final Set<String> 		excluded;
+		
+		private final List<Segment> segments 	= new ArrayList<Segment>();
+		private final Set<Class<?>> visited 	= new HashSet<Class<?>>();
+		private int 				offset 		= 0;
+		
+		private Builder( ExportPlanCache cache, Set<String> excluded )
+		{
+			this.cache 		= cache;
+			this.excluded 	= excluded;
+		}
+		
+		private void add( Class<?> type, int parent, PropertyStep via, NestedProperty nestedVia ) throws IntrospectionException
+		{
+			ExportPlan plan = cache.getPlan( type );
+			if ( !plan.isExportable() || !visited.add( type ) )
+			{
+				return;
+			}
+			
+			List<Column> 	columns 	= new ArrayList<Column>();
+			List<Reference> children 	= new ArrayList<Reference>();
+			for ( PropertyStep step : plan.getSteps( excluded ) )
+			{
+				switch ( step.getType() )
+				{
+					case VALUE:
+						columns.add( new Column( step, null ) );
+						break;
+						
+					case OBJECT:
+						children.add( new Reference( step, null, step.getProperty().getPropertyType() ) );
+						break;
+						
+					case NESTED:
+						for ( NestedProperty nested : step.getNested() )
+						{
+							PropertyDescriptor property = nested.getProperty();
+							if ( property == null )
+							{
+								// The property is not declared by the type, it can not be placed
+								continue;
+							}
+							if ( BeanUtils.isPrimitive( property ) )
+							{
+								columns.add( new Column( step, nested ) );
+							}
+							else
+							{
+								children.add( new Reference( step, nested, property.getPropertyType() ) );
+							}
+						}
+						break;
+				}
+			}
+			
+			int index = segments.size();
+			segments.add( new Segment( index, parent, via, nestedVia, plan, offset, columns ) );
+			offset += columns.size();
+			
+			// The referenced objects are placed after the values, in the order of the properties
+			for ( Reference child : children )
+			{
+				add( child.type, index, child.step, child.nested );
+			}
+		}
+	}
+	
+	/**
+	 * A property referencing an object exported on its own.
+	 */
+	private static class Reference
+	{
+		private final PropertyStep 		step;
+		private final NestedProperty 	nested;
+		private final Class<?> 			type;
+		
+		private Reference( PropertyStep step, NestedProperty nested, Class<?> type )
+		{
+			this.step 	= step;
+			this.nested = nested;
+			this.type 	= type;
+		}
+	}
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.plan;
+
+import it.inspired.exporter.AnnotationHelper;
+import it.inspired.exporter.access.AccessorFactory;
+import it.inspired.exporter.access.AccessorProvider;
+import it.inspired.exporter.access.AccessorProviders;
+import it.inspired.exporter.access.PropertyAccessor;
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.comparator.ExpoPropertyComparator;
+import it.inspired.exporter.comparator.PropertyDescriptionComparator;
+import it.inspired.exporter.utils.BeanUtils;
+import it.inspired.exporter.utils.StringUtils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The immutable description of how the instances of a class are exported.
+ * The plan is built once from the class metadata (bean introspection and framework annotations)
+ * and contains the ordered list of properties to export, so that no reflection metadata
+ * has to be read while the rows are exported.
+ *
+ * @author Massimo Romano
+ *
+ */
+public class ExportPlan
+{
+	private static final Logger log = Logger.getLogger(ExportPlan.class);
+
+	private final Class<?> 				type;
+	private final BeanInfo 				info;
+	private final List<PropertyStep> 	steps;
+
+	private ExportPlan( Class<?> type, BeanInfo info, List<PropertyStep> steps )
+	{
+		this.type 	= type;
+		this.info 	= info;
+		this.steps 	= ( steps == null ? Collections.<PropertyStep>emptyList() : Collections.unmodifiableList( steps ) );
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Build the plan for the given class.
+	 * The properties are read using the accessors generated at compile time if available,
+	 * otherwise the accessors are created by the given factory.
+	 * @param type The class to inspect.
+	 * @param factory The factory of the accessors used to read the properties.
+	 * @return The plan for the class.
+	 *
+	 * @throws IntrospectionException
+	 */
+	public static ExportPlan compile( Class<?> type, AccessorFactory factory ) throws IntrospectionException
+	{
+		// Check if it is exportable
+		if ( AnnotationHelper.isUnexportable( type ) || AnnotationHelper.isExportIgnored( type ) || !AnnotationHelper.hasExpoElement( type ) )
+		{
+			return new ExportPlan( type, null, null );
+		}
+
+		BeanInfo info = null;
+		if ( AnnotationHelper.isExportSuperclass( type ) )
+		{
+			// Only the properties of the superclass are exported if they exist
+			if ( type.getSuperclass() == null )
+			{
+				return new ExportPlan( type, null, null );
+			}
+			info = Introspector.getBeanInfo( type.getSuperclass() );
+		}
+		else // Export Class
+		{
+			info = Introspector.getBeanInfo( type );
+		}
+
+		log.debug( "Building export plan for " + type.getName() );
+
+		List<PropertyStep> steps = new ArrayList<PropertyStep>();
+		
+		// Accessors generated at compile time for the class
+		AccessorProvider provider = AccessorProviders.find( type );
+
+		// Get the list of properties to export for the given class if specified
+		List<String> oprops = AnnotationHelper.getProperty( type );
+
+		// Gets all the readable properties from the class and sort them
+		List<PropertyDescriptor> pds = new ArrayList<PropertyDescriptor>();
+		for ( PropertyDescriptor property : info.getPropertyDescriptors() )
+		{
+			if ( property.getReadMethod() != null )
+			{
+				pds.add( property );
+			}
+		}
+		Collections.sort( pds, new PropertyDescriptionComparator() );
+
+		// If the class has an identifier, it is placed at the beginning
+		if( BeanUtils.hasProperty( type, "id" ) )
+		{
+			PropertyDescriptor pid = BeanUtils.getPropertyDescriptor( type, "id" );
+			if ( !AnnotationHelper.isUnexportable( pid.getReadMethod() ) )
+			{
+				steps.add( new PropertyStep( PropertyStep.Type.VALUE, pid, accessor( provider, factory, pid.getReadMethod() ), null, getFormat( type, pid ), true, null ) );
+			}
+		}
+
+		// For each property the export rules are evaluated
+		for ( PropertyDescriptor property : pds )
+		{
+			// Id is ignored and any other property not included in the list of properties specified
+			// in the ExpoProperty annotation if defined
+			if ( property.getName().equals("id") || ( oprops != null && !oprops.contains( property.getName() ) ) )
+			{
+				continue;
+			}
+
+			// Gets the method to get the property
+			Method propertyGetter = property.getReadMethod();
+
+			// Check if the getter is marked as unexportable
+			if ( AnnotationHelper.isUnexportable( propertyGetter ) )
+			{
+				log.debug( "Property " + property.getName() + " has Unxportable annotation" );
+				continue;
+			}
+
+			if ( BeanUtils.isPrimitive( property ) )
+			{
+				// Get the prefix used to convert the value to a message
+				String prefix = AnnotationHelper.getPrefixKey( type, property.getName() );
+				if ( prefix == null )
+				{
+					prefix = AnnotationHelper.getPrefixKey( propertyGetter, property.getName() );
+				}
+				steps.add( new PropertyStep( PropertyStep.Type.VALUE, property, accessor( provider, factory, propertyGetter ), prefix, getFormat( type, property ), false, null ) );
+			}
+			else
+			{
+				// Not primitive object, check if the properties to export are declared
+				List<ExpoProperty> eprops = AnnotationHelper.getExportProperty( propertyGetter );
+				if ( eprops == null )
+				{
+					// The whole object is exported as an entity on its own
+					steps.add( new PropertyStep( PropertyStep.Type.OBJECT, property, accessor( provider, factory, propertyGetter ), null, null, false, null ) );
+				}
+				else
+				{
+					eprops = new ArrayList<ExpoProperty>( eprops );
+					Collections.sort( eprops, new ExpoPropertyComparator() );
+
+					AccessorProvider nestedProvider = AccessorProviders.find( property.getPropertyType() );
+					List<NestedProperty> nested = new ArrayList<NestedProperty>();
+					for ( ExpoProperty eprop : eprops )
+					{
+						PropertyDescriptor descriptor = null;
+						if ( !StringUtils.isEmpty( eprop.value() ) )
+						{
+							descriptor = BeanUtils.getPropertyDescriptor( property.getPropertyType(), eprop.value() );
+						}
+						Method getter = BeanUtils.getPropertyGetter( property.getPropertyType(), eprop.value() );
+						nested.add( new NestedProperty( eprop, descriptor, property.getPropertyType(),
+								( getter != null ? accessor( nestedProvider, factory, getter ) : null ),
+								AnnotationHelper.getPrefixKey( propertyGetter, eprop.value() ), factory ) );
+					}
+					steps.add( new PropertyStep( PropertyStep.Type.NESTED, property, accessor( provider, factory, propertyGetter ), null, null, false, nested ) );
+				}
+			}
+		}
+
+		return new ExportPlan( type, info, steps );
+	}
+	
+	/**
+	 * Return the pattern used to format the property declared by the {@link ExpoProperty} 
+	 * of the class or of the getter.
+	 * @param type The exported class.
+	 * @param property The property.
+	 * @return The pattern or null if not defined.
+	 */
+	private static String getFormat( Class<?> type, PropertyDescriptor property )
+	{
+		String format = AnnotationHelper.getFormat( type, property.getName() );
+		if ( format == null )
+		{
+			format = AnnotationHelper.getFormat( property.getReadMethod(), property.getName() );
+		}
+		return format;
+	}
+	
+	/**
+	 * Return the accessor of the getter generated by the provider or created by the factory.
+	 * @param provider The provider of the generated accessors, can be null.
+	 * @param factory The factory used when the accessor is not generated.
+	 * @param getter The getter of the property.
+	 * @return The accessor for the property.
+	 */
+	static PropertyAccessor accessor( AccessorProvider provider, AccessorFactory factory, Method getter )
+	{
+		if ( provider != null )
+		{
+			PropertyAccessor accessor = provider.getAccessor( getter.getName() );
+			if ( accessor != null )
+			{
+				return accessor;
+			}
+		}
+		return factory.create( getter );
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * @return The class described by the plan.
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return The bean information of the exported class, it is the superclass
+	 * when the class is annotated as {@link it.inspired.exporter.annotation.ExportType#SUPERCLASS}.
+	 */
+	public BeanInfo getBeanInfo() {
+		return info;
+	}
+
+	/**
+	 * @return The ordered list of properties to export.
+	 */
+	public List<PropertyStep> getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Return the properties to export excluding the given ones, the identifier is never excluded.
+	 * @param excluded The names of the properties to exclude.
+	 * @return The ordered list of properties to export.
+	 */
+	public List<PropertyStep> getSteps( Set<String> excluded )
+	{
+		if ( excluded == null || excluded.isEmpty() )
+		{
+			return steps;
+		}
+		List<PropertyStep> filtered = new ArrayList<PropertyStep>( steps.size() );
+		for ( PropertyStep step : steps )
+		{
+			if ( step.isId() || !excluded.contains( step.getName() ) )
+			{
+				filtered.add( step );
+			}
+		}
+		return ( filtered.size() == steps.size() ? steps : Collections.unmodifiableList( filtered ) );
+	}
+
+	/**
+	 * Check if the instances of the class are exported, that is the class is annotated
+	 * with {@link ExpoElement} and it is neither ignored nor unexportable.
+	 * @return True if exportable.
+	 */
+	public boolean isExportable() {
+		return info != null;
+	}
+}
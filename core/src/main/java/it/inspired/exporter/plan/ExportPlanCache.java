@@ -0,0 +1,155 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.plan;
+
+import it.inspired.exporter.access.AccessorFactory;
+import it.inspired.exporter.access.AccessorStrategy;
+import it.inspired.exporter.handler.ValueHandlers;
+
+import java.beans.IntrospectionException;
+
+/**
+ * Thread safe cache of the {@link ExportPlan} built for each class.
+ * The plans are stored using a {@link ClassValue} so that they do not prevent
+ * the class loader of the exported classes from being garbage collected.
+ * The plans built before a handler is registered in {@link ValueHandlers} are built again,
+ * since the handlers decide which properties are exported as values.
+ *
+ * @author Massimo Romano
+ *
+ */
+public class ExportPlanCache
+{
+	private static final ExportPlanCache shared = new ExportPlanCache();
+
+	private final AccessorFactory accessorFactory;
+
+	private final ClassValue<Entry> plans = new ClassValue<Entry>() {
+		@Override
+		protected Entry computeValue( Class<?> type ) {
+			// Read before compiling, so a handler registered meanwhile makes the plan stale
+			int version = ValueHandlers.getShared().getVersion();
+			try
+			{
+				return new Entry( compile( type ), null, version );
+			}
+			catch (IntrospectionException e)
+			{
+				return new Entry( null, e, version );
+			}
+		}
+	};
+
+	/**
+	 * Create a cache whose plans read the properties using the default {@link AccessorStrategy}.
+	 */
+	public ExportPlanCache()
+	{
+		this( AccessorStrategy.getDefault() );
+	}
+
+	/**
+	 * Create a cache whose plans read the properties using the given strategy.
+	 * @param strategy The strategy used to read the properties.
+	 */
+	public ExportPlanCache( AccessorStrategy strategy )
+	{
+		this( strategy.createFactory() );
+	}
+
+	/**
+	 * Create a cache whose plans read the properties using the accessors created by the given factory.
+	 * @param accessorFactory The factory of the property accessors.
+	 */
+	public ExportPlanCache( AccessorFactory accessorFactory )
+	{
+		this.accessorFactory = accessorFactory;
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * @return The cache shared by the exporters that do not define their own cache.
+	 */
+	public static ExportPlanCache getShared() {
+		return shared;
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Return the plan for the given class building it the first time the class is requested.
+	 * @param type The class to export.
+	 * @return The plan for the class.
+	 *
+	 * @throws IntrospectionException If the class can not be inspected.
+	 */
+	public ExportPlan getPlan( Class<?> type ) throws IntrospectionException
+	{
+		Entry entry = plans.get( type );
+		while ( entry.version != ValueHandlers.getShared().getVersion() )
+		{
+			// A handler was registered after the plan was built
+			plans.remove( type );
+			entry = plans.get( type );
+		}
+		if ( entry.error != null )
+		{
+			throw entry.error;
+		}
+		return entry.plan;
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Build the plan for a class not yet cached.
+	 * @param type The class to inspect.
+	 * @return The plan for the class.
+	 *
+	 * @throws IntrospectionException
+	 */
+	protected ExportPlan compile( Class<?> type ) throws IntrospectionException
+	{
+		return ExportPlan.compile( type, accessorFactory );
+	}
+
+	/**
+	 * @return The factory of the accessors used by the plans.
+	 */
+	public AccessorFactory getAccessorFactory() {
+		return accessorFactory;
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	private static class Entry
+	{
+		private final ExportPlan 				plan;
+		private final IntrospectionException 	error;
+		private final int 						version;
+
+		private Entry( ExportPlan plan, IntrospectionException error, int version )
+		{
+			this.plan 		= plan;
+			this.error 		= error;
+			this.version 	= version;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.plan;
+
+import it.inspired.exporter.AnnotationHelper;
+import it.inspired.exporter.access.AccessorFactory;
+import it.inspired.exporter.access.AccessorProviders;
+import it.inspired.exporter.access.PropertyAccessor;
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.utils.BeanUtils;
+import it.inspired.exporter.utils.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A property exported from the value of a {@link PropertyStep} as declared
+ * by the {@link ExpoProperty} annotating its getter.
+ *
+ * @author Massimo Romano
+ *
+ */
+public class NestedProperty
+{
+	private final ExpoProperty 			annotation;
+	private final PropertyDescriptor 	property;
+	private final Class<?> 				owner;
+	private final PropertyAccessor 		accessor;
+	private final String 				prefixKey;
+	private final String 				format;
+	
+	// Accessors of the property in the subclasses of the declared type, null if the subclass does not have the property
+	private final ClassValue<PropertyAccessor> runtimeAccessors;
+
+	NestedProperty( ExpoProperty annotation, PropertyDescriptor property, Class<?> owner, PropertyAccessor accessor, String prefixKey, final AccessorFactory factory )
+	{
+		this.annotation = annotation;
+		this.property 	= property;
+		this.owner 		= owner;
+		this.accessor 	= accessor;
+		this.prefixKey 	= prefixKey;
+		this.format 	= AnnotationHelper.getFormat( annotation );
+		this.runtimeAccessors = new ClassValue<PropertyAccessor>() {
+			@Override
+			protected PropertyAccessor computeValue( Class<?> type ) {
+				Method getter = BeanUtils.getPropertyGetter( type, getName() );
+				return ( getter != null ? ExportPlan.accessor( AccessorProviders.find( type ), factory, getter ) : null );
+			}
+		};
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Read the value of the property from the given object.
+	 * Null is returned if the object is null or it does not have the property.
+	 * When the declared type does not have the property, the accessor is searched once 
+	 * for each class of the objects.
+	 * @param obj The object owning the property.
+	 * @return The value of the property or null.
+	 * 
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public Object getValue( Object obj ) throws IllegalAccessException, InvocationTargetException
+	{
+		if ( obj == null || StringUtils.isEmpty( annotation.value() ) )
+		{
+			return null;
+		}
+		if ( accessor != null && owner.isInstance( obj ) )
+		{
+			return accessor.get( obj );
+		}
+		// The getter is not declared by the property type, it is searched in the actual class
+		PropertyAccessor runtime = runtimeAccessors.get( obj.getClass() );
+		return ( runtime != null ? runtime.get( obj ) : null );
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	public ExpoProperty getAnnotation() {
+		return annotation;
+	}
+
+	/**
+	 * @return The descriptor of the property in the declared type or null if it does not exist.
+	 */
+	public PropertyDescriptor getProperty() {
+		return property;
+	}
+
+	public String getName() {
+		return annotation.value();
+	}
+
+	/**
+	 * @return The prefix used to convert the value into a message or null if not defined.
+	 */
+	public String getPrefixKey() {
+		return prefixKey;
+	}
+
+	/**
+	 * @return The pattern used to format the value or null if not defined.
+	 */
+	public String getFormat() {
+		return format;
+	}
+}
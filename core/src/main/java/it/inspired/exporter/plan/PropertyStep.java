@@ -0,0 +1,132 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.plan;
+
+import it.inspired.exporter.access.PropertyAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single property of an {@link ExportPlan}, resolved once from the class metadata.
+ *
+ * @author Massimo Romano
+ *
+ */
+public class PropertyStep
+{
+	/**
+	 * Defines how the value returned by the property is exported.
+	 */
+	public enum Type {
+		// The value is written in a single cell
+		VALUE,
+
+		// The value is exported as an entity on its own
+		OBJECT,
+
+		// The properties listed by ExpoProperty are exported from the value
+		NESTED
+	}
+
+	private final Type 					type;
+	private final PropertyDescriptor 	property;
+	private final Method 				getter;
+	private final PropertyAccessor 		accessor;
+	private final String 				prefixKey;
+	private final String 				format;
+	private final boolean 				id;
+	private final List<NestedProperty> 	nested;
+
+	PropertyStep( Type type, PropertyDescriptor property, PropertyAccessor accessor, String prefixKey, String format, boolean id, List<NestedProperty> nested )
+	{
+		this.type 		= type;
+		this.property 	= property;
+		this.getter 	= property.getReadMethod();
+		this.accessor 	= accessor;
+		this.prefixKey 	= prefixKey;
+		this.format 	= format;
+		this.id 		= id;
+		this.nested 	= ( nested == null ? Collections.<NestedProperty>emptyList() : Collections.unmodifiableList( nested ) );
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	/**
+	 * Read the value of the property from the given object.
+	 * @param obj The object owning the property.
+	 * @return The value of the property.
+	 *
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public Object getValue( Object obj ) throws IllegalAccessException, InvocationTargetException
+	{
+		return accessor.get( obj );
+	}
+
+	//--------------------------------------------------------------------------------------
+
+	public Type getType() {
+		return type;
+	}
+
+	public PropertyDescriptor getProperty() {
+		return property;
+	}
+
+	public String getName() {
+		return property.getName();
+	}
+
+	public Method getGetter() {
+		return getter;
+	}
+
+	/**
+	 * @return The prefix used to convert the value into a message or null if not defined.
+	 */
+	public String getPrefixKey() {
+		return prefixKey;
+	}
+
+	/**
+	 * @return The pattern used to format the value or null if not defined.
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * @return True if the step exports the identifier of the object.
+	 */
+	public boolean isId() {
+		return id;
+	}
+
+	/**
+	 * @return The ordered list of properties exported from the value when the type is {@link Type#NESTED}.
+	 */
+	public List<NestedProperty> getNested() {
+		return nested;
+	}
+}
@@ -0,0 +1,351 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.service;
+
+import it.inspired.exporter.Exporter;
+import it.inspired.exporter.async.ExportJob;
+import it.inspired.exporter.format.Formatters;
+import it.inspired.exporter.i18n.TextCache;
+import it.inspired.exporter.metrics.ExportListener;
+import it.inspired.exporter.plan.ExportPlanCache;
+
+import java.beans.IntrospectionException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Thread safe engine running many export jobs at the same time.
+ * The exporters are stateful, so each job gets a new exporter in its own {@link ExportSession}, 
+ * while the immutable state is shared by all the jobs: the export plans of the classes, 
+ * the compiled formatters and the converted texts. 
+ * <p>
+ * The number of jobs running at the same time is limited, the other jobs wait to be admitted.
+ * When a heap budget is set a job is not started while the used heap exceeds the budget, 
+ * unless no other job is running.
+ * The jobs run on virtual threads when requested and supported by the JDK, otherwise on a pool 
+ * of platform threads as large as the number of concurrent jobs.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportService 
+{
+	private static final Logger log = Logger.getLogger(ExportService.class);
+	
+	// Time waited before checking the used heap again
+	private static final long HEAP_WAIT_MILLIS = 50;
+	
+	private final ExporterFactory 	factory;
+	private final int 				maxConcurrentJobs;
+	private final Semaphore 		permits;
+	private final ExecutorService 	executor;
+	private final AtomicInteger 	runningJobs = new AtomicInteger();
+	
+	// State shared by the exporters of the jobs
+	private volatile ExportPlanCache 	planCache 	= ExportPlanCache.getShared();
+	private volatile Formatters 		formatters 	= new Formatters();
+	private volatile TextCache 			textCache 	= null;
+	private volatile ExportListener 	listener 	= null;
+	
+	// Maximum used heap to start a job, 0 if not limited
+	private volatile long heapBudget = 0;
+	
+	/**
+	 * Create a service running the jobs on platform threads.
+	 * @param factory The factory of the exporters.
+	 * @param maxConcurrentJobs The maximum number of jobs running at the same time.
+	 */
+	public ExportService( ExporterFactory factory, int maxConcurrentJobs )
+	{
+		this( factory, maxConcurrentJobs, false );
+	}
+	
+	/**
+	 * Create a service.
+	 * @param factory The factory of the exporters.
+	 * @param maxConcurrentJobs The maximum number of jobs running at the same time.
+	 * @param virtualThreads True to run the jobs on virtual threads if supported by the JDK.
+	 */
+	public ExportService( ExporterFactory factory, int maxConcurrentJobs, boolean virtualThreads )
+	{
+		if ( maxConcurrentJobs <= 0 )
+		{
+			throw new IllegalArgumentException( "The number of concurrent jobs must be positive" );
+		}
+		this.factory 			= factory;
+		this.maxConcurrentJobs 	= maxConcurrentJobs;
+		this.permits 			= new Semaphore( maxConcurrentJobs, true );
+		this.executor 			= createExecutor( maxConcurrentJobs, virtualThreads );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Open a session for a new job, the exporter of the session shares the state of the service.
+	 * @return The session.
+	 */
+	public ExportSession openSession()
+	{
+		Exporter exporter = factory.create();
+		exporter.setPlanCache( planCache );
+		exporter.setFormatters( formatters );
+		exporter.setTextCache( textCache );
+		if ( listener != null )
+		{
+			exporter.setListener( listener );
+		}
+		return new ExportSession( this, exporter );
+	}
+	
+	/**
+	 * Run the export of the objects in background in a new session.
+	 * @param items The objects to export.
+	 * @param output The output where the export is written, it is not closed.
+	 * @return The job, completed with the number of exported rows.
+	 */
+	public ExportJob submit( Iterable<?> items, OutputStream output )
+	{
+		return openSession().submit( items, output );
+	}
+	
+	/**
+	 * Build the export plans of the given classes before the first job, 
+	 * so the jobs do not pay the introspection.
+	 * @param types The classes to export.
+	 * 
+	 * @throws IntrospectionException If a class can not be inspected.
+	 */
+	public void warmUp( Class<?>... types ) throws IntrospectionException
+	{
+		for ( Class<?> type : types )
+		{
+			planCache.getPlan( type );
+		}
+	}
+	
+	/**
+	 * Stop accepting jobs, the submitted jobs are completed.
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Run the job in background once admitted.
+	 * @param job The job to run.
+	 */
+	void execute( ExportJob job )
+	{
+		executor.execute( admit( job ) );
+	}
+	
+	/**
+	 * Wrap the job so that it waits to be admitted before running, 
+	 * the job fails if the thread is interrupted while waiting.
+	 * @param job The job to run.
+	 * @return The job waiting for the admission.
+	 */
+	Runnable admit( final ExportJob job )
+	{
+		return new Runnable() {
+			public void run() {
+				try
+				{
+					permits.acquire();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted( job, e );
+					return;
+				}
+				try
+				{
+					awaitHeap();
+					runningJobs.incrementAndGet();
+					try
+					{
+						job.run();
+					}
+					finally
+					{
+						runningJobs.decrementAndGet();
+					}
+				}
+				catch (InterruptedException e)
+				{
+					interrupted( job, e );
+				}
+				finally
+				{
+					permits.release();
+				}
+			}
+		};
+	}
+	
+	private static void interrupted( ExportJob job, InterruptedException e )
+	{
+		Thread.currentThread().interrupt();
+		job.completeExceptionally( new CancellationException( "Export interrupted" ).initCause( e ) );
+	}
+	
+	/**
+	 * Wait while the used heap exceeds the budget and other jobs are running, 
+	 * they are expected to release memory when they complete.
+	 * 
+	 * @throws InterruptedException
+	 */
+	private void awaitHeap() throws InterruptedException
+	{
+		Runtime runtime = Runtime.getRuntime();
+		while ( heapBudget > 0 && runningJobs.get() > 0 && runtime.totalMemory() - runtime.freeMemory() > heapBudget )
+		{
+			Thread.sleep( HEAP_WAIT_MILLIS );
+		}
+	}
+	
+	/**
+	 * Create the executor of the jobs, the virtual threads are searched by reflection 
+	 * since they are available only from Java 21.
+	 * @param threads The number of platform threads.
+	 * @param virtualThreads True to use the virtual threads if available.
+	 * @return The executor.
+	 */
+	private static ExecutorService createExecutor( int threads, boolean virtualThreads )
+	{
+		if ( virtualThreads )
+		{
+			try
+			{
+				Method method = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+				return (ExecutorService) method.invoke( null );
+			}
+			catch (NoSuchMethodException e)
+			{
+				log.info( "Virtual threads are not supported, the jobs run on platform threads" );
+			}
+			catch (Exception e)
+			{
+				log.warn( "Unable to create the virtual threads, the jobs run on platform threads", e );
+			}
+		}
+		
+		final AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool( threads, new ThreadFactory() {
+			public Thread newThread( Runnable runnable ) {
+				Thread thread = new Thread( runnable, "export-job-" + count.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		});
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The maximum number of jobs running at the same time.
+	 */
+	public int getMaxConcurrentJobs() {
+		return maxConcurrentJobs;
+	}
+	
+	/**
+	 * @return The number of jobs running.
+	 */
+	public int getRunningJobs() {
+		return runningJobs.get();
+	}
+	
+	/**
+	 * @return The maximum used heap to start a job in bytes, 0 if not limited.
+	 */
+	public long getHeapBudget() {
+		return heapBudget;
+	}
+	
+	/**
+	 * Set the maximum used heap to start a job, a job is started anyway when no other job is running.
+	 * @param heapBudget The heap in bytes, 0 to not limit the jobs.
+	 */
+	public void setHeapBudget(long heapBudget) {
+		this.heapBudget = heapBudget;
+	}
+	
+	public ExportPlanCache getPlanCache() {
+		return planCache;
+	}
+	
+	/**
+	 * Set the cache of the plans shared by the sessions opened later.
+	 * @param planCache The plan cache.
+	 */
+	public void setPlanCache(ExportPlanCache planCache) {
+		this.planCache = planCache;
+	}
+	
+	public Formatters getFormatters() {
+		return formatters;
+	}
+	
+	/**
+	 * Set the formatters shared by the sessions opened later.
+	 * @param formatters The formatters.
+	 */
+	public void setFormatters(Formatters formatters) {
+		this.formatters = formatters;
+	}
+	
+	public TextCache getTextCache() {
+		return textCache;
+	}
+	
+	/**
+	 * Set the cache of the texts shared by the sessions opened later, by default the texts are not cached.
+	 * The cache must only be shared by exporters whose {@link Exporter#getLocale()} 
+	 * is the locale used by {@link Exporter#getText(String)}.
+	 * @param textCache The text cache, null to not cache the texts.
+	 */
+	public void setTextCache(TextCache textCache) {
+		this.textCache = textCache;
+	}
+	
+	public ExportListener getListener() {
+		return listener;
+	}
+	
+	/**
+	 * Set the listener of the exports of the sessions opened later, 
+	 * it receives the events of many exports at the same time.
+	 * @param listener The listener or null.
+	 */
+	public void setListener(ExportListener listener) {
+		this.listener = listener;
+	}
+}
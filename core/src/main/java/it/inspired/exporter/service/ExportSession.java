@@ -0,0 +1,153 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.service;
+
+import it.inspired.exporter.Exporter;
+import it.inspired.exporter.async.ExportJob;
+
+import java.beans.IntrospectionException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A single export job of an {@link ExportService}. The session owns a new exporter sharing 
+ * the plans, the formatters and the texts of the service, that can be configured 
+ * before the export (eg. excluded properties, header). 
+ * A session runs one export and must not be used by many threads, 
+ * a new session must be opened for each export.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportSession 
+{
+	private final ExportService 	service;
+	private final Exporter 			exporter;
+	
+	// True once the export of the session has been requested
+	private boolean started = false;
+	
+	ExportSession( ExportService service, Exporter exporter )
+	{
+		this.service 	= service;
+		this.exporter 	= exporter;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Run the export in the calling thread, waiting for the service to admit it.
+	 * @param items The objects to export.
+	 * @param output The output where the export is written, it is not closed. It must be null, or the attached
+	 *                 output itself, if the exporter streams to an attached output, see {@link Exporter#isOutputAttached()}.
+	 * @return The number of exported rows.
+	 * 
+	 * @throws IOException
+	 * @throws IntrospectionException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 * @throws IllegalStateException If the session has already been used.
+	 */
+	public long export( Iterable<?> items, OutputStream output ) throws IOException, IntrospectionException, IllegalAccessException, InvocationTargetException
+	{
+		ExportJob job = createJob( items.iterator(), total( items ), output );
+		service.admit( job ).run();
+		try
+		{
+			return job.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw (CancellationException) new CancellationException( "Export interrupted" ).initCause( e );
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if ( cause instanceof IOException ) 				throw (IOException) cause;
+			if ( cause instanceof IntrospectionException ) 		throw (IntrospectionException) cause;
+			if ( cause instanceof IllegalAccessException ) 		throw (IllegalAccessException) cause;
+			if ( cause instanceof InvocationTargetException ) 	throw (InvocationTargetException) cause;
+			if ( cause instanceof RuntimeException ) 			throw (RuntimeException) cause;
+			if ( cause instanceof Error ) 						throw (Error) cause;
+			throw new IllegalStateException( cause );
+		}
+	}
+	
+	/**
+	 * Run the export in background using the threads of the service.
+	 * @param items The objects to export.
+	 * @param output The output where the export is written, it is not closed. It must be null, or the attached
+	 *                 output itself, if the exporter streams to an attached output, see {@link Exporter#isOutputAttached()}.
+	 * @return The job, completed with the number of exported rows.
+	 * 
+	 * @throws IllegalStateException If the session has already been used.
+	 */
+	public ExportJob submit( Iterable<?> items, OutputStream output )
+	{
+		return submit( items.iterator(), total( items ), output );
+	}
+	
+	/**
+	 * Run the export in background using the threads of the service.
+	 * @param items The objects to export.
+	 * @param totalRows The number of objects to export or -1 if unknown.
+	 * @param output The output where the export is written, it is not closed. It must be null, or the attached
+	 *                 output itself, if the exporter streams to an attached output, see {@link Exporter#isOutputAttached()}.
+	 * @return The job, completed with the number of exported rows.
+	 * 
+	 * @throws IllegalStateException If the session has already been used.
+	 */
+	public ExportJob submit( Iterator<?> items, long totalRows, OutputStream output )
+	{
+		ExportJob job = createJob( items, totalRows, output );
+		service.execute( job );
+		return job;
+	}
+	
+	private ExportJob createJob( Iterator<?> items, long totalRows, OutputStream output )
+	{
+		if ( started )
+		{
+			throw new IllegalStateException( "The session has already run an export, open a new session" );
+		}
+		ExportJob job = new ExportJob( exporter, items, totalRows, output );
+		started = true;
+		return job;
+	}
+	
+	private static long total( Iterable<?> items )
+	{
+		return ( items instanceof Collection ? ( (Collection<?>) items ).size() : -1 );
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * @return The exporter of the session.
+	 */
+	public Exporter getExporter() {
+		return exporter;
+	}
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.util.List;
+
+/**
+ * Fetches the objects to export one page at a time, using either the offset of the page
+ * (eg. a query with offset and limit) or the last object of the previous page 
+ * (eg. a keyset query selecting the objects whose key follows the key of the last object).
+ * The pages are fetched in order by a single thread, see {@link PrefetchingIterator}, 
+ * which also notifies the pages whose objects have been exported.
+ * 
+ * @author Massimo Romano
+ *
+ * @param <T> The type of the fetched objects.
+ */
+public interface ExportDataSource<T> 
+{
+	/**
+	 * Return the objects of the page following the given object.
+	 * A page shorter than the limit, or empty, is the last one.
+	 * 
+	 * @param last The last object of the previous page, null for the first page.
+	 * @param offset The number of objects fetched before the page.
+	 * @param limit The maximum number of objects of the page.
+	 * @return The objects of the page.
+	 * 
+	 * @throws Exception If the objects can not be fetched.
+	 */
+	public List<T> fetch( T last, long offset, int limit ) throws Exception;
+	
+	/**
+	 * Notify that the objects of the page have been exported, so the resources held for them
+	 * can be released. It is called by the thread fetching the pages, before the next page is fetched,
+	 * so the pages exported after the last page is fetched are not notified. By default nothing is done.
+	 * 
+	 * @param page A page returned by {@link #fetch(Object, long, int)}.
+	 * 
+	 * @throws Exception If the resources can not be released.
+	 */
+	public default void release( List<T> page ) throws Exception {
+	}
+}
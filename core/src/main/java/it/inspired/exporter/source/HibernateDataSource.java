@@ -0,0 +1,120 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.util.List;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+
+/**
+ * Fetches the entities returned by a HQL query one page at a time using offset and limit.
+ * The entities of a page are detached only when the page has been exported, 
+ * see {@link #release(List)}, so they are garbage collected instead of accumulating 
+ * in the persistence context, while the pages not yet exported stay attached.
+ * <p>
+ * When used by a {@link PrefetchingIterator} the session is used by the fetching thread
+ * while the entities are exported by another one. A Session is not thread safe, so the session 
+ * must not be shared and the associations to export must be fetched by the query (eg. using join fetch): 
+ * initializing a lazy association while exporting would use the session at the same time as the fetcher.
+ * <p>
+ * Keyset paging is implemented overriding {@link #createQuery(Object, long)}, eg. selecting 
+ * the entities whose identifier is greater than the identifier of the last one.
+ * 
+ * @author Massimo Romano
+ *
+ * @param <T> The type of the entities.
+ */
+public class HibernateDataSource<T> implements ExportDataSource<T> 
+{
+	private final Session 	session;
+	private final String 	hql;
+	
+	// Pages fetched and not yet released, used only by the fetching thread
+	private int pending = 0;
+	
+	/**
+	 * Create the source for the given query.
+	 * @param session The session used only to fetch the entities.
+	 * @param hql The query, it must define a stable order of the entities.
+	 */
+	public HibernateDataSource( Session session, String hql )
+	{
+		this.session 	= session;
+		this.hql 		= hql;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	@SuppressWarnings("unchecked")
+	public List<T> fetch( T last, long offset, int limit ) 
+	{
+		Query query = createQuery( last, offset );
+		query.setMaxResults( limit );
+		List<T> page = query.list();
+		pending++;
+		return page;
+	}
+	
+	/**
+	 * Detach the entities of the exported page. 
+	 * The session is cleared when all the fetched pages have been exported.
+	 */
+	public void release( List<T> page )
+	{
+		pending--;
+		if ( pending <= 0 )
+		{
+			pending = 0;
+			session.clear();
+		}
+		else
+		{
+			for ( T entity : page )
+			{
+				session.evict( entity );
+			}
+		}
+	}
+	
+	/**
+	 * Create the query returning the page following the given entity.
+	 * The maximum number of results is set by the caller.
+	 * @param last The last entity of the previous page, null for the first page.
+	 * @param offset The number of entities fetched before the page.
+	 * @return The query.
+	 */
+	protected Query createQuery( T last, long offset )
+	{
+		Query query = session.createQuery( hql );
+		// Fails instead of overflowing since the query supports only int offsets
+		query.setFirstResult( Math.toIntExact( offset ) );
+		return query;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public Session getSession() {
+		return session;
+	}
+	
+	public String getHql() {
+		return hql;
+	}
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.util.List;
+
+/**
+ * Supplies the objects to export one page at a time,
+ * eg. running a query with offset and limit.
+ * 
+ * @author Massimo Romano
+ *
+ * @param <T> The type of the supplied objects.
+ */
+public interface PageSupplier<T> 
+{
+	/**
+	 * Return the objects of the given page.
+	 * A page shorter than the page size, or empty, is the last one.
+	 * 
+	 * @param page The page number starting from zero.
+	 * @param pageSize The number of objects in a page.
+	 * @return The objects of the page.
+	 */
+	public List<T> getPage( int page, int pageSize );
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the objects supplied by a {@link PageSupplier} loading a page only
+ * when the objects of the previous one have been consumed, 
+ * so that a single page at a time is kept in memory.
+ * 
+ * @author Massimo Romano
+ *
+ * @param <T> The type of the supplied objects.
+ */
+public class PagedIterator<T> implements Iterator<T> 
+{
+	private final PageSupplier<T> 	supplier;
+	private final int 				pageSize;
+	
+	private List<T> current 	= null;
+	private int 	index 		= 0;
+	private int 	page 		= 0;
+	private boolean last 		= false;
+	
+	public PagedIterator( PageSupplier<T> supplier, int pageSize )
+	{
+		if ( pageSize <= 0 )
+		{
+			throw new IllegalArgumentException( "The page size must be positive" );
+		}
+		this.supplier = supplier;
+		this.pageSize = pageSize;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public boolean hasNext() 
+	{
+		while ( current == null || index >= current.size() )
+		{
+			if ( last )
+			{
+				current = null;
+				return false;
+			}
+			current = supplier.getPage( page++, pageSize );
+			index 	= 0;
+			last 	= ( current == null || current.size() < pageSize );
+			if ( current == null )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public T next() 
+	{
+		if ( !hasNext() )
+		{
+			throw new NoSuchElementException();
+		}
+		return current.get( index++ );
+	}
+	
+	public void remove() 
+	{
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates the objects of an {@link ExportDataSource} fetching the next pages in background
+ * while the objects of the current page are exported, so the time spent waiting for the pages 
+ * overlaps the time spent exporting them.
+ * At most the given number of pages are fetched in advance, so the memory used is bounded:
+ * the fetcher waits when the queue is full.
+ * <p>
+ * The pages whose objects have been exported are passed back to the source, 
+ * see {@link ExportDataSource#release(List)}, by the fetcher before it fetches the next page.
+ * <p>
+ * The iterator must be closed, to stop the fetcher, if it is not iterated to the end.
+ * The fetcher is never interrupted, since interrupting a thread blocked on a JDBC or NIO call
+ * closes the connection: it stops after the page being fetched.
+ * 
+ * @author Massimo Romano
+ *
+ * @param <T> The type of the fetched objects.
+ */
+public class PrefetchingIterator<T> implements Iterator<T>, Closeable
+{
+	/**
+	 * Default number of pages fetched in advance.
+	 */
+	public static final int DEFAULT_PREFETCH_PAGES = 2;
+	
+	// Time the fetcher waits for space in the queue before checking if the iterator is closed
+	private static final long OFFER_MILLIS = 100;
+	
+	private final ExportDataSource<T> 	source;
+	private final int 					pageSize;
+	private final BlockingQueue<Page<T>> queue;
+	
+	// Pages exported, released by the fetcher
+	private final Queue<List<T>> exported = new ConcurrentLinkedQueue<List<T>>();
+	
+	private volatile boolean closed = false;
+	
+	private List<T> current 	= Collections.emptyList();
+	private int 	index 		= 0;
+	private boolean finished 	= false;
+	
+	/**
+	 * Create the iterator fetching the pages in a new daemon thread.
+	 * @param source The source of the objects.
+	 * @param pageSize The number of objects in a page.
+	 */
+	public PrefetchingIterator( ExportDataSource<T> source, int pageSize )
+	{
+		this( source, pageSize, DEFAULT_PREFETCH_PAGES, null );
+	}
+	
+	/**
+	 * Create the iterator.
+	 * @param source The source of the objects.
+	 * @param pageSize The number of objects in a page.
+	 * @param prefetchPages The maximum number of pages fetched in advance.
+	 * @param executor The executor running the fetcher or null to run it in a new daemon thread.
+	 */
+	public PrefetchingIterator( ExportDataSource<T> source, int pageSize, int prefetchPages, Executor executor )
+	{
+		if ( pageSize <= 0 || prefetchPages <= 0 )
+		{
+			throw new IllegalArgumentException( "The page size and the prefetched pages must be positive" );
+		}
+		this.source 	= source;
+		this.pageSize 	= pageSize;
+		this.queue 		= new ArrayBlockingQueue<Page<T>>( prefetchPages );
+		
+		Runnable task = new Runnable() {
+			public void run() {
+				fetch();
+			}
+		};
+		if ( executor != null )
+		{
+			executor.execute( task );
+		}
+		else
+		{
+			Thread thread = new Thread( task, "export-prefetch" );
+			thread.setDaemon( true );
+			thread.start();
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Fetch the pages until the last one, the iterator is closed or the fetch fails.
+	 */
+	private void fetch()
+	{
+		try
+		{
+			T 		last 	= null;
+			long 	offset 	= 0;
+			while ( !closed )
+			{
+				for ( List<T> page = exported.poll(); page != null; page = exported.poll() )
+				{
+					source.release( page );
+				}
+				List<T> page = source.fetch( last, offset, pageSize );
+				int size = ( page == null ? 0 : page.size() );
+				if ( size > 0 )
+				{
+					if ( !put( new Page<T>( page, null ) ) )
+					{
+						return;
+					}
+					offset += size;
+					last = page.get( size - 1 );
+				}
+				if ( size < pageSize )
+				{
+					put( new Page<T>( null, null ) );
+					return;
+				}
+			}
+		}
+		catch (Throwable e)
+		{
+			// The interrupt status is cleared to queue the failure and then restored
+			boolean interrupted = Thread.interrupted() || e instanceof InterruptedException;
+			try
+			{
+				put( new Page<T>( null, e ) );
+			}
+			catch (InterruptedException ie)
+			{
+				interrupted = true;
+			}
+			if ( interrupted )
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Add the page to the queue, waiting for space until the iterator is closed.
+	 * @param page The page to add.
+	 * @return True if added, false if the iterator is closed.
+	 * 
+	 * @throws InterruptedException
+	 */
+	private boolean put( Page<T> page ) throws InterruptedException
+	{
+		while ( !closed )
+		{
+			if ( queue.offer( page, OFFER_MILLIS, TimeUnit.MILLISECONDS ) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public boolean hasNext() 
+	{
+		while ( index >= current.size() )
+		{
+			if ( finished )
+			{
+				return false;
+			}
+			if ( closed )
+			{
+				throw new CancellationException( "The iterator is closed" );
+			}
+			Page<T> page = null;
+			try
+			{
+				page = queue.take();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				close();
+				throw (CancellationException) new CancellationException( "Fetch interrupted" ).initCause( e );
+			}
+			if ( page.error != null )
+			{
+				finished = true;
+				current = Collections.emptyList();
+				if ( page.error instanceof RuntimeException ) 	throw (RuntimeException) page.error;
+				if ( page.error instanceof Error ) 				throw (Error) page.error;
+				throw new IllegalStateException( "Unable to fetch the objects to export", page.error );
+			}
+			if ( page.objects == null )
+			{
+				finished = true;
+				current = Collections.emptyList();
+				return false;
+			}
+			// The previous page is released
+			if ( !current.isEmpty() )
+			{
+				exported.offer( current );
+			}
+			current = page.objects;
+			index 	= 0;
+		}
+		return true;
+	}
+
+	public T next() 
+	{
+		if ( !hasNext() )
+		{
+			throw new NoSuchElementException();
+		}
+		return current.get( index++ );
+	}
+	
+	public void remove() 
+	{
+		throw new UnsupportedOperationException();
+	}
+	
+	/**
+	 * Stop the fetcher and discard the pages fetched in advance.
+	 * The fetcher stops after the page being fetched, if any.
+	 */
+	public void close() 
+	{
+		if ( closed )
+		{
+			return;
+		}
+		closed = true;
+		queue.clear();
+		exported.clear();
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * A fetched page, the end of the pages or the failure of the fetch.
+	 */
+	private static class Page<T>
+	{
+		private final List<T> 	objects;
+		private final Throwable error;
+		
+		private Page( List<T> objects, Throwable error )
+		{
+			this.objects 	= objects;
+			this.error 		= error;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.hibernate.ScrollableResults;
+
+/**
+ * Iterates the entities returned by a Hibernate {@link ScrollableResults}, 
+ * reading the first column of each row. 
+ * The results are not closed by the iterator.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ScrollableResultsIterator implements Iterator<Object> 
+{
+	private final ScrollableResults results;
+	
+	private Boolean available = null;
+	
+	public ScrollableResultsIterator( ScrollableResults results )
+	{
+		this.results = results;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	public boolean hasNext() 
+	{
+		if ( available == null )
+		{
+			available = results.next();
+		}
+		return available;
+	}
+
+	public Object next() 
+	{
+		if ( !hasNext() )
+		{
+			throw new NoSuchElementException();
+		}
+		available = null;
+		return results.get( 0 );
+	}
+	
+	public void remove() 
+	{
+		throw new UnsupportedOperationException();
+	}
+}
@@ -18,12 +18,11 @@
 
 package it.inspired.exporter.utils;
 
+import it.inspired.exporter.handler.ValueHandlers;
+
 import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
-import java.math.BigDecimal;
-import java.sql.Timestamp;
-import java.util.Date;
 
 /**
  * Utility class for bean operation.
@@ -98,12 +97,17 @@ public class BeanUtils {
 		return type.isPrimitive() || isPrimitive( type );
 	}
 	
+	/**
+	 * Check if the values of the class are exported in a single cell, 
+	 * see {@link ValueHandlers#isValueType(Class)}.
+	 * 
+	 * @param type The class to check
+	 * @return True if the class is a value
+	 */
 	@SuppressWarnings("rawtypes")
 	public static boolean isPrimitive( Class type )
 	{
-		return ( type == Integer.class 	 || type == Double.class  || type == String.class     || 
-  				 type == Date.class 	 || type == Boolean.class || type == BigDecimal.class ||
-  				 type == Timestamp.class || type == Long.class );
+		return ValueHandlers.getShared().isValueType( type );
 	}
 	
 	//--------------------------------------------------------------------------------------
@@ -155,6 +159,27 @@ public class BeanUtils {
         return returnValue;
     }
     
+    /**
+     * Return the public getter used by {@link #getProperty(Object, String)} to fetch
+     * the property from the instances of the given class.
+     * 
+     * @param clazz The class declaring the getter
+     * @param property The property name
+     * @return The getter method or null if it does not exist.
+     */
+    public static Method getPropertyGetter(Class<?> clazz, String property) {
+    	if ( StringUtils.isEmpty( property ) ) {
+    		return null;
+    	}
+    	try {
+    		String methodName = "get" + property.substring(0, 1).toUpperCase() + property.substring(1, property.length());
+    		return clazz.getMethod(methodName);
+    	}
+    	catch (NoSuchMethodException e) {
+    		return null;
+    	}
+    }
+    
     //------------------------------------------------------------------------------------
     
     /**
@@ -166,27 +191,28 @@ public class BeanUtils {
      */
     public static String capitalizeMethodName( String methodName )
 	{
-		String res = "";
-		if ( !StringUtils.isEmpty( methodName ) )
+		if ( StringUtils.isEmpty( methodName ) )
+		{
+			return "";
+		}
+		StringBuilder res = new StringBuilder( methodName.length() + 8 );
+		for ( int i = 0; i<methodName.length(); i++ )
 		{
-			for ( int i = 0; i<methodName.length(); i++ )
+			char c = methodName.charAt( i );
+			if ( i == 0 )
+			{
+				res.append( Character.toUpperCase( c ) );
+			}
+			else if ( Character.isUpperCase(c) )
+			{
+				res.append( ' ' ).append( c );
+			}
+			else
 			{
-				Character c = methodName.charAt( i );
-				if ( i == 0 )
-				{
-					res += Character.toUpperCase( c );
-				}
-				else if ( Character.isUpperCase(c) )
-				{
-					res += " " + c;
-				}
-				else
-				{
-					res += c;
-				}
+				res.append( c );
 			}
 		}
-		return res;
+		return res.toString();
 	}
     
     //------------------------------------------------------------------------------------
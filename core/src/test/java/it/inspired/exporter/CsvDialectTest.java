@@ -0,0 +1,153 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperty;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Check the quoting of the exported values for each dialect.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class CsvDialectTest 
+{
+	@ExpoElement
+	public static class Note 
+	{
+		private final String text;
+		
+		public Note( String text ) {
+			this.text = text;
+		}
+		
+		@ExpoProperty(position=1)
+		public Integer getCode() {
+			return 7;
+		}
+		
+		@ExpoProperty(position=2)
+		public String getText() {
+			return text;
+		}
+		
+		@ExpoProperty(position=3)
+		public String getMissing() {
+			return null;
+		}
+	}
+	
+	private static String export( CsvDialect dialect, String... texts ) throws Exception
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setDialect( dialect );
+		Note[] notes = new Note[ texts.length ];
+		for ( int i = 0; i < texts.length; i++ )
+		{
+			notes[i] = new Note( texts[i] );
+		}
+		return exporter.exportText( Arrays.asList( notes ) );
+	}
+	
+	@Test
+	public void testDefaultEnclosesEveryValue() throws Exception
+	{
+		String nl = System.getProperty( "line.separator" );
+		assertEquals( "Code;Text;Missing" + nl 
+				+ "\"7\";\"plain\";" + nl 
+				+ "\"7\";\"say \"\"hi\"\"; bye\";" + nl, 
+				export( CsvDialect.DEFAULT, "plain", "say \"hi\"; bye" ) );
+	}
+	
+	@Test
+	public void testRfc4180EnclosesOnlyWhenNeeded() throws Exception
+	{
+		assertEquals( "Code,Text,Missing\r\n" 
+				+ "7,plain,\r\n" 
+				+ "7,\"a,b\",\r\n" 
+				+ "7,\"say \"\"hi\"\"\",\r\n" 
+				+ "7,\"two\r\nlines\",\r\n" 
+				+ "7,\"line\nfeed\",\r\n" 
+				+ "7,semi;colon,\r\n", 
+				export( CsvDialect.RFC4180, "plain", "a,b", "say \"hi\"", "two\r\nlines", "line\nfeed", "semi;colon" ) );
+	}
+	
+	@Test
+	public void testExcelEnclosesSemicolons() throws Exception
+	{
+		assertEquals( "Code;Text;Missing\r\n" 
+				+ "7;a,b;\r\n" 
+				+ "7;\"semi;colon\";\r\n", 
+				export( CsvDialect.EXCEL, "a,b", "semi;colon" ) );
+	}
+	
+	@Test
+	public void testTabEnclosesTabs() throws Exception
+	{
+		assertEquals( "Code\tText\tMissing\n" 
+				+ "7\ta;b,c\t\n" 
+				+ "7\t\"tab\there\"\t\n", 
+				export( CsvDialect.TAB, "a;b,c", "tab\there" ) );
+	}
+	
+	@Test
+	public void testNeverEnclosesValues() throws Exception
+	{
+		assertEquals( "Code,Text,Missing\n" 
+				+ "7,a,b,\n", 
+				export( new CsvDialect( ",", '"', "\n", CsvDialect.Quoting.NEVER ), "a,b" ) );
+	}
+	
+	@Test
+	public void testCustomEnclosure() throws Exception
+	{
+		assertEquals( "Code|Text|Missing\n" 
+				+ "'7'|'it''s'|\n", 
+				export( new CsvDialect( "|", '\'', "\n", CsvDialect.Quoting.ALWAYS ), "it's" ) );
+	}
+	
+	@Test
+	public void testNeedsQuotes()
+	{
+		CsvDialect dialect = CsvDialect.RFC4180;
+		assertFalse( dialect.needsQuotes( "plain text" ) );
+		assertFalse( dialect.needsQuotes( "" ) );
+		assertTrue( dialect.needsQuotes( "a,b" ) );
+		assertTrue( dialect.needsQuotes( "\"" ) );
+		assertTrue( dialect.needsQuotes( "a\rb" ) );
+		assertTrue( dialect.needsQuotes( "a\nb" ) );
+		assertFalse( dialect.needsQuotes( "caf\u00e8" ) );
+		assertTrue( CsvDialect.TAB.withSeparator( "\u00a7" ).needsQuotes( "a\u00a7b" ) );
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSeparatorRequired()
+	{
+		CsvDialect.DEFAULT.withSeparator( "" );
+	}
+}
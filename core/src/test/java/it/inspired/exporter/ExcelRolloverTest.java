@@ -0,0 +1,140 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Test;
+
+/**
+ * Check the rows written on new sheets when a sheet is full.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExcelRolloverTest 
+{
+	private static final int ROWS 			= 25;
+	private static final int ROWS_PER_SHEET = 10;
+	
+	// The element row and the property row
+	private static final int HEADER_ROWS 	= 2;
+	
+	private static Workbook export( boolean streaming, int parallelism ) throws Exception
+	{
+		TestExcelExporter exporter = new TestExcelExporter();
+		exporter.setStreaming( streaming );
+		if ( streaming )
+		{
+			// The first person has no address, the schema defines the columns of the streamed header
+			exporter.setSchemaType( Person.class );
+		}
+		exporter.setParallelism( parallelism );
+		exporter.setMaxRowsPerSheet( ROWS_PER_SHEET );
+		exporter.init();
+		exporter.export( Fixtures.people( ROWS, true ) );
+		exporter.finalyze();
+		
+		int perSheet = ROWS_PER_SHEET - HEADER_ROWS;
+		assertEquals( ( ROWS + perSheet - 1 ) / perSheet, exporter.getSheetCount() );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write( out );
+		exporter.dispose();
+		return WorkbookFactory.create( new ByteArrayInputStream( out.toByteArray() ) );
+	}
+	
+	private static List<String> cells( Row row )
+	{
+		List<String> cells = new ArrayList<String>();
+		for ( Cell cell : row )
+		{
+			cells.add( cell.getColumnIndex() + "=" + cell.toString() );
+		}
+		return cells;
+	}
+	
+	private static void checkRollover( boolean streaming, int parallelism ) throws Exception
+	{
+		Workbook workbook = export( streaming, parallelism );
+		assertEquals( 4, workbook.getNumberOfSheets() );
+		
+		Sheet first = workbook.getSheetAt( 0 );
+		List<String> names = new ArrayList<String>();
+		for ( int s = 0; s < workbook.getNumberOfSheets(); s++ )
+		{
+			Sheet sheet = workbook.getSheetAt( s );
+			assertTrue( sheet.getSheetName(), sheet.getLastRowNum() < ROWS_PER_SHEET );
+			for ( int r = 0; r < HEADER_ROWS; r++ )
+			{
+				assertEquals( sheet.getSheetName(), cells( first.getRow( r ) ), cells( sheet.getRow( r ) ) );
+			}
+			for ( int r = HEADER_ROWS; r <= sheet.getLastRowNum(); r++ )
+			{
+				names.add( sheet.getRow( r ).getCell( 0 ).getStringCellValue() );
+			}
+		}
+		
+		assertEquals( "Name", first.getRow( 1 ).getCell( 0 ).getStringCellValue() );
+		assertEquals( ROWS, names.size() );
+		for ( int i = 0; i < ROWS; i++ )
+		{
+			assertEquals( "Name" + i, names.get( i ) );
+		}
+	}
+	
+	@Test
+	public void testRollover() throws Exception
+	{
+		checkRollover( false, 1 );
+	}
+	
+	@Test
+	public void testStreamingRollover() throws Exception
+	{
+		checkRollover( true, 1 );
+	}
+	
+	@Test
+	public void testParallelRollover() throws Exception
+	{
+		checkRollover( false, 4 );
+		checkRollover( true, 4 );
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSheetTooSmall()
+	{
+		new TestExcelExporter().setMaxRowsPerSheet( 2 );
+	}
+}
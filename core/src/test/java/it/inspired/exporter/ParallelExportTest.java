@@ -0,0 +1,128 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Check that the rows rendered in parallel are written as by the sequential export.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ParallelExportTest 
+{
+	// Not a multiple of the chunks rendered by each task
+	private static final int ROWS = 1000;
+	
+	private static String export( List<Person> people, int parallelism ) throws Exception
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setParallelism( parallelism );
+		return exporter.exportText( people );
+	}
+	
+	private static String stream( List<Person> people, int parallelism ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setParallelism( parallelism );
+		exporter.setOutputStream( out );
+		exporter.init();
+		exporter.export( people.iterator() );
+		exporter.finalyze();
+		exporter.write( out );
+		return new String( out.toByteArray(), exporter.getCharset() );
+	}
+	
+	@Test
+	public void testParallelMatchesSequential() throws Exception
+	{
+		List<Person> people = Fixtures.people( ROWS, true );
+		String sequential = export( people, 1 );
+		assertEquals( ROWS + 1, sequential.split( System.getProperty( "line.separator" ) ).length );
+		for ( int parallelism : new int[] { 2, 4, 16 } )
+		{
+			assertEquals( "Parallelism " + parallelism, sequential, export( people, parallelism ) );
+		}
+	}
+	
+	@Test
+	public void testParallelStreamingMatchesSequential() throws Exception
+	{
+		List<Person> people = Fixtures.people( ROWS, true );
+		String sequential = stream( people, 1 );
+		assertEquals( ROWS + 1, sequential.split( System.getProperty( "line.separator" ) ).length );
+		assertEquals( sequential, stream( people, 4 ) );
+	}
+	
+	@Test
+	public void testParallelismBoundsRunningTasks() throws Exception
+	{
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		TestTextExporter exporter = new TestTextExporter() {
+			@Override
+			protected String getText( String key ) 
+			{
+				int count = running.incrementAndGet();
+				int max;
+				do
+				{
+					max = maxRunning.get();
+				}
+				while ( max < count && !maxRunning.compareAndSet( max, count ) );
+				Thread.yield();
+				running.decrementAndGet();
+				return super.getText( key );
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool( 8 );
+		try
+		{
+			exporter.setParallelism( 2 );
+			exporter.setExecutor( executor );
+			String parallel = exporter.exportText( Fixtures.people( ROWS, false ) );
+			assertEquals( export( Fixtures.people( ROWS, false ), 1 ), parallel );
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		assertTrue( "Running tasks " + maxRunning.get(), maxRunning.get() <= 2 );
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidParallelism()
+	{
+		new TestTextExporter().setParallelism( 0 );
+	}
+}
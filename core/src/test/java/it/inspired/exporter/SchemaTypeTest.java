@@ -0,0 +1,200 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Test;
+
+/**
+ * Check the columns defined by the schema type before the first row is exported.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class SchemaTypeTest 
+{
+	private static final String HEADER 		= "Name;Birth;Active;T[company.name];Size;Salary;Status;City;Street";
+	private static final String NEWLINE 	= System.getProperty( "line.separator" );
+	
+	/**
+	 * Split the line into values, the separators inside the quoted values are ignored.
+	 */
+	private static List<String> values( String line )
+	{
+		List<String> values = new ArrayList<String>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for ( char c : line.toCharArray() )
+		{
+			if ( c == '"' )
+			{
+				quoted = !quoted;
+			}
+			if ( c == ';' && !quoted )
+			{
+				values.add( value.toString() );
+				value.setLength( 0 );
+			}
+			else
+			{
+				value.append( c );
+			}
+		}
+		values.add( value.toString() );
+		return values;
+	}
+	
+	private static TestTextExporter exporter()
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setSchemaType( Person.class );
+		return exporter;
+	}
+	
+	@Test
+	public void testNullNestedObjects() throws Exception
+	{
+		// The first person has neither address nor company
+		String[] lines = exporter().exportText( Fixtures.people( 12, true ) ).split( NEWLINE );
+		assertEquals( 13, lines.length );
+		assertEquals( HEADER, lines[0] );
+		
+		int columns = values( HEADER ).size();
+		for ( int i = 1; i < lines.length; i++ )
+		{
+			List<String> values = values( lines[i] );
+			assertEquals( lines[i], columns, values.size() );
+			
+			int index = i - 1;
+			boolean company = ( index % 4 != 0 );
+			boolean address = ( index % 3 != 0 );
+			assertEquals( lines[i], company, !values.get( 3 ).isEmpty() );
+			assertEquals( lines[i], company, !values.get( 4 ).isEmpty() );
+			assertEquals( lines[i], address, !values.get( 7 ).isEmpty() );
+			assertEquals( lines[i], address, !values.get( 8 ).isEmpty() );
+		}
+	}
+	
+	@Test
+	public void testSchemaDoesNotDependOnData() throws Exception
+	{
+		String withNulls = exporter().exportText( Fixtures.people( 12, true ) ).split( NEWLINE )[0];
+		String complete  = exporter().exportText( Fixtures.people( 12, false ) ).split( NEWLINE )[0];
+		assertEquals( HEADER, withNulls );
+		assertEquals( HEADER, complete );
+	}
+	
+	@Test
+	public void testEmptyExportWritesHeader() throws Exception
+	{
+		assertEquals( HEADER, exporter().exportText( Collections.emptyList() ).trim() );
+	}
+	
+	@Test
+	public void testStreamingMatchesBuffered() throws Exception
+	{
+		List<Person> people = Fixtures.people( 200, true );
+		String buffered = exporter().exportText( people );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestTextExporter exporter = exporter();
+		exporter.setOutputStream( out );
+		exporter.init();
+		exporter.export( people );
+		exporter.finalyze();
+		exporter.write( out );
+		assertEquals( buffered, new String( out.toByteArray(), exporter.getCharset() ) );
+	}
+	
+	@Test
+	public void testStreamingWithoutSchemaType() throws Exception
+	{
+		// The first person has neither address nor company, its class defines all the columns
+		List<Person> people = Fixtures.people( 24, true );
+		String buffered = exporter().exportText( people );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setOutputStream( out );
+		exporter.init();
+		exporter.export( people.subList( 0, 10 ) );
+		exporter.export( people.subList( 10, 24 ) );
+		exporter.finalyze();
+		exporter.write( out );
+		assertEquals( buffered, new String( out.toByteArray(), exporter.getCharset() ) );
+	}
+	
+	/**
+	 * Stream the people to an XLSX workbook and return the cells of its rows.
+	 */
+	private static List<String> streamExcel( Class<?> schemaType ) throws Exception
+	{
+		TestExcelExporter exporter = new TestExcelExporter();
+		exporter.setStreaming( true );
+		exporter.setSchemaType( schemaType );
+		exporter.init();
+		exporter.export( Fixtures.people( 12, true ) );
+		exporter.finalyze();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write( out );
+		
+		Sheet sheet = WorkbookFactory.create( new ByteArrayInputStream( out.toByteArray() ) ).getSheetAt( 0 );
+		List<String> cells = new ArrayList<String>();
+		for ( Row row : sheet )
+		{
+			for ( Cell cell : row )
+			{
+				cells.add( row.getRowNum() + ":" + cell.getColumnIndex() + "=" + cell.toString() );
+			}
+		}
+		return cells;
+	}
+	
+	@Test
+	public void testExcelStreamingWithoutSchemaType() throws Exception
+	{
+		List<String> cells = streamExcel( null );
+		assertEquals( streamExcel( Person.class ), cells );
+		assertTrue( cells.toString(), cells.contains( "1:8=Street" ) );
+	}
+	
+	@Test
+	public void testParallelMatchesSequential() throws Exception
+	{
+		List<Person> people = Fixtures.people( 500, true );
+		TestTextExporter parallel = exporter();
+		parallel.setParallelism( 4 );
+		assertEquals( exporter().exportText( people ), parallel.exportText( people ) );
+	}
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Text exporter converting the keys into texts without a bundle of messages.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class TestTextExporter extends TextExporter 
+{
+	@Override
+	protected String getText( String key ) {
+		return "T[" + key + "]";
+	}
+	
+	/**
+	 * Export the items and return the written text.
+	 * @param items The objects to export.
+	 * @return The exported text.
+	 * 
+	 * @throws Exception
+	 */
+	public String exportText( Iterable<?> items ) throws Exception
+	{
+		init();
+		export( items );
+		finalyze();
+		return written();
+	}
+	
+	/**
+	 * @return The text written by the exporter.
+	 * 
+	 * @throws IOException
+	 */
+	public String written() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write( out );
+		return new String( out.toByteArray(), getCharset() );
+	}
+}
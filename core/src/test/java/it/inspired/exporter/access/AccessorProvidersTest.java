@@ -0,0 +1,65 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Check the providers generated by the annotation processor for the fixtures.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class AccessorProvidersTest 
+{
+	@Test
+	public void testGeneratedProvider() throws Exception
+	{
+		AccessorProvider provider = AccessorProviders.find( Order.class );
+		assertNotNull( "The processor did not generate the provider", provider );
+		assertSame( Order.class, provider.getType() );
+		assertEquals( "A1", provider.getAccessor( "getNumber" ).get( new Order() ) );
+		assertNull( provider.getAccessor( "getMissing" ) );
+	}
+	
+	@Test
+	public void testNestedClassesDoNotCollide() throws Exception
+	{
+		AccessorProvider nested = AccessorProviders.find( Order.Line.class );
+		AccessorProvider named 	= AccessorProviders.find( Order_Line.class );
+		assertNotNull( nested );
+		assertNotNull( named );
+		assertSame( Order.Line.class, nested.getType() );
+		assertSame( Order_Line.class, named.getType() );
+		assertEquals( 2, nested.getAccessor( "getQuantity" ).get( new Order.Line() ) );
+		assertEquals( "S1", named.getAccessor( "getSku" ).get( new Order_Line() ) );
+	}
+	
+	@Test
+	public void testProviderName()
+	{
+		assertEquals( "com.acme.Order$Line" + AccessorProviders.SUFFIX, AccessorProviders.getProviderName( "com.acme.Order$Line" ) );
+		assertEquals( "com.acme.Order_Line" + AccessorProviders.SUFFIX, AccessorProviders.getProviderName( "com.acme.Order_Line" ) );
+	}
+}
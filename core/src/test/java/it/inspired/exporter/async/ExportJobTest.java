@@ -0,0 +1,238 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.Exporter;
+import it.inspired.exporter.TestExcelExporter;
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Check the cancellation, the progress and the failures of the {@link ExportJob}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportJobTest 
+{
+	/**
+	 * Calls the action before returning the object at the given position.
+	 */
+	private static Iterator<Person> trigger( final List<Person> people, final int position, final Runnable action )
+	{
+		return new Iterator<Person>() {
+			private int next = 0;
+			
+			public boolean hasNext() {
+				return next < people.size();
+			}
+			
+			public Person next() {
+				if ( next == position )
+				{
+					action.run();
+				}
+				return people.get( next++ );
+			}
+			
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	/**
+	 * @return The number of temporary files written by the streaming workbooks.
+	 */
+	private static int streamingFiles()
+	{
+		String[] names = new File( System.getProperty( "java.io.tmpdir" ) ).list();
+		int count = 0;
+		for ( int i = 0; names != null && i < names.length; i++ )
+		{
+			if ( names[i].startsWith( "poi-sxssf" ) )
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	private static TestExcelExporter streamingExporter()
+	{
+		TestExcelExporter exporter = new TestExcelExporter();
+		exporter.setStreaming( true );
+		exporter.setRowWindowSize( 10 );
+		return exporter;
+	}
+	
+	@Test
+	public void testCancelBeforeStart() throws Exception
+	{
+		List<Person> people = Fixtures.people( 10, false );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExportJob job = new ExportJob( new TestTextExporter(), people.iterator(), people.size(), out );
+		assertTrue( job.cancel( true ) );
+		job.run();
+		
+		assertTrue( job.isCancelled() );
+		assertTrue( job.isCancellationRequested() );
+		assertFalse( job.isStarted() );
+		assertEquals( 0, job.getRowsDone() );
+		assertEquals( 0, out.size() );
+	}
+	
+	@Test
+	public void testCancelWhileExporting() throws Exception
+	{
+		int files = streamingFiles();
+		List<Person> people = Fixtures.people( 200, false );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final int[] written = new int[1];
+		final ExportJob[] job = new ExportJob[1];
+		job[0] = new ExportJob( streamingExporter(), trigger( people, 50, new Runnable() {
+			public void run() {
+				written[0] = streamingFiles();
+				job[0].cancel( false );
+			}
+		}), people.size(), out );
+		job[0].run();
+		
+		assertTrue( job[0].isCancelled() );
+		assertTrue( job[0].isStarted() );
+		assertTrue( job[0].getRowsDone() <= 51 );
+		assertEquals( 0, out.size() );
+		try
+		{
+			job[0].get();
+			fail( "The job is cancelled" );
+		}
+		catch (CancellationException e)
+		{
+		}
+		
+		// The rows flushed to the temporary files are discarded
+		assertTrue( written[0] > files );
+		assertEquals( files, streamingFiles() );
+	}
+	
+	@Test
+	public void testTemporaryFilesDeleted() throws Exception
+	{
+		int files = streamingFiles();
+		List<Person> people = Fixtures.people( 200, false );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExportJob job = new ExportJob( streamingExporter(), people.iterator(), people.size(), out );
+		job.run();
+		
+		assertEquals( Long.valueOf( 200 ), job.get() );
+		assertTrue( out.size() > 0 );
+		assertEquals( files, streamingFiles() );
+	}
+	
+	@Test
+	public void testProgressOfKnownTotal() throws Exception
+	{
+		List<Person> people = Fixtures.people( 100, false );
+		final double[] progress = new double[1];
+		final ExportJob[] job = new ExportJob[1];
+		job[0] = new ExportJob( new TestTextExporter(), trigger( people, 50, new Runnable() {
+			public void run() {
+				progress[0] = job[0].getProgress();
+			}
+		}), people.size(), new ByteArrayOutputStream() );
+		assertEquals( 0, job[0].getProgress(), 0 );
+		job[0].run();
+		
+		assertEquals( 0.5, progress[0], 0.01 );
+		assertEquals( 1, job[0].getProgress(), 0 );
+		assertEquals( 100, job[0].getRowsDone() );
+	}
+	
+	@Test
+	public void testProgressOfUnknownTotal() throws Exception
+	{
+		List<Person> people = Fixtures.people( 100, false );
+		final double[] progress = new double[1];
+		final ExportJob[] job = new ExportJob[1];
+		job[0] = new ExportJob( new TestTextExporter(), trigger( people, 50, new Runnable() {
+			public void run() {
+				progress[0] = job[0].getProgress();
+			}
+		}), -1, new ByteArrayOutputStream() );
+		job[0].run();
+		
+		assertEquals( -1, progress[0], 0 );
+		assertEquals( 1, job[0].getProgress(), 0 );
+		assertEquals( Long.valueOf( 100 ), job[0].get() );
+	}
+	
+	@Test
+	public void testFailurePropagated() throws Exception
+	{
+		int files = streamingFiles();
+		List<Person> people = Fixtures.people( 100, false );
+		final IllegalStateException failure = new IllegalStateException( "Connection lost" );
+		Exporter exporter = streamingExporter();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			ExportJob job = exporter.exportAsync( trigger( people, 30, new Runnable() {
+				public void run() {
+					throw failure;
+				}
+			}), people.size(), new ByteArrayOutputStream(), executor );
+			try
+			{
+				job.get( 10, TimeUnit.SECONDS );
+				fail( "The export failed" );
+			}
+			catch (ExecutionException e)
+			{
+				assertSame( failure, e.getCause() );
+			}
+			assertTrue( job.isCompletedExceptionally() );
+			assertFalse( job.isCancelled() );
+			assertTrue( job.getProgress() < 1 );
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		assertEquals( files, streamingFiles() );
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+/**
+ * Check the Excel data formats translated from the patterns of the properties.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExcelFormatsTest 
+{
+	@Test
+	public void testDatePatterns()
+	{
+		assertEquals( "dd/mm/yyyy hh:mm", ExcelFormats.date( "dd/MM/yyyy HH:mm" ) );
+		assertEquals( "yyyy-mm-dd\"T\"hh:mm:ss.000", ExcelFormats.date( "yyyy-MM-dd'T'HH:mm:ss.SSS" ) );
+		assertEquals( "dddd d mmmm yyyy", ExcelFormats.date( "EEEE d MMMM uuuu" ) );
+		assertEquals( "ddd dd mmm yy", ExcelFormats.date( "EEE dd MMM yy" ) );
+		assertEquals( "h:mm AM/PM", ExcelFormats.date( "h:mm a" ) );
+		assertEquals( "hh:mm AM/PM", ExcelFormats.date( "hh:mm" ) );
+		assertEquals( "hh \"o'clock\"", ExcelFormats.date( "HH 'o''clock'" ) );
+		assertEquals( "dd\\'mm", ExcelFormats.date( "dd''MM" ) );
+		
+		// The zones have no equivalent
+		assertEquals( "hh:mm ", ExcelFormats.date( "HH:mm VV" ) );
+	}
+	
+	@Test
+	public void testNumberPatterns()
+	{
+		assertEquals( "#,##0.00", ExcelFormats.number( "#,##0.00", Locale.ITALY ) );
+		assertEquals( "#,##0.00;-#,##0.00", ExcelFormats.number( "#,##0.00;-#,##0.00", Locale.ITALY ) );
+		assertEquals( "0.0%", ExcelFormats.number( "0.0%", Locale.ITALY ) );
+		assertEquals( "0.###E+0", ExcelFormats.number( "0.###E0", Locale.ITALY ) );
+		assertEquals( "#,##0.00 \"\u20ac\"", ExcelFormats.number( "#,##0.00 \u00a4", Locale.ITALY ) );
+		assertEquals( "\"EUR\" #,##0", ExcelFormats.number( "\u00a4\u00a4 #,##0", Locale.ITALY ) );
+		assertEquals( "\"#\"0", ExcelFormats.number( "'#'0", Locale.ITALY ) );
+		assertEquals( "0 \\p\\c\\s", ExcelFormats.number( "0 pcs", Locale.ITALY ) );
+		
+		// No equivalent
+		assertNull( ExcelFormats.number( "#,##0\u2030", Locale.ITALY ) );
+		assertNull( ExcelFormats.number( "\u00a4 0", Locale.ITALIAN ) );
+	}
+	
+	@Test
+	public void testFormatsRenderedByExcel()
+	{
+		Workbook workbook = new HSSFWorkbook();
+		Cell date = workbook.createSheet().createRow( 0 ).createCell( 0 );
+		date.setCellValue( Date.from( LocalDateTime.of( 2024, 3, 1, 13, 45 ).atZone( ZoneId.systemDefault() ).toInstant() ) );
+		CellStyle style = workbook.createCellStyle();
+		style.setDataFormat( workbook.createDataFormat().getFormat( ExcelFormats.date( "dd/MM/yyyy HH:mm" ) ) );
+		date.setCellStyle( style );
+		
+		Cell number = date.getRow().createCell( 1 );
+		number.setCellValue( 1234.5 );
+		style = workbook.createCellStyle();
+		style.setDataFormat( workbook.createDataFormat().getFormat( ExcelFormats.number( "#,##0.00 'pcs'", Locale.ITALY ) ) );
+		number.setCellStyle( style );
+		
+		DataFormatter formatter = new DataFormatter( Locale.US );
+		assertEquals( "01/03/2024 13:45", formatter.formatCellValue( date ) );
+		assertEquals( "1,234.50 pcs", formatter.formatCellValue( number ) );
+	}
+}
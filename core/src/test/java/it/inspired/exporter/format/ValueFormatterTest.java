@@ -0,0 +1,167 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Check the dates and the numbers formatted by the {@link ValueFormatter}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ValueFormatterTest 
+{
+	private static final ZoneId ROME = ZoneId.of( "Europe/Rome" );
+	
+	private final Formatters formatters = new Formatters( Locale.ITALY, ROME );
+	
+	@Test
+	public void testJavaTimeTypes()
+	{
+		ValueFormatter formatter = formatters.get( "yyyy-MM-dd HH:mm" );
+		assertEquals( "2024-03-01 00:00", formatter.format( LocalDate.of( 2024, 3, 1 ) ) );
+		assertEquals( "2024-03-01 13:45", formatter.format( LocalDateTime.of( 2024, 3, 1, 13, 45 ) ) );
+		assertEquals( "1970-01-01 13:45", formatter.format( LocalTime.of( 13, 45 ) ) );
+		
+		// The instants are shown in the zone of the formatters, the zoned values in their own zone
+		assertEquals( "2024-03-01 13:00", formatter.format( Instant.parse( "2024-03-01T12:00:00Z" ) ) );
+		assertEquals( "2024-03-01 12:00", formatter.format( ZonedDateTime.of( 2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC ) ) );
+		assertEquals( "2024-03-01 12:00", formatter.format( OffsetDateTime.of( 2024, 3, 1, 12, 0, 0, 0, ZoneOffset.ofHours( 5 ) ) ) );
+		
+		// The legacy dates are shown in the zone of the formatters too
+		Calendar calendar = Calendar.getInstance( TimeZone.getTimeZone( "UTC" ) );
+		calendar.setTimeInMillis( Instant.parse( "2024-07-01T12:00:00Z" ).toEpochMilli() );
+		assertEquals( "2024-07-01 14:00", formatter.format( calendar ) );
+		assertEquals( "2024-07-01 14:00", formatter.format( calendar.getTime() ) );
+		
+		assertEquals( "venerd\u00ec 1 marzo", formatters.get( "EEEE d MMMM" ).format( LocalDate.of( 2024, 3, 1 ) ) );
+		assertEquals( "", formatter.format( null ) );
+		assertEquals( "text", formatter.format( "text" ) );
+	}
+	
+	@Test
+	public void testRenderedDatesCached()
+	{
+		ValueFormatter formatter = formatters.get( "dd/MM/yyyy HH:mm:ss" );
+		long millis = Instant.parse( "2024-03-01T12:00:00Z" ).toEpochMilli();
+		
+		String text = formatter.format( new Date( millis ) );
+		assertSame( text, formatter.format( new Date( millis ) ) );
+		
+		// A date in the same entry of the cache replaces the cached one
+		long other = millis + 256 * 1000;
+		assertEquals( "01/03/2024 13:04:16", formatter.format( new Date( other ) ) );
+		String again = formatter.format( new Date( millis ) );
+		assertEquals( text, again );
+		assertNotSame( text, again );
+		
+		// The java.time values are cached by value
+		LocalDate date = LocalDate.of( 2024, 3, 1 );
+		String day = formatter.format( date );
+		assertSame( day, formatter.format( LocalDate.of( 2024, 3, 1 ) ) );
+		assertEquals( "02/03/2024 00:00:00", formatter.format( date.plusDays( 1 ) ) );
+	}
+	
+	@Test
+	public void testNumbers()
+	{
+		ValueFormatter formatter = formatters.get( "#,##0.00" );
+		assertEquals( "1.234,50", formatter.format( 1234.5 ) );
+		assertEquals( "1.234,50", formatter.format( 1234.5f ) );
+		assertEquals( "1.234,00", formatter.format( 1234L ) );
+		
+		// The big decimals keep their precision
+		assertEquals( "12.345.678.901.234.567,89", formatter.format( new BigDecimal( "12345678901234567.89" ) ) );
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNumberPatternForDate()
+	{
+		formatters.get( "#,##0.00" ).format( LocalDate.of( 2024, 3, 1 ) );
+	}
+	
+	@Test
+	public void testNumbersFormattedByManyThreads() throws Exception
+	{
+		final ValueFormatter formatter = formatters.get( "#,##0.000" );
+		final DecimalFormat expected = new DecimalFormat( "#,##0.000", DecimalFormatSymbols.getInstance( Locale.ITALY ) );
+		ExecutorService executor = Executors.newFixedThreadPool( 8 );
+		try
+		{
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for ( int t = 0; t < 8; t++ )
+			{
+				final int thread = t;
+				results.add( executor.submit( new Callable<Integer>() {
+					public Integer call() {
+						int errors = 0;
+						for ( int i = 0; i < 20000; i++ )
+						{
+							double value = thread * 1000003.0 + i / 7.0;
+							String text;
+							synchronized ( expected ) 
+							{
+								text = expected.format( value );
+							}
+							if ( !text.equals( formatter.format( value ) ) )
+							{
+								errors++;
+							}
+						}
+						return errors;
+					}
+				}));
+			}
+			for ( Future<Integer> result : results )
+			{
+				assertEquals( Integer.valueOf( 0 ), result.get() );
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+}
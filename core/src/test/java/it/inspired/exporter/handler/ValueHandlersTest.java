@@ -0,0 +1,141 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.annotation.ExpoElement;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.junit.Test;
+
+/**
+ * Check which classes are values and that the cached plans follow the registry.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ValueHandlersTest 
+{
+	@ExpoElement
+	public static class Money
+	{
+		public BigDecimal getAmount() {
+			return new BigDecimal( "12.50" );
+		}
+		
+		public String getCurrency() {
+			return "EUR";
+		}
+	}
+	
+	@ExpoElement
+	public static class Item
+	{
+		public String getName() {
+			return "Pen";
+		}
+		
+		public Money getPrice() {
+			return new Money();
+		}
+		
+		public Short getCount() {
+			return 3;
+		}
+	}
+	
+	public enum Size { SMALL, LARGE }
+	
+	@Test
+	public void testBasicTypes()
+	{
+		ValueHandlers handlers = new ValueHandlers();
+		assertTrue( handlers.isValueType( int.class ) );
+		assertTrue( handlers.isValueType( String.class ) );
+		assertTrue( handlers.isValueType( java.util.Date.class ) );
+		assertTrue( handlers.isValueType( java.sql.Timestamp.class ) );
+		assertTrue( handlers.isValueType( BigDecimal.class ) );
+		
+		// Handled but exported as entities unless all the handled classes are values
+		assertFalse( handlers.isValueType( Short.class ) );
+		assertFalse( handlers.isValueType( Size.class ) );
+		assertFalse( handlers.isValueType( java.sql.Date.class ) );
+		assertFalse( handlers.isValueType( java.time.LocalDate.class ) );
+		
+		int version = handlers.getVersion();
+		handlers.setAllValueTypes( true );
+		assertNotEquals( version, handlers.getVersion() );
+		assertTrue( handlers.isValueType( Short.class ) );
+		assertTrue( handlers.isValueType( Size.class ) );
+		assertTrue( handlers.isValueType( java.sql.Date.class ) );
+		assertTrue( handlers.isValueType( java.time.LocalDate.class ) );
+		assertFalse( handlers.isValueType( Money.class ) );
+	}
+	
+	@Test
+	public void testRegisterRebuildsThePlans() throws Exception
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setEnabledHeader( false );
+		assertEquals( "\"Pen\";\"12.50\";\"EUR\"", exporter.exportText( Arrays.asList( new Item() ) ).trim() );
+		
+		ValueHandlers.getShared().register( Money.class, new ValueHandler() {
+			public void setCell( Cell cell, Object value, ValueContext context ) {
+				cell.setCellValue( toText( value, null, context ) );
+			}
+			public String toText( Object value, String format, ValueContext context ) {
+				Money money = (Money) value;
+				return money.getAmount() + " " + money.getCurrency();
+			}
+			public String getDataFormat( String format, ValueContext context ) {
+				return null;
+			}
+		});
+		
+		// The same exporter builds again the plan of the item
+		assertEquals( "\"Pen\";\"12.50 EUR\"", exporter.exportText( Arrays.asList( new Item() ) ).trim() );
+	}
+	
+	@Test
+	public void testAllValueTypesRebuildsThePlans() throws Exception
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setEnabledHeader( false );
+		exporter.setExcludedProperties( Arrays.asList( "price" ) );
+		assertEquals( "\"Pen\"", exporter.exportText( Arrays.asList( new Item() ) ).trim() );
+		
+		ValueHandlers.getShared().setAllValueTypes( true );
+		try
+		{
+			assertEquals( "\"3\";\"Pen\"", exporter.exportText( Arrays.asList( new Item() ) ).trim() );
+		}
+		finally
+		{
+			ValueHandlers.getShared().setAllValueTypes( false );
+		}
+		assertEquals( "\"Pen\"", exporter.exportText( Arrays.asList( new Item() ) ).trim() );
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+/****
+****/
+
+package it.inspired.exporter.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Check the eviction, the preload and the counters of the text cache.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class TextCacheTest 
+{
+	/**
+	 * Resolve the keys in upper case recording them, the keys ending with "null" have no text
+	 */
+	private static class RecordingResolver implements TextResolver
+	{
+		private final List<String> keys = new ArrayList<String>();
+		
+		public String getText( String key ) 
+		{
+			keys.add( key );
+			return ( key.endsWith( "null" ) ? null : key.toUpperCase() );
+		}
+	}
+	
+	@Test
+	public void testHitsAndMisses()
+	{
+		TextCache cache = new TextCache();
+		RecordingResolver resolver = new RecordingResolver();
+		assertEquals( 0, cache.getHitRate(), 0 );
+		
+		assertEquals( "STATUS.1", cache.getText( "status.", 1, Locale.ITALY, resolver ) );
+		assertEquals( "STATUS.1", cache.getText( "status.", 1, Locale.ITALY, resolver ) );
+		assertEquals( "STATUS.1", cache.getText( "status.", 1, Locale.ITALY, resolver ) );
+		assertEquals( "STATUS.2", cache.getText( "status.", 2, Locale.ITALY, resolver ) );
+		
+		assertEquals( Arrays.asList( "status.1", "status.2" ), resolver.keys );
+		assertEquals( 2, cache.getHits() );
+		assertEquals( 2, cache.getMisses() );
+		assertEquals( 0.5, cache.getHitRate(), 0 );
+		assertEquals( 2, cache.size() );
+		
+		cache.resetStatistics();
+		assertEquals( 0, cache.getHits() );
+		assertEquals( 0, cache.getMisses() );
+		assertEquals( 2, cache.size() );
+	}
+	
+	@Test
+	public void testKeyIncludesPrefixAndLocale()
+	{
+		TextCache cache = new TextCache();
+		RecordingResolver resolver = new RecordingResolver();
+		cache.getText( "status.", 1, Locale.ITALY, resolver );
+		cache.getText( "status.", 1, Locale.UK, resolver );
+		cache.getText( "type.", 1, Locale.ITALY, resolver );
+		assertEquals( "1", cache.getText( null, 1, Locale.ITALY, resolver ) );
+		
+		assertEquals( 4, cache.size() );
+		assertEquals( 0, cache.getHits() );
+		assertEquals( Arrays.asList( "status.1", "status.1", "type.1", "1" ), resolver.keys );
+	}
+	
+	@Test
+	public void testNullTextCached()
+	{
+		TextCache cache = new TextCache();
+		RecordingResolver resolver = new RecordingResolver();
+		assertNull( cache.getText( "status.", null, Locale.ITALY, resolver ) );
+		assertNull( cache.getText( "status.", null, Locale.ITALY, resolver ) );
+		
+		// The missing text is resolved only once
+		assertEquals( Arrays.asList( "status.null" ), resolver.keys );
+		assertEquals( 1, cache.getHits() );
+		assertEquals( 1, cache.getMisses() );
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedEvicted()
+	{
+		TextCache cache = new TextCache( 2 );
+		RecordingResolver resolver = new RecordingResolver();
+		cache.getText( "s.", 1, Locale.ITALY, resolver );
+		cache.getText( "s.", 2, Locale.ITALY, resolver );
+		
+		// The access to 1 makes 2 the eldest text
+		cache.getText( "s.", 1, Locale.ITALY, resolver );
+		cache.getText( "s.", 3, Locale.ITALY, resolver );
+		assertEquals( 2, cache.size() );
+		
+		resolver.keys.clear();
+		cache.getText( "s.", 1, Locale.ITALY, resolver );
+		cache.getText( "s.", 3, Locale.ITALY, resolver );
+		assertEquals( 0, resolver.keys.size() );
+		
+		cache.getText( "s.", 2, Locale.ITALY, resolver );
+		assertEquals( Arrays.asList( "s.2" ), resolver.keys );
+		assertEquals( 2, cache.size() );
+	}
+	
+	@Test
+	public void testPreload()
+	{
+		TextCache cache = new TextCache();
+		RecordingResolver resolver = new RecordingResolver();
+		cache.preload( "status.", Arrays.asList( 1, 2, null ), Locale.ITALY, resolver );
+		assertEquals( 3, cache.size() );
+		assertEquals( 3, resolver.keys.size() );
+		
+		// The preloaded texts are not counted as misses
+		assertEquals( 0, cache.getMisses() );
+		assertEquals( "STATUS.2", cache.getText( "status.", 2, Locale.ITALY, resolver ) );
+		assertNull( cache.getText( "status.", null, Locale.ITALY, resolver ) );
+		assertEquals( 2, cache.getHits() );
+		assertEquals( 3, resolver.keys.size() );
+		
+		cache.clear();
+		assertEquals( 0, cache.size() );
+		assertEquals( "STATUS.2", cache.getText( "status.", 2, Locale.ITALY, resolver ) );
+		assertEquals( 4, resolver.keys.size() );
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxSize()
+	{
+		new TextCache( 0 );
+	}
+}
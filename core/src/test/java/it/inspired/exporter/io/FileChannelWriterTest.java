@@ -0,0 +1,256 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Address;
+import it.inspired.exporter.model.Company;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Check the text encoded by the {@link FileChannelWriter} and the files written by the text exporter.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class FileChannelWriterTest 
+{
+	// Accented letters, the euro sign and an emoji made of a surrogate pair
+	private static final String TEXT = "Citt\u00e0 \u20ac \ud83d\ude00;";
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private FileChannelWriter open( Path file, Charset charset, DirectBufferPool pool ) throws Exception
+	{
+		FileChannel channel = FileChannel.open( file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING );
+		return new FileChannelWriter( channel, charset, pool );
+	}
+	
+	/**
+	 * Encode the text as done by the {@link OutputStreamWriter}.
+	 */
+	private static byte[] encode( String text, Charset charset ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter( out, charset );
+		writer.write( text );
+		writer.close();
+		return out.toByteArray();
+	}
+	
+	private static List<Person> people( int size )
+	{
+		List<Person> people = new ArrayList<Person>( size );
+		for ( int i = 0; i < size; i++ )
+		{
+			people.add( new Person( i, TEXT + i, new Date( 1000000000000L + i * 86400000L ), i % 3, 
+					new BigDecimal( "12.5" ).add( BigDecimal.valueOf( i ) ), i % 2 == 0, 
+					new Address( "Stra\u00dfe " + i, "M\u00fcnchen" ), new Company( "\u00c6 Co", i ) ) );
+		}
+		return people;
+	}
+	
+	@Test
+	public void testSurrogatePairsSplitAcrossWrites() throws Exception
+	{
+		StringBuilder text = new StringBuilder();
+		for ( int i = 0; i < 50; i++ )
+		{
+			text.append( TEXT );
+		}
+		Path file = folder.newFile().toPath();
+		
+		// Single characters in a buffer smaller than the text, every pair is split between two writes
+		FileChannelWriter writer = open( file, StandardCharsets.UTF_8, new DirectBufferPool( FileChannelWriter.MIN_BUFFER_SIZE, 1 ) );
+		for ( int i = 0; i < text.length(); i++ )
+		{
+			writer.write( text.charAt( i ) );
+		}
+		writer.close();
+		assertArrayEquals( encode( text.toString(), StandardCharsets.UTF_8 ), Files.readAllBytes( file ) );
+		
+		// Chunks of odd length ending with the high surrogate
+		writer = open( file, StandardCharsets.UTF_8, new DirectBufferPool( FileChannelWriter.MIN_BUFFER_SIZE, 1 ) );
+		for ( int i = 0; i < text.length(); i += 9 )
+		{
+			writer.write( text.toString(), i, Math.min( 9, text.length() - i ) );
+		}
+		writer.close();
+		assertArrayEquals( encode( text.toString(), StandardCharsets.UTF_8 ), Files.readAllBytes( file ) );
+	}
+	
+	@Test
+	public void testCloseDrainsTheBufferAndFlushesTheEncoder() throws Exception
+	{
+		// The encoder of ISO-2022-JP writes the sequence switching back to ASCII when flushed
+		Charset charset = Charset.forName( "ISO-2022-JP" );
+		String text = "abc \u65e5\u672c\u8a9e";
+		Path file = folder.newFile().toPath();
+		
+		FileChannelWriter writer = open( file, charset, new DirectBufferPool( 1024, 1 ) );
+		writer.write( text );
+		assertEquals( 0, Files.size( file ) );
+		writer.close();
+		
+		byte[] expected = encode( text, charset );
+		assertArrayEquals( expected, Files.readAllBytes( file ) );
+		assertEquals( expected.length, writer.getBytesWritten() );
+		
+		// A trailing high surrogate is replaced as done by the output stream writer
+		writer = open( file, StandardCharsets.UTF_8, new DirectBufferPool( 1024, 1 ) );
+		writer.write( "a\ud83d" );
+		writer.close();
+		assertArrayEquals( encode( "a\ud83d", StandardCharsets.UTF_8 ), Files.readAllBytes( file ) );
+	}
+	
+	@Test
+	public void testBuffersReturnedToThePool() throws Exception
+	{
+		DirectBufferPool pool = new DirectBufferPool( 64, 2 );
+		Path file = folder.newFile().toPath();
+		
+		FileChannelWriter first = open( file, StandardCharsets.UTF_8, pool );
+		FileChannelWriter second = open( folder.newFile().toPath(), StandardCharsets.UTF_8, pool );
+		assertEquals( 0, pool.getPooled() );
+		first.write( TEXT );
+		first.close();
+		assertEquals( 1, pool.getPooled() );
+		
+		// Closing twice does not release the buffer again
+		first.close();
+		assertEquals( 1, pool.getPooled() );
+		second.close();
+		assertEquals( 2, pool.getPooled() );
+		
+		// The pooled buffers are reused cleared
+		ByteBuffer buffer = pool.acquire();
+		assertEquals( 1, pool.getPooled() );
+		assertTrue( buffer.isDirect() );
+		assertEquals( 0, buffer.position() );
+		assertEquals( 64, buffer.limit() );
+		pool.release( buffer );
+		pool.release( ByteBuffer.allocateDirect( 64 ) );
+		assertEquals( 2, pool.getPooled() );
+	}
+	
+	@Test
+	public void testAttachedFileReplaced() throws Exception
+	{
+		List<Person> people = people( 100 );
+		TestTextExporter buffered = new TestTextExporter();
+		buffered.setCharset( StandardCharsets.UTF_8 );
+		buffered.setSchemaType( Person.class );
+		String plain = buffered.exportText( people );
+		
+		// The existing content is truncated
+		File first = folder.newFile();
+		File second = folder.newFile();
+		Files.write( second.toPath(), new byte[ 100000 ] );
+		
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setCharset( StandardCharsets.UTF_8 );
+		exporter.setSchemaType( Person.class );
+		exporter.setOutputFile( first.toPath() );
+		
+		// Attaching another file closes the first one
+		exporter.setOutputFile( second.toPath() );
+		assertEquals( 0, first.length() );
+		
+		exporter.init();
+		exporter.export( people );
+		exporter.finalyze();
+		exporter.writeFile( second.toPath() );
+		
+		assertEquals( 0, first.length() );
+		assertEquals( plain, new String( Files.readAllBytes( second.toPath() ), StandardCharsets.UTF_8 ) );
+	}
+	
+	@Test
+	public void testCharsetSetAfterTheFileIsAttached() throws Exception
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setOutputFile( folder.newFile().toPath() );
+		try
+		{
+			exporter.setCharset( StandardCharsets.UTF_16 );
+			fail( "The charset can not change once the file is attached" );
+		}
+		catch (IllegalStateException e)
+		{
+		}
+		finally
+		{
+			exporter.dispose();
+		}
+		
+		// Detaching the file allows to change the charset
+		exporter.setCharset( StandardCharsets.UTF_16 );
+		assertSame( StandardCharsets.UTF_16, exporter.getCharset() );
+	}
+	
+	@Test
+	public void testWriteFileMatchesWrite() throws Exception
+	{
+		// Enough rows to fill more than one buffer
+		List<Person> people = people( 5000 );
+		for ( Charset charset : new Charset[] { StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1 } )
+		{
+			TestTextExporter exporter = new TestTextExporter();
+			exporter.setCharset( charset );
+			exporter.init();
+			exporter.export( people );
+			exporter.finalyze();
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			exporter.write( out );
+			Path file = folder.newFile().toPath();
+			exporter.writeFile( file );
+			
+			byte[] expected = out.toByteArray();
+			assertTrue( expected.length > DirectBufferPool.DEFAULT_BUFFER_SIZE );
+			assertArrayEquals( charset.name(), expected, Files.readAllBytes( file ) );
+		}
+	}
+}
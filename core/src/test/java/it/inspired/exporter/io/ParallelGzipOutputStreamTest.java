@@ -0,0 +1,181 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+/**
+ * Check the gzip members written by the {@link ParallelGzipOutputStream}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ParallelGzipOutputStreamTest 
+{
+	private static final int BLOCK_SIZE = 1024;
+	
+	private static byte[] data( int size )
+	{
+		byte[] data = new byte[ size ];
+		for ( int i = 0; i < size; i++ )
+		{
+			data[i] = (byte) ( "exporter".charAt( i % 8 ) + ( i / 97 ) % 7 );
+		}
+		return data;
+	}
+	
+	/**
+	 * Read the data decompressing all the gzip members.
+	 */
+	private static byte[] gunzip( byte[] compressed ) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InputStream in = new GZIPInputStream( new ByteArrayInputStream( compressed ) );
+		try
+		{
+			byte[] buffer = new byte[ 4096 ];
+			for ( int read = in.read( buffer ); read > 0; read = in.read( buffer ) )
+			{
+				out.write( buffer, 0, read );
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		return out.toByteArray();
+	}
+	
+	private static byte[] gzip( byte[] data, int parallelism ) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( out, Deflater.DEFAULT_COMPRESSION, BLOCK_SIZE, parallelism, null );
+		gzip.write( data );
+		gzip.close();
+		assertEquals( ( data.length + BLOCK_SIZE - 1 ) / BLOCK_SIZE, gzip.getMembers() );
+		return out.toByteArray();
+	}
+	
+	@Test
+	public void testOneMemberPerBlock() throws Exception
+	{
+		byte[] data = data( 10 * BLOCK_SIZE + 17 );
+		byte[] compressed = gzip( data, 4 );
+		assertEquals( 0x1f, compressed[0] & 0xff );
+		assertEquals( 0x8b, compressed[1] & 0xff );
+		assertArrayEquals( data, gunzip( compressed ) );
+	}
+	
+	@Test
+	public void testOutputDoesNotDependOnParallelism() throws Exception
+	{
+		byte[] data = data( 20 * BLOCK_SIZE );
+		byte[] sequential = gzip( data, 1 );
+		assertArrayEquals( data, gunzip( sequential ) );
+		assertArrayEquals( sequential, gzip( data, 2 ) );
+		assertArrayEquals( sequential, gzip( data, 8 ) );
+	}
+	
+	@Test
+	public void testSingleByteWrites() throws Exception
+	{
+		byte[] data = data( 3 * BLOCK_SIZE + 1 );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( out, Deflater.BEST_SPEED, BLOCK_SIZE, 2, null );
+		for ( byte b : data )
+		{
+			gzip.write( b );
+		}
+		gzip.close();
+		assertEquals( 4, gzip.getMembers() );
+		assertArrayEquals( data, gunzip( out.toByteArray() ) );
+	}
+	
+	@Test
+	public void testFlushWritesAMember() throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( out, Deflater.DEFAULT_COMPRESSION, BLOCK_SIZE, 2, null );
+		gzip.write( data( 10 ) );
+		gzip.flush();
+		assertEquals( 1, gzip.getMembers() );
+		assertArrayEquals( data( 10 ), gunzip( out.toByteArray() ) );
+		
+		gzip.write( data( 10 ) );
+		gzip.close();
+		assertEquals( 2, gzip.getMembers() );
+		assertEquals( 20, gunzip( out.toByteArray() ).length );
+	}
+	
+	@Test
+	public void testEmptyStreamIsValidGzip() throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( out );
+		gzip.close();
+		assertEquals( 1, gzip.getMembers() );
+		assertEquals( 0, gunzip( out.toByteArray() ).length );
+	}
+	
+	@Test(expected = IOException.class)
+	public void testWriteAfterClose() throws Exception
+	{
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( new ByteArrayOutputStream() );
+		gzip.close();
+		gzip.write( 1 );
+	}
+	
+	@Test
+	public void testStreamingExport() throws Exception
+	{
+		// The schema defines the streamed header, the first person has no address
+		List<Person> people = Fixtures.people( 500, true );
+		TestTextExporter buffered = new TestTextExporter();
+		buffered.setSchemaType( Person.class );
+		String plain = buffered.exportText( people );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream( out, Deflater.DEFAULT_COMPRESSION, BLOCK_SIZE, 4, null );
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setSchemaType( Person.class );
+		exporter.setOutputStream( gzip );
+		exporter.init();
+		exporter.export( people );
+		exporter.finalyze();
+		exporter.write( gzip );
+		gzip.close();
+		
+		assertEquals( plain, new String( gunzip( out.toByteArray() ), exporter.getCharset() ) );
+	}
+}
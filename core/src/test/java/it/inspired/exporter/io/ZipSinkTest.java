@@ -0,0 +1,153 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.TestExcelExporter;
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Test;
+
+/**
+ * Check the files written in a zip container by the {@link ZipSink}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ZipSinkTest 
+{
+	private static byte[] read( ZipInputStream in ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[ 4096 ];
+		for ( int read = in.read( buffer ); read > 0; read = in.read( buffer ) )
+		{
+			out.write( buffer, 0, read );
+		}
+		return out.toByteArray();
+	}
+	
+	@Test
+	public void testEntries() throws Exception
+	{
+		// The schema defines the streamed header, the first person has no address
+		List<Person> people = Fixtures.people( 100, true );
+		TestTextExporter buffered = new TestTextExporter();
+		buffered.setSchemaType( Person.class );
+		String plain = buffered.exportText( people );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ZipSink zip = new ZipSink( out );
+		try
+		{
+			TestExcelExporter excel = new TestExcelExporter();
+			excel.init();
+			excel.export( people );
+			excel.finalyze();
+			zip.add( "people.xls", excel );
+			
+			TestTextExporter text = new TestTextExporter();
+			text.setSchemaType( Person.class );
+			text.setOutputStream( zip.openEntry( "people.csv" ) );
+			text.init();
+			text.export( people );
+			text.finalyze();
+			text.write( null );
+		}
+		finally
+		{
+			zip.close();
+		}
+		
+		ZipInputStream in = new ZipInputStream( new ByteArrayInputStream( out.toByteArray() ) );
+		try
+		{
+			ZipEntry entry = in.getNextEntry();
+			assertEquals( "people.xls", entry.getName() );
+			Workbook workbook = WorkbookFactory.create( new ByteArrayInputStream( read( in ) ) );
+			assertEquals( "Name99", workbook.getSheetAt( 0 ).getRow( 101 ).getCell( 0 ).getStringCellValue() );
+			
+			entry = in.getNextEntry();
+			assertEquals( "people.csv", entry.getName() );
+			assertEquals( plain, new String( read( in ), buffered.getCharset() ) );
+			
+			assertNull( in.getNextEntry() );
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+	
+	@Test
+	public void testAttachedOutput() throws Exception
+	{
+		List<Person> people = Fixtures.people( 10, false );
+		TestTextExporter buffered = new TestTextExporter();
+		buffered.setSchemaType( Person.class );
+		String plain = buffered.exportText( people );
+		
+		ByteArrayOutputStream attached = new ByteArrayOutputStream();
+		TestTextExporter text = new TestTextExporter();
+		text.setSchemaType( Person.class );
+		text.setOutputStream( attached );
+		text.init();
+		text.export( people );
+		text.finalyze();
+		
+		ZipSink zip = new ZipSink( new ByteArrayOutputStream() );
+		try
+		{
+			zip.add( "people.csv", text );
+			fail( "The exporter streaming to its own output must be rejected" );
+		}
+		catch (IllegalArgumentException e)
+		{
+		}
+		finally
+		{
+			zip.close();
+		}
+		
+		try
+		{
+			text.write( new ByteArrayOutputStream() );
+			fail( "The rows streamed to the attached output can not be written to another stream" );
+		}
+		catch (IllegalStateException e)
+		{
+		}
+		
+		text.write( attached );
+		assertEquals( plain, new String( attached.toByteArray(), text.getCharset() ) );
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+/****
+****/
+
+package it.inspired.exporter.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.inspired.exporter.TestExcelExporter;
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Check the counters collected by the metrics registered as listener of the exporters.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportMetricsTest 
+{
+	private static final int ROWS = 50;
+	
+	private static TestTextExporter textExporter( ExportMetrics metrics )
+	{
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.setSchemaType( Person.class );
+		exporter.setListener( metrics );
+		return exporter;
+	}
+	
+	@Test
+	public void testTextCounters() throws Exception
+	{
+		List<Person> people = Fixtures.people( ROWS, true );
+		String plain = textExporter( null ).exportText( people );
+		
+		ExportMetrics metrics = new ExportMetrics();
+		String measured = textExporter( metrics ).exportText( people );
+		
+		// The listener does not change the export
+		assertEquals( plain, measured );
+		assertEquals( 1, metrics.getExports() );
+		assertEquals( ROWS, metrics.getRows() );
+		assertEquals( ROWS * 9, metrics.getCells() );
+		assertEquals( measured.getBytes( new TestTextExporter().getCharset() ).length, metrics.getBytes() );
+		
+		// All the rows are kept in memory until they are written
+		assertEquals( ROWS, metrics.getPeakBufferedRows() );
+		
+		assertTrue( metrics.getCount( ExportPhase.GETTER ) > 0 );
+		assertTrue( metrics.getCount( ExportPhase.FORMAT ) > 0 );
+		assertEquals( 1, metrics.getCount( ExportPhase.FINALYZE ) );
+		assertEquals( 1, metrics.getCount( ExportPhase.WRITE ) );
+		
+		metrics.reset();
+		assertEquals( 0, metrics.getExports() );
+		assertEquals( 0, metrics.getRows() );
+		assertEquals( 0, metrics.getBytes() );
+		assertEquals( 0, metrics.getPeakBufferedRows() );
+		assertEquals( 0, metrics.getCount( ExportPhase.WRITE ) );
+	}
+	
+	@Test
+	public void testStreamingTextRetainsNoRows() throws Exception
+	{
+		ExportMetrics metrics = new ExportMetrics();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestTextExporter exporter = textExporter( metrics );
+		exporter.setOutputStream( out );
+		exporter.init();
+		exporter.export( Fixtures.people( ROWS, true ) );
+		exporter.finalyze();
+		exporter.write( out );
+		
+		assertEquals( ROWS, metrics.getRows() );
+		assertEquals( out.size(), metrics.getBytes() );
+		assertEquals( 0, metrics.getPeakBufferedRows() );
+	}
+	
+	@Test
+	public void testParallelBufferedRows() throws Exception
+	{
+		ExportMetrics metrics = new ExportMetrics();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestTextExporter exporter = textExporter( metrics );
+		exporter.setOutputStream( out );
+		exporter.setParallelism( 2 );
+		exporter.init();
+		exporter.export( Fixtures.people( ROWS, true ) );
+		exporter.finalyze();
+		exporter.write( out );
+		
+		assertEquals( ROWS, metrics.getRows() );
+		assertTrue( metrics.getPeakBufferedRows() > 0 );
+		assertTrue( metrics.getPeakBufferedRows() <= ROWS );
+	}
+	
+	@Test
+	public void testExcelCounters() throws Exception
+	{
+		ExportMetrics metrics = new ExportMetrics();
+		TestExcelExporter exporter = new TestExcelExporter();
+		exporter.setListener( metrics );
+		exporter.init();
+		exporter.export( Fixtures.people( ROWS, false ) );
+		exporter.finalyze();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write( out );
+		
+		assertEquals( 1, metrics.getExports() );
+		assertEquals( ROWS, metrics.getRows() );
+		assertEquals( out.size(), metrics.getBytes() );
+		
+		// The whole workbook is kept in memory
+		assertEquals( ROWS, metrics.getPeakBufferedRows() );
+	}
+	
+	@Test
+	public void testStreamingExcelRetainsNoRows() throws Exception
+	{
+		ExportMetrics metrics = new ExportMetrics();
+		TestExcelExporter exporter = new TestExcelExporter();
+		exporter.setStreaming( true );
+		exporter.setSchemaType( Person.class );
+		exporter.setListener( metrics );
+		exporter.init();
+		exporter.export( Fixtures.people( ROWS, false ) );
+		exporter.finalyze();
+		exporter.write( new ByteArrayOutputStream() );
+		
+		assertEquals( ROWS, metrics.getRows() );
+		assertEquals( 0, metrics.getPeakBufferedRows() );
+	}
+	
+	@Test
+	public void testSharedByExporters() throws Exception
+	{
+		ExportMetrics metrics = new ExportMetrics();
+		textExporter( metrics ).exportText( Fixtures.people( ROWS, true ) );
+		textExporter( metrics ).exportText( Fixtures.people( ROWS * 2, true ) );
+		
+		assertEquals( 2, metrics.getExports() );
+		assertEquals( ROWS * 3, metrics.getRows() );
+		assertEquals( ROWS * 2, metrics.getPeakBufferedRows() );
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.model;
+
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperty;
+
+/**
+ * Exported address.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@ExpoElement(labelKey="address")
+public class Address 
+{
+	private String street;
+	private String city;
+	
+	public Address( String street, String city )
+	{
+		this.street = street;
+		this.city 	= city;
+	}
+	
+	@ExpoProperty(position=2)
+	public String getStreet() {
+		return street;
+	}
+	
+	@ExpoProperty(position=1)
+	public String getCity() {
+		return city;
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.model;
+
+/**
+ * Company exported through the properties selected by {@link Person#getCompany()}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class Company 
+{
+	private String 	name;
+	private Integer size;
+	
+	public Company( String name, Integer size )
+	{
+		this.name = name;
+		this.size = size;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public Integer getSize() {
+		return size;
+	}
+}
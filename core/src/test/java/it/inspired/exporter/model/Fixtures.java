@@ -0,0 +1,54 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data exported by the tests.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public final class Fixtures 
+{
+	private Fixtures() {}
+	
+	/**
+	 * Create the people to export.
+	 * @param size The number of people.
+	 * @param nulls True to leave some addresses and companies null.
+	 * @return The people.
+	 */
+	public static List<Person> people( int size, boolean nulls )
+	{
+		List<Person> people = new ArrayList<Person>( size );
+		for ( int i = 0; i < size; i++ )
+		{
+			Address address = ( nulls && i % 3 == 0 ? null : new Address( "Street;" + i, "City" + ( i % 5 ) ) );
+			Company company = ( nulls && i % 4 == 0 ? null : new Company( "Co\"" + ( i % 2 ) + "\"", i * 10 ) );
+			people.add( new Person( i, "Name" + i, new Date( 1000000000000L + i * 86400000L ), i % 3, 
+					new BigDecimal( "12.5" ).add( BigDecimal.valueOf( i ) ), i % 2 == 0, address, company ) );
+		}
+		return people;
+	}
+}
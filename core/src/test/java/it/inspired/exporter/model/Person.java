@@ -0,0 +1,95 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.model;
+
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperties;
+import it.inspired.exporter.annotation.ExpoProperty;
+import it.inspired.exporter.annotation.Unexportable;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Exported person, with an address and a company exported as nested objects.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@ExpoElement
+public class Person 
+{
+	private Integer 	id;
+	private String 		name;
+	private Date 		birth;
+	private Integer 	status;
+	private BigDecimal 	salary;
+	private Boolean 	active;
+	private Address 	address;
+	private Company 	company;
+	
+	public Person( Integer id, String name, Date birth, Integer status, BigDecimal salary, Boolean active, Address address, Company company )
+	{
+		this.id 		= id;
+		this.name 		= name;
+		this.birth 		= birth;
+		this.status 	= status;
+		this.salary 	= salary;
+		this.active 	= active;
+		this.address 	= address;
+		this.company 	= company;
+	}
+	
+	@Unexportable
+	public Integer getId() {
+		return id;
+	}
+	
+	@ExpoProperty(position=1)
+	public String getName() {
+		return name;
+	}
+	
+	@ExpoProperty(position=2, format="yyyy-MM-dd")
+	public Date getBirth() {
+		return birth;
+	}
+	
+	@ExpoProperty(prefixKey="status.")
+	public Integer getStatus() {
+		return status;
+	}
+	
+	public BigDecimal getSalary() {
+		return salary;
+	}
+	
+	public Boolean getActive() {
+		return active;
+	}
+	
+	public Address getAddress() {
+		return address;
+	}
+	
+	@ExpoProperties(property={@ExpoProperty(value="name", position=1, labelKey="company.name"), @ExpoProperty(value="size", position=2)})
+	public Company getCompany() {
+		return company;
+	}
+}
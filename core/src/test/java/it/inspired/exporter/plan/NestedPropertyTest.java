@@ -0,0 +1,150 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+/****
+****/
+
+package it.inspired.exporter.plan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.access.AccessorFactory;
+import it.inspired.exporter.access.PropertyAccessor;
+import it.inspired.exporter.access.ReflectionAccessorFactory;
+import it.inspired.exporter.annotation.ExpoElement;
+import it.inspired.exporter.annotation.ExpoProperties;
+import it.inspired.exporter.annotation.ExpoProperty;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Check the nested properties not declared by the type of the property, 
+ * read from the actual class of the objects.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class NestedPropertyTest 
+{
+	public static class Shape
+	{
+	}
+	
+	public static class Square extends Shape
+	{
+		public String getCode() {
+			return "SQ";
+		}
+	}
+	
+	public static class Circle extends Shape
+	{
+	}
+	
+	public static class Broken extends Shape
+	{
+		public String getCode() {
+			throw new IllegalStateException( "Broken" );
+		}
+	}
+	
+	@ExpoElement
+	public static class Drawing
+	{
+		@ExpoProperties(property={@ExpoProperty(value="code")})
+		public Shape getShape() {
+			return new Square();
+		}
+	}
+	
+	/**
+	 * Record the getters of the created accessors
+	 */
+	private static class RecordingFactory implements AccessorFactory
+	{
+		private final List<Method> 			getters = new ArrayList<Method>();
+		private final AccessorFactory 		factory = new ReflectionAccessorFactory();
+		
+		public PropertyAccessor create( Method getter ) 
+		{
+			getters.add( getter );
+			return factory.create( getter );
+		}
+	}
+	
+	private static NestedProperty code( AccessorFactory factory ) throws Exception
+	{
+		for ( PropertyStep step : ExportPlan.compile( Drawing.class, factory ).getSteps() )
+		{
+			if ( step.getType() == PropertyStep.Type.NESTED )
+			{
+				return step.getNested().get( 0 );
+			}
+		}
+		throw new AssertionError( "Nested property not found" );
+	}
+	
+	@Test
+	public void testAccessorCachedByClass() throws Exception
+	{
+		RecordingFactory factory = new RecordingFactory();
+		NestedProperty code = code( factory );
+		int created = factory.getters.size();
+		
+		for ( int i = 0; i < 3; i++ )
+		{
+			assertEquals( "SQ", code.getValue( new Square() ) );
+		}
+		assertEquals( created + 1, factory.getters.size() );
+		assertEquals( Square.class.getMethod( "getCode" ), factory.getters.get( created ) );
+	}
+	
+	@Test
+	public void testMissingProperty() throws Exception
+	{
+		RecordingFactory factory = new RecordingFactory();
+		NestedProperty code = code( factory );
+		int created = factory.getters.size();
+		
+		assertNull( code.getValue( new Circle() ) );
+		assertNull( code.getValue( new Circle() ) );
+		assertNull( code.getValue( null ) );
+		assertEquals( created, factory.getters.size() );
+	}
+	
+	@Test
+	public void testGetterExceptionPropagated() throws Exception
+	{
+		NestedProperty code = code( new RecordingFactory() );
+		try
+		{
+			code.getValue( new Broken() );
+			fail( "The exception of the getter must not be swallowed" );
+		}
+		catch (InvocationTargetException e)
+		{
+			assertEquals( IllegalStateException.class, e.getCause().getClass() );
+		}
+	}
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+package it.inspired.exporter.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.Exporter;
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.async.ExportJob;
+import it.inspired.exporter.model.Address;
+import it.inspired.exporter.model.Company;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+import it.inspired.exporter.plan.ExportPlan;
+import it.inspired.exporter.plan.ExportPlanCache;
+
+import java.beans.IntrospectionException;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Check the admission of the jobs by the {@link ExportService} and the state shared by its sessions.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class ExportServiceTest 
+{
+	private static final ExporterFactory factory = new ExporterFactory() {
+		public Exporter create() {
+			return new TestTextExporter();
+		}
+	};
+	
+	// Jobs exporting the blocking objects
+	private final AtomicInteger 	active 	= new AtomicInteger();
+	private final AtomicInteger 	peak 	= new AtomicInteger();
+	private final CountDownLatch 	release = new CountDownLatch( 1 );
+	
+	private ExportService service;
+	
+	@After
+	public void shutdown()
+	{
+		release.countDown();
+		if ( service != null )
+		{
+			service.shutdown();
+		}
+	}
+	
+	/**
+	 * Return objects whose export, once started, waits for the release.
+	 */
+	private Iterable<Person> blocking( final List<Person> people )
+	{
+		return new Iterable<Person>() {
+			public Iterator<Person> iterator() {
+				return new Iterator<Person>() {
+					private int next = 0;
+					
+					public boolean hasNext() {
+						if ( next < people.size() )
+						{
+							return true;
+						}
+						active.decrementAndGet();
+						return false;
+					}
+					
+					public Person next() {
+						if ( next == 0 )
+						{
+							int running = active.incrementAndGet();
+							while ( peak.get() < running && !peak.compareAndSet( peak.get(), running ) );
+							try
+							{
+								release.await( 10, TimeUnit.SECONDS );
+							}
+							catch (InterruptedException e)
+							{
+								Thread.currentThread().interrupt();
+							}
+						}
+						return people.get( next++ );
+					}
+					
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+	
+	private static void waitUntil( AtomicInteger value, int expected ) throws InterruptedException
+	{
+		for ( int i = 0; i < 500 && value.get() != expected; i++ )
+		{
+			Thread.sleep( 10 );
+		}
+		assertEquals( expected, value.get() );
+	}
+	
+	@Test
+	public void testConcurrentJobsLimited() throws Exception
+	{
+		service = new ExportService( factory, 2 );
+		List<ExportJob> jobs = new ArrayList<ExportJob>();
+		for ( int i = 0; i < 5; i++ )
+		{
+			jobs.add( service.submit( blocking( Fixtures.people( 10, false ) ), new ByteArrayOutputStream() ) );
+		}
+		waitUntil( active, 2 );
+		Thread.sleep( 100 );
+		assertEquals( 2, active.get() );
+		assertEquals( 2, service.getRunningJobs() );
+		
+		int started = 0;
+		for ( ExportJob job : jobs )
+		{
+			started += ( job.isStarted() ? 1 : 0 );
+		}
+		assertEquals( 2, started );
+		
+		release.countDown();
+		for ( ExportJob job : jobs )
+		{
+			assertEquals( Long.valueOf( 10 ), job.get( 10, TimeUnit.SECONDS ) );
+		}
+		assertEquals( 2, peak.get() );
+	}
+	
+	@Test
+	public void testHeapBudget() throws Exception
+	{
+		// The budget is always exceeded, a job starts only when no other job is running
+		service = new ExportService( factory, 2 );
+		service.setHeapBudget( 1 );
+		ExportJob first = service.submit( blocking( Fixtures.people( 10, false ) ), new ByteArrayOutputStream() );
+		waitUntil( active, 1 );
+		
+		ExportJob second = service.submit( Fixtures.people( 10, false ), new ByteArrayOutputStream() );
+		Thread.sleep( 200 );
+		assertFalse( second.isStarted() );
+		assertEquals( 1, service.getRunningJobs() );
+		
+		release.countDown();
+		assertEquals( Long.valueOf( 10 ), first.get( 10, TimeUnit.SECONDS ) );
+		assertEquals( Long.valueOf( 10 ), second.get( 10, TimeUnit.SECONDS ) );
+	}
+	
+	@Test
+	public void testInterruptedWhileWaiting() throws Exception
+	{
+		service = new ExportService( factory, 1 );
+		ExportJob first = service.submit( blocking( Fixtures.people( 10, false ) ), new ByteArrayOutputStream() );
+		waitUntil( active, 1 );
+		
+		// The export in the calling thread waits for the running job
+		final Object[] result = new Object[2];
+		final ExportSession session = service.openSession();
+		Thread thread = new Thread() {
+			public void run() {
+				try
+				{
+					result[0] = session.export( Fixtures.people( 10, false ), new ByteArrayOutputStream() );
+				}
+				catch (Exception e)
+				{
+					result[0] = e;
+					result[1] = Thread.currentThread().isInterrupted();
+				}
+			}
+		};
+		thread.start();
+		for ( int i = 0; i < 500 && thread.getState() != Thread.State.WAITING; i++ )
+		{
+			Thread.sleep( 10 );
+		}
+		thread.interrupt();
+		thread.join( 5000 );
+		
+		assertTrue( String.valueOf( result[0] ), result[0] instanceof CancellationException );
+		assertEquals( Boolean.TRUE, result[1] );
+		
+		release.countDown();
+		assertEquals( Long.valueOf( 10 ), first.get( 10, TimeUnit.SECONDS ) );
+	}
+	
+	@Test
+	public void testWarmUpSharesThePlans() throws Exception
+	{
+		final Queue<Class<?>> compiled = new ConcurrentLinkedQueue<Class<?>>();
+		ExportPlanCache cache = new ExportPlanCache() {
+			@Override
+			protected ExportPlan compile( Class<?> type ) throws IntrospectionException {
+				compiled.add( type );
+				return super.compile( type );
+			}
+		};
+		service = new ExportService( factory, 4 );
+		service.setPlanCache( cache );
+		service.warmUp( Person.class, Address.class, Company.class );
+		assertEquals( 3, compiled.size() );
+		
+		List<Person> people = Fixtures.people( 50, true );
+		List<ExportJob> jobs = new ArrayList<ExportJob>();
+		List<ByteArrayOutputStream> outputs = new ArrayList<ByteArrayOutputStream>();
+		for ( int i = 0; i < 4; i++ )
+		{
+			outputs.add( new ByteArrayOutputStream() );
+			jobs.add( service.submit( people, outputs.get( i ) ) );
+		}
+		for ( ExportJob job : jobs )
+		{
+			assertEquals( Long.valueOf( 50 ), job.get( 10, TimeUnit.SECONDS ) );
+		}
+		
+		// The jobs did not introspect the classes again
+		for ( Class<?> type : new Class<?>[] { Person.class, Address.class, Company.class } )
+		{
+			assertEquals( type.getName(), 1, Collections.frequency( compiled, type ) );
+		}
+		for ( ByteArrayOutputStream out : outputs )
+		{
+			assertArrayEquals( outputs.get( 0 ).toByteArray(), out.toByteArray() );
+		}
+	}
+	
+	@Test
+	public void testSessionRunsOneExport() throws Exception
+	{
+		service = new ExportService( factory, 1 );
+		ExportSession session = service.openSession();
+		assertEquals( 10, session.export( Fixtures.people( 10, false ), new ByteArrayOutputStream() ) );
+		try
+		{
+			session.submit( Fixtures.people( 10, false ), new ByteArrayOutputStream() );
+			fail( "The session has already run an export" );
+		}
+		catch (IllegalStateException e)
+		{
+		}
+		
+		session = service.openSession();
+		session.submit( Fixtures.people( 10, false ), new ByteArrayOutputStream() ).get( 10, TimeUnit.SECONDS );
+		try
+		{
+			session.export( Fixtures.people( 10, false ), new ByteArrayOutputStream() );
+			fail( "The session has already run an export" );
+		}
+		catch (IllegalStateException e)
+		{
+		}
+	}
+}
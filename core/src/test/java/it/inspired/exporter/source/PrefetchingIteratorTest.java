@@ -0,0 +1,267 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.inspired.exporter.TestTextExporter;
+import it.inspired.exporter.model.Fixtures;
+import it.inspired.exporter.model.Person;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Check the pages fetched in background by the {@link PrefetchingIterator}.
+ * 
+ * @author Massimo Romano
+ *
+ */
+public class PrefetchingIteratorTest 
+{
+	/**
+	 * Source of the integers from 0 to size, recording the fetches.
+	 */
+	private static class Numbers implements ExportDataSource<Integer>
+	{
+		private final int size;
+		
+		private final List<Long> 	offsets 	= Collections.synchronizedList( new ArrayList<Long>() );
+		private final List<Integer> lasts 		= Collections.synchronizedList( new ArrayList<Integer>() );
+		private volatile Thread 	fetcher;
+		
+		private Numbers( int size ) {
+			this.size = size;
+		}
+		
+		public List<Integer> fetch( Integer last, long offset, int limit ) throws Exception
+		{
+			fetcher = Thread.currentThread();
+			offsets.add( offset );
+			lasts.add( last );
+			List<Integer> page = new ArrayList<Integer>();
+			for ( long i = offset; i < Math.min( size, offset + limit ); i++ )
+			{
+				page.add( (int) i );
+			}
+			return page;
+		}
+	}
+	
+	private static <T> List<T> drain( PrefetchingIterator<T> iterator )
+	{
+		List<T> objects = new ArrayList<T>();
+		while ( iterator.hasNext() )
+		{
+			objects.add( iterator.next() );
+		}
+		return objects;
+	}
+	
+	@Test
+	public void testIteratesThePagesInOrder()
+	{
+		Numbers source = new Numbers( 105 );
+		List<Integer> numbers = drain( new PrefetchingIterator<Integer>( source, 10 ) );
+		
+		assertEquals( 105, numbers.size() );
+		for ( int i = 0; i < numbers.size(); i++ )
+		{
+			assertEquals( i, numbers.get( i ).intValue() );
+		}
+		assertEquals( 11, source.offsets.size() );
+		for ( int page = 0; page < source.offsets.size(); page++ )
+		{
+			assertEquals( page * 10L, source.offsets.get( page ).longValue() );
+			assertEquals( page == 0 ? null : Integer.valueOf( page * 10 - 1 ), source.lasts.get( page ) );
+		}
+		assertNotSame( Thread.currentThread(), source.fetcher );
+	}
+	
+	@Test
+	public void testFullLastPageIsFollowedByAnEmptyPage()
+	{
+		Numbers source = new Numbers( 30 );
+		assertEquals( 30, drain( new PrefetchingIterator<Integer>( source, 10, 1, null ) ).size() );
+		assertEquals( 4, source.offsets.size() );
+	}
+	
+	@Test
+	public void testEmptySource()
+	{
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>( new Numbers( 0 ), 10 );
+		assertFalse( iterator.hasNext() );
+		assertFalse( iterator.hasNext() );
+	}
+	
+	@Test
+	public void testReleasesOnlyExportedPages()
+	{
+		final AtomicInteger consumed = new AtomicInteger();
+		final List<Integer> released = Collections.synchronizedList( new ArrayList<Integer>() );
+		final AtomicBoolean early = new AtomicBoolean();
+		final Numbers numbers = new Numbers( 100 );
+		ExportDataSource<Integer> source = new ExportDataSource<Integer>() {
+			public List<Integer> fetch( Integer last, long offset, int limit ) throws Exception {
+				return numbers.fetch( last, offset, limit );
+			}
+			
+			@Override
+			public void release( List<Integer> page ) 
+			{
+				// The last object of the page must have been returned to the consumer
+				if ( page.get( page.size() - 1 ) >= consumed.get() )
+				{
+					early.set( true );
+				}
+				released.addAll( page );
+			}
+		};
+		
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>( source, 10, 1, null );
+		while ( iterator.hasNext() )
+		{
+			iterator.next();
+			consumed.incrementAndGet();
+		}
+		
+		assertFalse( "A page was released before being exported", early.get() );
+		assertFalse( released.isEmpty() );
+		for ( int i = 0; i < released.size(); i++ )
+		{
+			assertEquals( i, released.get( i ).intValue() );
+		}
+	}
+	
+	@Test
+	public void testFetchFailure()
+	{
+		ExportDataSource<Integer> source = new ExportDataSource<Integer>() {
+			public List<Integer> fetch( Integer last, long offset, int limit ) throws Exception {
+				if ( offset > 0 )
+				{
+					throw new IOException( "Connection lost" );
+				}
+				return Collections.nCopies( limit, 1 );
+			}
+		};
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>( source, 10 );
+		try
+		{
+			drain( iterator );
+			fail( "The failure of the fetch is not thrown" );
+		}
+		catch (IllegalStateException e)
+		{
+			assertTrue( e.getCause() instanceof IOException );
+		}
+		assertFalse( iterator.hasNext() );
+	}
+	
+	@Test
+	public void testRuntimeFailureIsRethrown()
+	{
+		final IllegalArgumentException failure = new IllegalArgumentException( "Bad query" );
+		ExportDataSource<Integer> source = new ExportDataSource<Integer>() {
+			public List<Integer> fetch( Integer last, long offset, int limit ) {
+				throw failure;
+			}
+		};
+		try
+		{
+			new PrefetchingIterator<Integer>( source, 10 ).hasNext();
+			fail( "The failure of the fetch is not thrown" );
+		}
+		catch (IllegalArgumentException e)
+		{
+			assertSame( failure, e );
+		}
+	}
+	
+	@Test
+	public void testCloseStopsTheFetcherWithoutInterrupting() throws Exception
+	{
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		ExportDataSource<Integer> endless = new ExportDataSource<Integer>() {
+			public List<Integer> fetch( Integer last, long offset, int limit ) {
+				if ( Thread.currentThread().isInterrupted() )
+				{
+					interrupted.set( true );
+				}
+				return Collections.nCopies( limit, (int) offset );
+			}
+		};
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>( endless, 10, 1, executor );
+		assertEquals( 0, iterator.next().intValue() );
+		iterator.close();
+		
+		executor.shutdown();
+		assertTrue( "The fetcher did not stop", executor.awaitTermination( 5, TimeUnit.SECONDS ) );
+		assertFalse( interrupted.get() );
+		
+		// The objects of the current page are still returned, the next pages are discarded
+		for ( int i = 1; i < 10; i++ )
+		{
+			assertEquals( 0, iterator.next().intValue() );
+		}
+		try
+		{
+			iterator.next();
+			fail( "The closed iterator returned a discarded page" );
+		}
+		catch (CancellationException e)
+		{
+			assertNull( e.getCause() );
+		}
+	}
+	
+	@Test
+	public void testExportMatchesList() throws Exception
+	{
+		final List<Person> people = Fixtures.people( 250, true );
+		ExportDataSource<Person> source = new ExportDataSource<Person>() {
+			public List<Person> fetch( Person last, long offset, int limit ) {
+				return new ArrayList<Person>( people.subList( (int) offset, (int) Math.min( people.size(), offset + limit ) ) );
+			}
+		};
+		
+		TestTextExporter exporter = new TestTextExporter();
+		exporter.init();
+		exporter.export( source, 40 );
+		exporter.finalyze();
+		assertEquals( new TestTextExporter().exportText( people ), exporter.written() );
+	}
+}
@@ -0,0 +1,246 @@
+/*******************************************************************************
+* Inspired Model Exporter is a framework to export data from pojo class.
+* Copyright (C) 2016 Inspired Soft
+* 
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+* 
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.    
+*******************************************************************************/
+
+package it.inspired.exporter.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor generating, for each class annotated with ExpoElement, the accessors
+ * calling directly the getters of the class. The generated provider is found at runtime by
+ * it.inspired.exporter.access.AccessorProviders and used instead of reflection, the classes 
+ * without a provider are still exported using reflection.
+ * <p>
+ * The processor is enabled adding this module to the annotation processor path of the 
+ * compiler, eg. in the annotationProcessorPaths of the maven-compiler-plugin.
+ * The accessors are generated only for the public classes, the properties exported through 
+ * ExpoProperty are read from classes not annotated with ExpoElement using reflection.
+ * 
+ * @author Massimo Romano
+ *
+ */
+@SupportedAnnotationTypes( AccessorProcessor.EXPO_ELEMENT )
+public class AccessorProcessor extends AbstractProcessor 
+{
+	static final String EXPO_ELEMENT 	= "it.inspired.exporter.annotation.ExpoElement";
+	static final String UNEXPORTABLE 	= "it.inspired.exporter.annotation.Unexportable";
+	
+	/*
+	 * Must match it.inspired.exporter.access.AccessorProviders.SUFFIX
+	 */
+	static final String SUFFIX 			= "_ExpoAccessors";
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment roundEnv ) 
+	{
+		for ( TypeElement annotation : annotations )
+		{
+			for ( TypeElement type : ElementFilter.typesIn( roundEnv.getElementsAnnotatedWith( annotation ) ) )
+			{
+				if ( !isAccessible( type ) )
+				{
+					processingEnv.getMessager().printMessage( Diagnostic.Kind.NOTE, 
+							"Accessors not generated for " + type.getQualifiedName() + ", the class is not public", type );
+					continue;
+				}
+				try
+				{
+					generate( type );
+				}
+				catch (IOException e)
+				{
+					processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR, 
+							"Unable to generate the accessors of " + type.getQualifiedName() + ": " + e.getMessage(), type );
+				}
+			}
+		}
+		return false;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Check if the type can be referenced by a class of its package.
+	 * @param type The type to check.
+	 * @return True if the type and the enclosing types are public and not inner classes.
+	 */
+	private boolean isAccessible( TypeElement type )
+	{
+		if ( type.getKind() == ElementKind.ANNOTATION_TYPE || !type.getModifiers().contains( Modifier.PUBLIC ) )
+		{
+			return false;
+		}
+		if ( type.getNestingKind() == NestingKind.MEMBER )
+		{
+			if ( type.getKind() == ElementKind.CLASS && !type.getModifiers().contains( Modifier.STATIC ) )
+			{
+				return false;
+			}
+			return isAccessible( (TypeElement) type.getEnclosingElement() );
+		}
+		return type.getNestingKind() == NestingKind.TOP_LEVEL;
+	}
+	
+	/**
+	 * Return the getters of the type, including the inherited ones, following the
+	 * java bean naming conventions.
+	 * @param type The type to inspect.
+	 * @return The getters by name.
+	 */
+	private Map<String,ExecutableElement> getGetters( TypeElement type )
+	{
+		Map<String,ExecutableElement> getters = new LinkedHashMap<String,ExecutableElement>();
+		for ( ExecutableElement method : ElementFilter.methodsIn( processingEnv.getElementUtils().getAllMembers( type ) ) )
+		{
+			String name = method.getSimpleName().toString();
+			if ( !method.getModifiers().contains( Modifier.PUBLIC ) 
+					|| method.getModifiers().contains( Modifier.STATIC )
+					|| !method.getParameters().isEmpty()
+					|| !method.getTypeParameters().isEmpty()
+					|| method.getReturnType().getKind() == TypeKind.VOID
+					|| name.equals( "getClass" )
+					|| getters.containsKey( name )
+					|| isUnexportable( method ) )
+			{
+				continue;
+			}
+			if ( ( name.startsWith( "get" ) && name.length() > 3 ) 
+					|| ( name.startsWith( "is" ) && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN ) )
+			{
+				getters.put( name, method );
+			}
+		}
+		return getters;
+	}
+	
+	private boolean isUnexportable( ExecutableElement method )
+	{
+		for ( AnnotationMirror mirror : method.getAnnotationMirrors() )
+		{
+			if ( ( (TypeElement) mirror.getAnnotationType().asElement() ).getQualifiedName().contentEquals( UNEXPORTABLE ) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	//--------------------------------------------------------------------------------------
+	
+	/**
+	 * Generate the provider of the accessors for the given type.
+	 * @param type The type annotated with ExpoElement.
+	 * 
+	 * @throws IOException
+	 */
+	private void generate( TypeElement type ) throws IOException
+	{
+		PackageElement pkg 	= processingEnv.getElementUtils().getPackageOf( type );
+		String binaryName 	= processingEnv.getElementUtils().getBinaryName( type ).toString();
+		String packageName 	= ( pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString() );
+		// The separator of the nested classes is kept, so the names of the providers can not collide
+		String simpleName 	= binaryName.substring( packageName.isEmpty() ? 0 : packageName.length() + 1 ) + SUFFIX;
+		String typeName 	= type.getQualifiedName().toString();
+		
+		List<String> getters = new ArrayList<String>( getGetters( type ).keySet() );
+		
+		JavaFileObject file = processingEnv.getFiler().createSourceFile( ( packageName.isEmpty() ? "" : packageName + "." ) + simpleName, type );
+		PrintWriter out = new PrintWriter( file.openWriter() );
+		try
+		{
+			if ( !packageName.isEmpty() )
+			{
+				out.println( "package " + packageName + ";" );
+				out.println();
+			}
+			out.println( "/**" );
+			out.println( " * Accessors of the properties of {@link " + typeName + "}." );
+			out.println( " * Generated by " + AccessorProcessor.class.getName() + ", do not edit." );
+			out.println( " */" );
+			out.println( "public final class " + simpleName + " implements it.inspired.exporter.access.AccessorProvider" );
+			out.println( "{" );
+			out.println( "\tpublic Class<?> getType() {" );
+			out.println( "\t\treturn " + typeName + ".class;" );
+			out.println( "\t}" );
+			out.println();
+			out.println( "\tpublic it.inspired.exporter.access.PropertyAccessor getAccessor( String getter )" );
+			out.println( "\t{" );
+			for ( int i = 0; i < getters.size(); i++ )
+			{
+				out.println( "\t\tif ( \"" + getters.get( i ) + "\".equals( getter ) ) return new Accessor( " + i + " );" );
+			}
+			out.println( "\t\treturn null;" );
+			out.println( "\t}" );
+			out.println();
+			out.println( "\tprivate static final class Accessor implements it.inspired.exporter.access.PropertyAccessor" );
+			out.println( "\t{" );
+			out.println( "\t\tprivate final int index;" );
+			out.println();
+			out.println( "\t\tprivate Accessor( int index ) {" );
+			out.println( "\t\t\tthis.index = index;" );
+			out.println( "\t\t}" );
+			out.println();
+			out.println( "\t\t@SuppressWarnings(\"rawtypes\")" );
+			out.println( "\t\tpublic Object get( Object bean )" );
+			out.println( "\t\t{" );
+			out.println( "\t\t\t" + typeName + " obj = (" + typeName + ") bean;" );
+			out.println( "\t\t\tswitch ( index )" );
+			out.println( "\t\t\t{" );
+			for ( int i = 0; i < getters.size(); i++ )
+			{
+				out.println( "\t\t\t\tcase " + i + ": return obj." + getters.get( i ) + "();" );
+			}
+			out.println( "\t\t\t\tdefault: throw new IllegalStateException( \"Unknown accessor \" + index );" );
+			out.println( "\t\t\t}" );
+			out.println( "\t\t}" );
+			out.println( "\t}" );
+			out.println( "}" );
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+}